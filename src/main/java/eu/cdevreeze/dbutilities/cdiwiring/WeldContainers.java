@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.cdiwiring;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.cdiwiring.config.Configs;
+import eu.cdevreeze.dbutilities.cdiwiring.entityagentfunction.EntityAgentFunctionWiring;
+import eu.cdevreeze.dbutilities.cdiwiring.entitymanagerfactoryfunction.EntityManagerFactoryFunctionWiring;
+import eu.cdevreeze.dbutilities.cdiwiring.persistenceconfigs.PersistenceConfigWiring;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.weld.environment.se.Weld;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * Factory of (initialized) {@link WeldContainer} instances.
+ * <p>
+ * By default, beans are discovered by scanning the classpath for bean archives (see META-INF/beans.xml).
+ * If config property "fastStartup" is true, bean discovery is turned off instead, and the bean classes
+ * in {@link #BEAN_CLASSES} are registered as synthetic bean archive. That avoids classpath scanning
+ * at startup.
+ *
+ * @author Chris de Vreeze
+ */
+public final class WeldContainers {
+
+    /**
+     * The index of all bean classes in this project. It must be kept in sync with the classes annotated with
+     * a bean defining annotation in this "cdiwiring" namespace. So, when adding a bean class (such as a class
+     * with producer methods), add it to this list as well. WeldContainersTest checks that this list equals the
+     * bean classes found by bean discovery, and that the container starts in fast startup mode.
+     */
+    public static final List<Class<?>> BEAN_CLASSES = List.of(
+            Configs.class,
+            EntityAgentFunctionWiring.class,
+            EntityManagerFactoryFunctionWiring.class,
+            PersistenceConfigWiring.class
+    );
+
+    private WeldContainers() {
+    }
+
+    public static WeldContainer initialize() {
+        boolean fastStartup = ConfigProvider.getConfig().getOptionalValue("fastStartup", Boolean.class).orElse(false);
+        return initialize(fastStartup);
+    }
+
+    public static WeldContainer initialize(boolean fastStartup) {
+        if (fastStartup) {
+            return new Weld()
+                    .disableDiscovery()
+                    .addBeanClasses(BEAN_CLASSES.toArray(Class<?>[]::new))
+                    // For a handful of beans, concurrent deployment costs more than it saves
+                    .property("org.jboss.weld.bootstrap.concurrentDeployment", false)
+                    .initialize();
+        } else {
+            return new Weld().initialize();
+        }
+    }
+}
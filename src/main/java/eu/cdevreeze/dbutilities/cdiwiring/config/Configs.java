@@ -22,7 +22,8 @@ import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.ConfigProvider;
 
 /**
- * {@link Config} provider, turning it into a "CDI managed bean".
+ * {@link Config} provider, turning it into a "CDI managed bean". The provided {@link Config} is a
+ * {@link RequestAwareConfig}, so per-request properties take precedence, if any.
  *
  * @author Chris de Vreeze
  */
@@ -32,6 +33,6 @@ public class Configs {
     @Produces
     @ApplicationScoped
     public Config getConfig() {
-        return ConfigProvider.getConfig();
+        return new RequestAwareConfig(ConfigProvider.getConfig());
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.cdiwiring.config;
+
+import module java.base;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigValue;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.eclipse.microprofile.config.spi.Converter;
+
+/**
+ * {@link Config} that looks up properties in the request properties bound to {@link #REQUEST_PROPERTIES}, if any,
+ * before looking them up in the underlying {@link Config}. This way, a long-running process serving many requests
+ * (such as the daemon in the "console" package) can resolve config properties such as "dataSourceName" or
+ * "fetchSize" per request, without creating a new CDI container.
+ * <p>
+ * Request property values are converted with the converters of the underlying {@link Config}. List values are
+ * comma-separated. Methods {@link #getConfigValue(String)} and {@link #getConfigSources()} only see the
+ * underlying {@link Config}.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RequestAwareConfig implements Config {
+
+    /**
+     * The properties of the request being handled by the current thread, if any.
+     */
+    public static final ScopedValue<Map<String, String>> REQUEST_PROPERTIES = ScopedValue.newInstance();
+
+    private final Config delegate;
+
+    public RequestAwareConfig(Config delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> T getValue(String propertyName, Class<T> propertyType) {
+        return getOptionalValue(propertyName, propertyType)
+                .orElseThrow(() -> new NoSuchElementException(String.format("Missing config property '%s'", propertyName)));
+    }
+
+    @Override
+    public ConfigValue getConfigValue(String propertyName) {
+        return delegate.getConfigValue(propertyName);
+    }
+
+    @Override
+    public <T> Optional<T> getOptionalValue(String propertyName, Class<T> propertyType) {
+        Optional<String> requestValueOption = getRequestValue(propertyName);
+        if (requestValueOption.isPresent()) {
+            return Optional.of(convert(requestValueOption.get(), propertyType));
+        } else {
+            return delegate.getOptionalValue(propertyName, propertyType);
+        }
+    }
+
+    @Override
+    public <T> List<T> getValues(String propertyName, Class<T> propertyType) {
+        return getOptionalValues(propertyName, propertyType)
+                .orElseThrow(() -> new NoSuchElementException(String.format("Missing config property '%s'", propertyName)));
+    }
+
+    @Override
+    public <T> Optional<List<T>> getOptionalValues(String propertyName, Class<T> propertyType) {
+        Optional<String> requestValueOption = getRequestValue(propertyName);
+        if (requestValueOption.isPresent()) {
+            return Optional.of(Arrays.stream(requestValueOption.get().split(","))
+                    .map(String::strip)
+                    .filter(value -> !value.isEmpty())
+                    .map(value -> convert(value, propertyType))
+                    .toList());
+        } else {
+            return delegate.getOptionalValues(propertyName, propertyType);
+        }
+    }
+
+    @Override
+    public Iterable<String> getPropertyNames() {
+        Set<String> propertyNames = new LinkedHashSet<>(REQUEST_PROPERTIES.orElse(Map.of()).keySet());
+        delegate.getPropertyNames().forEach(propertyNames::add);
+        return Collections.unmodifiableSet(propertyNames);
+    }
+
+    @Override
+    public Iterable<ConfigSource> getConfigSources() {
+        return delegate.getConfigSources();
+    }
+
+    @Override
+    public <T> Optional<Converter<T>> getConverter(Class<T> forType) {
+        return delegate.getConverter(forType);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> type) {
+        return delegate.unwrap(type);
+    }
+
+    private static Optional<String> getRequestValue(String propertyName) {
+        return Optional.ofNullable(REQUEST_PROPERTIES.orElse(Map.of()).get(propertyName));
+    }
+
+    private <T> T convert(String value, Class<T> propertyType) {
+        Converter<T> converter = delegate.getConverter(propertyType)
+                .orElseThrow(() -> new IllegalArgumentException(String.format("No converter for %s", propertyType)));
+        return converter.convert(value);
+    }
+}
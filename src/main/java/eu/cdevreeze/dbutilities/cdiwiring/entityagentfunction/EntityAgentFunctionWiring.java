@@ -16,89 +16,217 @@
 
 package eu.cdevreeze.dbutilities.cdiwiring.entityagentfunction;
 
+import module java.base;
 import eu.cdevreeze.dbutilities.entityagentfunction.*;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataCache;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentFunctionFactory;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunctionFactory;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToXmlStreamFunctionFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Produces;
 import jakarta.enterprise.inject.Typed;
 import jakarta.inject.Named;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.eclipse.microprofile.config.Config;
 
 /**
  * CDI wiring of {@link EntityAgentFunctionFactory} instances.
+ * <p>
+ * The function factories are dependent objects, created for each lookup, so that their options reflect
+ * the config of the current request (see {@link eu.cdevreeze.dbutilities.cdiwiring.config.RequestAwareConfig}).
  *
  * @author Chris de Vreeze
  */
 @ApplicationScoped
 public class EntityAgentFunctionWiring {
 
+    private record MetaDataCacheKey(Path cacheDirectory, String dataSourceName, Duration maxAge) {
+    }
+
+    // One cache per data source, shared by all (daemon) requests for that data source
+    private final ConcurrentMap<MetaDataCacheKey, MetaDataCache> metaDataCaches = new ConcurrentHashMap<>();
+
+    /**
+     * Produces the {@link QueryOptions} passed to the function factories. The fetch size is taken from
+     * config property "fetchSize" (typically passed as system property for one program invocation),
+     * falling back to config property "&lt;dataSourceName&gt;.fetchSize", and otherwise to the driver default.
+     */
     @Produces
-    @ApplicationScoped
-    @Named("GetJsonQueryResults")
+    public QueryOptions getQueryOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        int fetchSize = config.getOptionalValue("fetchSize", Integer.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".fetchSize", Integer.class)))
+                .orElse(0);
+        return new QueryOptions(fetchSize);
+    }
+
+    /**
+     * Produces the {@link OutputOptions} passed to the function factories. The CSV null value is taken from
+     * config property "csvNullValue", and is the empty string by default. The Arrow batch size is taken from
+     * config property "arrowBatchSize", falling back to "&lt;dataSourceName&gt;.arrowBatchSize". Likewise, the
+     * Parquet row group size (in bytes) and compression codec are taken from config properties "parquetRowGroupSize"
+     * and "parquetCompressionCodec" (such as "snappy", "zstd" or "gzip").
+     */
+    @Produces
+    public OutputOptions getOutputOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        String csvNullValue = config.getOptionalValue("csvNullValue", String.class)
+                .orElse(OutputOptions.DEFAULT.csvNullValue());
+        int arrowBatchSize = config.getOptionalValue("arrowBatchSize", Integer.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".arrowBatchSize", Integer.class)))
+                .orElse(OutputOptions.DEFAULT.arrowBatchSize());
+        long parquetRowGroupSize = config.getOptionalValue("parquetRowGroupSize", Long.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".parquetRowGroupSize", Long.class)))
+                .orElse(OutputOptions.DEFAULT.parquetRowGroupSize());
+        CompressionCodecName parquetCompressionCodec = config.getOptionalValue("parquetCompressionCodec", String.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".parquetCompressionCodec", String.class)))
+                .map(codecName -> CompressionCodecName.valueOf(codecName.toUpperCase(Locale.ROOT)))
+                .orElse(OutputOptions.DEFAULT.parquetCompressionCodec());
+        return new OutputOptions(csvNullValue, arrowBatchSize, parquetRowGroupSize, parquetCompressionCodec);
+    }
+
+    /**
+     * Produces the {@link MetaDataOptions} passed to the metadata function factories. Whether the vendor dictionary
+     * is queried (for Oracle, Db2 and PostgreSQL) is taken from config property "vendorDictionaryMetaData",
+     * falling back to "&lt;dataSourceName&gt;.vendorDictionaryMetaData", and is true by default.
+     * <p>
+     * If config property "metaDataCacheDirectory" (or "&lt;dataSourceName&gt;.metaDataCacheDirectory") is set,
+     * metadata is cached on disk in that directory. Cache entries are trusted without any database round trip
+     * during the maximum age taken from config property "metaDataCacheMaxAge" (or
+     * "&lt;dataSourceName&gt;.metaDataCacheMaxAge"), as ISO-8601 duration such as "PT5M" (the default).
+     * The cache is namespaced by the data source name of the current request, so a daemon serving several data
+     * sources never returns the metadata of one data source for another one.
+     */
+    @Produces
+    public MetaDataOptions getMetaDataOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        boolean vendorDictionaryEnabled = config.getOptionalValue("vendorDictionaryMetaData", Boolean.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".vendorDictionaryMetaData", Boolean.class)))
+                .orElse(MetaDataOptions.DEFAULT.vendorDictionaryEnabled());
+        Optional<Path> cacheDirectoryOption = config.getOptionalValue("metaDataCacheDirectory", String.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".metaDataCacheDirectory", String.class)))
+                .map(Path::of);
+        Duration cacheMaxAge = config.getOptionalValue("metaDataCacheMaxAge", String.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".metaDataCacheMaxAge", String.class)))
+                .map(Duration::parse)
+                .orElse(Duration.ofMinutes(5));
+        Optional<MetaDataCache> metaDataCacheOption = cacheDirectoryOption
+                .map(dir -> new MetaDataCacheKey(dir, dataSourceNameOption.orElse("default"), cacheMaxAge))
+                .map(key -> metaDataCaches.computeIfAbsent(
+                        key,
+                        k -> new MetaDataCache(k.cacheDirectory(), k.dataSourceName(), k.maxAge())));
+        return new MetaDataOptions(vendorDictionaryEnabled, metaDataCacheOption);
+    }
+
+    @Produces
+    @Named("EstimateRowCountFromTable")
     @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public GetJsonQueryResultsFactory getJsonQueryResultsFactory() {
-        return new GetJsonQueryResultsFactory();
+    public EstimateRowCountFromTableFactory estimateRowCountFromTableFactory() {
+        return new EstimateRowCountFromTableFactory();
+    }
+
+    @Produces
+    @Named("GetJsonQueryResults")
+    @Typed({
+            EntityAgentToJsonObjectFunctionFactory.class,
+            EntityAgentToOutputStreamFunctionFactory.class,
+            EntityAgentFunctionFactory.class
+    })
+    public GetJsonQueryResultsFactory getJsonQueryResultsFactory(QueryOptions queryOptions) {
+        return new GetJsonQueryResultsFactory(queryOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("GetQueryResultsAsXml")
-    @Typed({EntityAgentToElementFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public GetQueryResultsAsXmlFactory getQueryResultsAsXmlFactory() {
-        return new GetQueryResultsAsXmlFactory();
+    @Typed({
+            EntityAgentToElementFunctionFactory.class,
+            EntityAgentToXmlStreamFunctionFactory.class,
+            EntityAgentFunctionFactory.class
+    })
+    public GetQueryResultsAsXmlFactory getQueryResultsAsXmlFactory(QueryOptions queryOptions) {
+        return new GetQueryResultsAsXmlFactory(queryOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("GetQueryResults")
-    @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public GetQueryResultsFactory getQueryResultsFactory() {
-        return new GetQueryResultsFactory();
+    @Typed({
+            EntityAgentToJsonObjectFunctionFactory.class,
+            EntityAgentToJsonStreamFunctionFactory.class,
+            EntityAgentToOutputStreamFunctionFactory.class,
+            EntityAgentFunctionFactory.class
+    })
+    public GetQueryResultsFactory getQueryResultsFactory(QueryOptions queryOptions, OutputOptions outputOptions) {
+        return new GetQueryResultsFactory(queryOptions, outputOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("GetTableColumnsMetaData")
     @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public GetTableColumnsMetaDataFactory getTableColumnsMetaDataFactory() {
-        return new GetTableColumnsMetaDataFactory();
+    public GetTableColumnsMetaDataFactory getTableColumnsMetaDataFactory(MetaDataOptions metaDataOptions) {
+        return new GetTableColumnsMetaDataFactory(metaDataOptions);
+    }
+
+    @Produces
+    @Named("GetSchemaMetaData")
+    @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
+    public GetSchemaMetaDataFactory getSchemaMetaDataFactory(MetaDataOptions metaDataOptions) {
+        return new GetSchemaMetaDataFactory(metaDataOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("GetTableMetaData")
     @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public GetTableMetaDataFactory getTableMetaDataFactory() {
-        return new GetTableMetaDataFactory();
+    public GetTableMetaDataFactory getTableMetaDataFactory(MetaDataOptions metaDataOptions) {
+        return new GetTableMetaDataFactory(metaDataOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("GetXmlQueryResultsAsXml")
     @Typed({EntityAgentToElementFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public GetXmlQueryResultsAsXmlFactory getXmlQueryResultsAsXmlFactory() {
-        return new GetXmlQueryResultsAsXmlFactory();
+    public GetXmlQueryResultsAsXmlFactory getXmlQueryResultsAsXmlFactory(QueryOptions queryOptions) {
+        return new GetXmlQueryResultsAsXmlFactory(queryOptions);
+    }
+
+    @Produces
+    @Named("RefreshMetaDataCache")
+    @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
+    public RefreshMetaDataCacheFactory refreshMetaDataCacheFactory(MetaDataOptions metaDataOptions) {
+        return new RefreshMetaDataCacheFactory(metaDataOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("SelectAllFromTableAsXml")
-    @Typed({EntityAgentToElementFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public SelectAllFromTableAsXmlFactory selectAllFromTableAsXmlFactory() {
-        return new SelectAllFromTableAsXmlFactory();
+    @Typed({
+            EntityAgentToElementFunctionFactory.class,
+            EntityAgentToXmlStreamFunctionFactory.class,
+            EntityAgentFunctionFactory.class
+    })
+    public SelectAllFromTableAsXmlFactory selectAllFromTableAsXmlFactory(QueryOptions queryOptions) {
+        return new SelectAllFromTableAsXmlFactory(queryOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("SelectAllFromTable")
-    @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
-    public SelectAllFromTableFactory selectAllFromTableFactory() {
-        return new SelectAllFromTableFactory();
+    @Typed({
+            EntityAgentToJsonObjectFunctionFactory.class,
+            EntityAgentToJsonStreamFunctionFactory.class,
+            EntityAgentToOutputStreamFunctionFactory.class,
+            EntityAgentFunctionFactory.class
+    })
+    public SelectAllFromTableFactory selectAllFromTableFactory(QueryOptions queryOptions, OutputOptions outputOptions) {
+        return new SelectAllFromTableFactory(queryOptions, outputOptions);
     }
 
     @Produces
-    @ApplicationScoped
     @Named("SelectRowCountFromTable")
     @Typed({EntityAgentToJsonObjectFunctionFactory.class, EntityAgentFunctionFactory.class})
     public SelectRowCountFromTableFactory selectRowCountFromTableFactory() {
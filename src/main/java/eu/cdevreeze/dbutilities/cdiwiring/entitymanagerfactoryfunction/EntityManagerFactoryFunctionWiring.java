@@ -0,0 +1,250 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.cdiwiring.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.ExportTablePartitionedFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.ExportTableResumableFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.ExportTablesFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.LoadTableFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.LookupRowsByKeysFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.RunParameterSweepFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.RunQueryBatchFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.SelectRowCountsFromTablesFactory;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.KeyLookupOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.LoadOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PaginationOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PartitioningOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.RowCountOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.enterprise.inject.Typed;
+import jakarta.inject.Named;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * CDI wiring of {@link EntityManagerFactoryFunctionFactory} instances.
+ * <p>
+ * The function factories are dependent objects, created for each lookup, so that their options reflect
+ * the config of the current request (see {@link eu.cdevreeze.dbutilities.cdiwiring.config.RequestAwareConfig}).
+ *
+ * @author Chris de Vreeze
+ */
+@ApplicationScoped
+public class EntityManagerFactoryFunctionWiring {
+
+    /**
+     * Produces the {@link ConcurrencyOptions} passed to the function factories. The maximum concurrency is taken
+     * from config property "maxConcurrency" (typically passed as system property for one program invocation),
+     * falling back to config property "&lt;dataSourceName&gt;.maxConcurrency", and otherwise to the default.
+     */
+    @Produces
+    public ConcurrencyOptions getConcurrencyOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        return config.getOptionalValue("maxConcurrency", Integer.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".maxConcurrency", Integer.class)))
+                .map(ConcurrencyOptions::new)
+                .orElse(ConcurrencyOptions.DEFAULT);
+    }
+
+    /**
+     * Produces the {@link ExportFormat}, taken from config property "exportFormat", and JSON by default.
+     */
+    @Produces
+    public ExportFormat getExportFormat(Config config) {
+        return config.getOptionalValue("exportFormat", String.class)
+                .map(ExportFormat::parse)
+                .orElse(ExportFormat.JSON);
+    }
+
+    /**
+     * Produces the {@link PartitioningOptions}, taken from config properties "partitions" (by default 0,
+     * meaning the maximum concurrency), "partitionBoundaries" ("minmax" or "ntile", by default "minmax")
+     * and "ordered" (by default true).
+     */
+    @Produces
+    public PartitioningOptions getPartitioningOptions(Config config) {
+        return new PartitioningOptions(
+                config.getOptionalValue("partitions", Integer.class).orElse(0),
+                config.getOptionalValue("partitionBoundaries", String.class)
+                        .map(PartitioningOptions.BoundaryStrategy::parse)
+                        .orElse(PartitioningOptions.BoundaryStrategy.MIN_MAX),
+                config.getOptionalValue("ordered", Boolean.class).orElse(true)
+        );
+    }
+
+    /**
+     * Produces the {@link PaginationOptions}, taken from config property "pageSize", falling back to config
+     * property "&lt;dataSourceName&gt;.pageSize", and otherwise to the default.
+     */
+    @Produces
+    public PaginationOptions getPaginationOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        return config.getOptionalValue("pageSize", Integer.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".pageSize", Integer.class)))
+                .map(PaginationOptions::new)
+                .orElse(PaginationOptions.DEFAULT);
+    }
+
+    /**
+     * Produces the {@link RowCountOptions}, taking the table timeout from config property "tableTimeout", falling
+     * back to config property "&lt;dataSourceName&gt;.tableTimeout", as ISO-8601 duration (such as "PT10M").
+     * By default, there is no table timeout.
+     */
+    @Produces
+    public RowCountOptions getRowCountOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        return config.getOptionalValue("tableTimeout", String.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".tableTimeout", String.class)))
+                .map(Duration::parse)
+                .map(RowCountOptions::new)
+                .orElse(RowCountOptions.DEFAULT);
+    }
+
+    /**
+     * Produces the {@link KeyLookupOptions}, taking the chunk size from config property "lookupChunkSize", falling
+     * back to config property "&lt;dataSourceName&gt;.lookupChunkSize", and otherwise to the default.
+     */
+    @Produces
+    public KeyLookupOptions getKeyLookupOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        return config.getOptionalValue("lookupChunkSize", Integer.class)
+                .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".lookupChunkSize", Integer.class)))
+                .map(KeyLookupOptions::new)
+                .orElse(KeyLookupOptions.DEFAULT);
+    }
+
+    /**
+     * Produces the {@link LoadOptions}, taking the batch size and commit interval from config properties
+     * "batchSize" and "commitInterval", falling back to config properties "&lt;dataSourceName&gt;.batchSize" and
+     * "&lt;dataSourceName&gt;.commitInterval", and otherwise to the defaults.
+     */
+    @Produces
+    public LoadOptions getLoadOptions(Config config) {
+        Optional<String> dataSourceNameOption = config.getOptionalValue("dataSourceName", String.class);
+
+        return new LoadOptions(
+                config.getOptionalValue("batchSize", Integer.class)
+                        .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".batchSize", Integer.class)))
+                        .orElse(LoadOptions.DEFAULT.batchSize()),
+                config.getOptionalValue("commitInterval", Integer.class)
+                        .or(() -> dataSourceNameOption.flatMap(dsName -> config.getOptionalValue(dsName + ".commitInterval", Integer.class)))
+                        .orElse(LoadOptions.DEFAULT.commitInterval())
+        );
+    }
+
+    @Produces
+    @Named("ExportTablePartitioned")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public ExportTablePartitionedFactory exportTablePartitionedFactory(
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            ConcurrencyOptions concurrencyOptions,
+            PartitioningOptions partitioningOptions
+    ) {
+        return new ExportTablePartitionedFactory(exportFormat, queryOptions, concurrencyOptions, partitioningOptions);
+    }
+
+    @Produces
+    @Named("ExportTableResumable")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public ExportTableResumableFactory exportTableResumableFactory(
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            PaginationOptions paginationOptions
+    ) {
+        return new ExportTableResumableFactory(exportFormat, queryOptions, paginationOptions);
+    }
+
+    @Produces
+    @Named("ExportTables")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public ExportTablesFactory exportTablesFactory(
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        return new ExportTablesFactory(exportFormat, queryOptions, concurrencyOptions);
+    }
+
+    @Produces
+    @Named("LoadTable")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public LoadTableFactory loadTableFactory(
+            MetaDataOptions metaDataOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions,
+            LoadOptions loadOptions
+    ) {
+        return new LoadTableFactory(metaDataOptions, outputOptions, concurrencyOptions, loadOptions);
+    }
+
+    @Produces
+    @Named("LookupRowsByKeys")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public LookupRowsByKeysFactory lookupRowsByKeysFactory(
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions,
+            KeyLookupOptions keyLookupOptions
+    ) {
+        return new LookupRowsByKeysFactory(queryOptions, outputOptions, concurrencyOptions, keyLookupOptions);
+    }
+
+    @Produces
+    @Named("RunParameterSweep")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public RunParameterSweepFactory runParameterSweepFactory(
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        return new RunParameterSweepFactory(queryOptions, outputOptions, concurrencyOptions);
+    }
+
+    @Produces
+    @Named("RunQueryBatch")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public RunQueryBatchFactory runQueryBatchFactory(
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        return new RunQueryBatchFactory(queryOptions, outputOptions, concurrencyOptions);
+    }
+
+    @Produces
+    @Named("SelectRowCountsFromTables")
+    @Typed({EntityManagerFactoryToJsonObjectFunctionFactory.class, EntityManagerFactoryFunctionFactory.class})
+    public SelectRowCountsFromTablesFactory selectRowCountsFromTablesFactory(
+            ConcurrencyOptions concurrencyOptions,
+            RowCountOptions rowCountOptions
+    ) {
+        return new SelectRowCountsFromTablesFactory(concurrencyOptions, rowCountOptions);
+    }
+}
@@ -24,6 +24,7 @@
  * excellent explanation of why localizing use of CDI is a good idea.
  * <p>
  * The only classes outside this namespace where CDI is used are a few "foundational" console programs.
+ * They create the CDI container through {@link eu.cdevreeze.dbutilities.cdiwiring.WeldContainers}.
  *
  * @author Chris de Vreeze
  */
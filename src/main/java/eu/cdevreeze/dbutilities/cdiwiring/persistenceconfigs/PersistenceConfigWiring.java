@@ -16,17 +16,31 @@
 
 package eu.cdevreeze.dbutilities.cdiwiring.persistenceconfigs;
 
+import module java.sql;
+import com.zaxxer.hikari.HikariDataSource;
+import eu.cdevreeze.dbutilities.datasource.Db2DataSources;
+import eu.cdevreeze.dbutilities.datasource.OracleDataSources;
+import eu.cdevreeze.dbutilities.datasource.PooledDataSources;
+import eu.cdevreeze.dbutilities.datasource.PostgresqlDataSources;
 import eu.cdevreeze.dbutilities.persistenceconfigs.Db2PersistenceConfigurations;
 import eu.cdevreeze.dbutilities.persistenceconfigs.OraclePersistenceConfigurations;
 import eu.cdevreeze.dbutilities.persistenceconfigs.PostgresqlPersistenceConfigurations;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
+import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.Produces;
+import jakarta.enterprise.inject.Typed;
 import jakarta.inject.Named;
 import jakarta.persistence.PersistenceConfiguration;
 import org.eclipse.microprofile.config.Config;
 
 /**
  * CDI wiring of {@link PersistenceConfiguration} instances.
+ * <p>
+ * If config property "&lt;dataSourceName&gt;.pooled" is true, the persistence configuration uses
+ * a HikariCP connection pool wrapping the vendor-specific {@link DataSource}. That pool is also
+ * a CDI managed bean (named "&lt;dataSourceName&gt;PooledDataSource", because bean names must be unique),
+ * and it is closed when the CDI container shuts down.
  *
  * @author Chris de Vreeze
  */
@@ -36,21 +50,84 @@ public class PersistenceConfigWiring {
     @Produces
     @Named("db2")
     @ApplicationScoped
-    public PersistenceConfiguration getDb2PersistenceConfiguration(Config config) {
-        return Db2PersistenceConfigurations.getPersistenceConfiguration(config);
+    public PersistenceConfiguration getDb2PersistenceConfiguration(
+            Config config,
+            @Named("db2PooledDataSource") Instance<DataSource> pooledDataSourceInstance
+    ) {
+        if (PooledDataSources.isPooled("db2", config)) {
+            return Db2PersistenceConfigurations.getPersistenceConfiguration(config, pooledDataSourceInstance.get());
+        } else {
+            return Db2PersistenceConfigurations.getPersistenceConfiguration(config);
+        }
     }
 
     @Produces
     @Named("oracle")
     @ApplicationScoped
-    public PersistenceConfiguration getOraclePersistenceConfiguration(Config config) {
-        return OraclePersistenceConfigurations.getPersistenceConfiguration(config);
+    public PersistenceConfiguration getOraclePersistenceConfiguration(
+            Config config,
+            @Named("oraclePooledDataSource") Instance<DataSource> pooledDataSourceInstance
+    ) {
+        if (PooledDataSources.isPooled("oracle", config)) {
+            return OraclePersistenceConfigurations.getPersistenceConfiguration(config, pooledDataSourceInstance.get());
+        } else {
+            return OraclePersistenceConfigurations.getPersistenceConfiguration(config);
+        }
     }
 
     @Produces
     @Named("postgresql")
     @ApplicationScoped
-    public PersistenceConfiguration getPostgresqlPersistenceConfiguration(Config config) {
-        return PostgresqlPersistenceConfigurations.getPersistenceConfiguration(config);
+    public PersistenceConfiguration getPostgresqlPersistenceConfiguration(
+            Config config,
+            @Named("postgresqlPooledDataSource") Instance<DataSource> pooledDataSourceInstance
+    ) {
+        if (PooledDataSources.isPooled("postgresql", config)) {
+            return PostgresqlPersistenceConfigurations.getPersistenceConfiguration(config, pooledDataSourceInstance.get());
+        } else {
+            return PostgresqlPersistenceConfigurations.getPersistenceConfiguration(config);
+        }
+    }
+
+    @Produces
+    @Named("db2PooledDataSource")
+    @ApplicationScoped
+    @Typed(DataSource.class)
+    public HikariDataSource getDb2PooledDataSource(Config config) {
+        return PooledDataSources.getPooledDataSource("db2", Db2DataSources.getDataSource(config), config);
+    }
+
+    @Produces
+    @Named("oraclePooledDataSource")
+    @ApplicationScoped
+    @Typed(DataSource.class)
+    public HikariDataSource getOraclePooledDataSource(Config config) {
+        return PooledDataSources.getPooledDataSource("oracle", OracleDataSources.getDataSource(config), config);
+    }
+
+    @Produces
+    @Named("postgresqlPooledDataSource")
+    @ApplicationScoped
+    @Typed(DataSource.class)
+    public HikariDataSource getPostgresqlPooledDataSource(Config config) {
+        return PooledDataSources.getPooledDataSource("postgresql", PostgresqlDataSources.getDataSource(config), config);
+    }
+
+    public void closeDb2PooledDataSource(@Disposes @Named("db2PooledDataSource") DataSource dataSource) {
+        closePool(dataSource);
+    }
+
+    public void closeOraclePooledDataSource(@Disposes @Named("oraclePooledDataSource") DataSource dataSource) {
+        closePool(dataSource);
+    }
+
+    public void closePostgresqlPooledDataSource(@Disposes @Named("postgresqlPooledDataSource") DataSource dataSource) {
+        closePool(dataSource);
+    }
+
+    private static void closePool(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource pool) {
+            pool.close();
+        }
     }
 }
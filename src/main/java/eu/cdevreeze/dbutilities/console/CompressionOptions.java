@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import com.google.common.base.Preconditions;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Options for compressing the output of the console programs with a {@link ParallelCompressingOutputStream}.
+ *
+ * @author Chris de Vreeze
+ */
+public record CompressionOptions(OutputCompression compression, int level, int threadCount, int blockSize) {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    public CompressionOptions {
+        Preconditions.checkArgument(threadCount > 0, "Thread count must be positive");
+        Preconditions.checkArgument(blockSize > 0, "Block size must be positive");
+    }
+
+    /**
+     * Returns the compression options from config properties "outputCompression" ("gzip" or "zstd"),
+     * "compressionLevel" (by default the default level of the compression), "compressionThreads" (by default the
+     * number of available processors) and "compressionBlockSize" (by default 1 MiB). If config property
+     * "outputCompression" is absent (or "none"), the output is not compressed, and an empty Optional is returned.
+     */
+    public static Optional<CompressionOptions> fromConfig(Config config) {
+        return config.getOptionalValue("outputCompression", String.class)
+                .filter(name -> !name.equalsIgnoreCase("none"))
+                .map(OutputCompression::parse)
+                .map(compression -> new CompressionOptions(
+                        compression,
+                        config.getOptionalValue("compressionLevel", Integer.class).orElse(compression.getDefaultLevel()),
+                        config.getOptionalValue("compressionThreads", Integer.class)
+                                .orElse(Runtime.getRuntime().availableProcessors()),
+                        config.getOptionalValue("compressionBlockSize", Integer.class).orElse(DEFAULT_BLOCK_SIZE)
+                ));
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import com.google.common.base.Preconditions;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.spi.JsonProvider;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * The protocol between {@link EntityAgentDaemon} and {@link EntityAgentDaemonClient}, over a Unix domain socket.
+ * <p>
+ * The client sends one request, as JSON object written with {@link DataOutputStream#writeUTF(String)}.
+ * It contains the "dataSourceName", the "function" name, the "args" (array of strings), the "workingDirectory"
+ * of the client (absolute path) and optionally "streaming" (boolean), "outputFormat" (string, such as "ndjson")
+ * and "properties". The latter is an object containing the config properties of the client among
+ * {@link #REQUEST_PROPERTY_NAMES}, as strings. The daemon resolves these properties, and the "dataSourceName",
+ * per request, instead of taking them from its own config. Likewise, relative path arguments (such as query files
+ * and output files) are resolved against the working directory of the client, and not against the one of the daemon
+ * (see {@link eu.cdevreeze.dbutilities.function.FunctionArguments#WORKING_DIRECTORY}).
+ * The daemon sends the result back as a sequence of frames, each of them consisting
+ * of the (positive) length as int, followed by that many bytes. The result ends with length 0 on success.
+ * It ends with length -1, followed by an error message written with {@link DataOutputStream#writeUTF(String)},
+ * on failure. This way, a failure is reported even if part of a streamed result has already been sent.
+ *
+ * @author Chris de Vreeze
+ */
+final class DaemonProtocol {
+
+    private static final String DEFAULT_SOCKET_FILE_NAME = "dbutilities.socket";
+
+    private static final int END_OF_RESULT = 0;
+    private static final int ERROR = -1;
+
+    private static final int FRAME_SIZE = 64 * 1024;
+
+    /**
+     * The names of the config properties that the client forwards to the daemon, because they determine the
+     * options of one function call.
+     */
+    static final List<String> REQUEST_PROPERTY_NAMES = List.of(
+            "fetchSize",
+            "csvNullValue",
+            "arrowBatchSize",
+            "parquetRowGroupSize",
+            "parquetCompressionCodec",
+            "vendorDictionaryMetaData",
+            "metaDataCacheDirectory",
+            "metaDataCacheMaxAge",
+            "maxConcurrency",
+            "exportFormat",
+            "partitions",
+            "partitionBoundaries",
+            "ordered",
+            "pageSize",
+            "tableTimeout",
+            "lookupChunkSize",
+            "batchSize",
+            "commitInterval",
+            "outputCompression",
+            "compressionLevel",
+            "compressionThreads",
+            "compressionBlockSize"
+    );
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * Returns the socket path, from config property "daemonSocketPath", defaulting to file "dbutilities.socket"
+     * in the per-user socket directory (see {@link #getDefaultSocketDirectory()}).
+     */
+    static Path getSocketPath(Config config) {
+        return config.getOptionalValue("daemonSocketPath", String.class)
+                .map(Path::of)
+                .orElse(getDefaultSocketDirectory().resolve(DEFAULT_SOCKET_FILE_NAME));
+    }
+
+    /**
+     * Returns the default socket directory, which is directory "dbutilities-&lt;userName&gt;" in the temp directory.
+     * The daemon creates it, accessible to the owner only, and refuses to use it if others have access to it.
+     */
+    static Path getDefaultSocketDirectory() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "dbutilities-" + System.getProperty("user.name"));
+    }
+
+    /**
+     * Creates a request. The working directory must be an absolute path.
+     */
+    static JsonObject createRequest(
+            String dataSourceName,
+            String functionName,
+            List<String> factoryArgs,
+            Path workingDirectory,
+            boolean streaming,
+            Optional<String> outputFormatOption,
+            Map<String, String> properties
+    ) {
+        Preconditions.checkArgument(workingDirectory.isAbsolute(), "The working directory must be an absolute path");
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+        JsonObjectBuilder requestBuilder = jsonProvider.createObjectBuilder()
+                .add("dataSourceName", dataSourceName)
+                .add("function", functionName)
+                .add("args", jsonProvider.createArrayBuilder(factoryArgs))
+                .add("workingDirectory", workingDirectory.toString())
+                .add("streaming", streaming);
+        outputFormatOption.ifPresent(outputFormat -> requestBuilder.add("outputFormat", outputFormat));
+        JsonObjectBuilder propertiesBuilder = jsonProvider.createObjectBuilder();
+        properties.forEach(propertiesBuilder::add);
+        requestBuilder.add("properties", propertiesBuilder);
+        return requestBuilder.build();
+    }
+
+    static void writeRequest(JsonObject request, DataOutputStream out) throws IOException {
+        out.writeUTF(request.toString());
+        out.flush();
+    }
+
+    /**
+     * Returns the config properties of the given request, including the "dataSourceName".
+     */
+    static Map<String, String> getRequestProperties(JsonObject request) {
+        Map<String, String> properties = new HashMap<>();
+        if (request.containsKey("properties")) {
+            request.getJsonObject("properties")
+                    .forEach((name, value) -> properties.put(name, ((JsonString) value).getString()));
+        }
+        properties.put("dataSourceName", request.getString("dataSourceName"));
+        return Map.copyOf(properties);
+    }
+
+    /**
+     * Returns the working directory of the client that sent the given request.
+     */
+    static Path getWorkingDirectory(JsonObject request) {
+        Path workingDirectory = Path.of(request.getString("workingDirectory"));
+        Preconditions.checkArgument(workingDirectory.isAbsolute(), "The working directory must be an absolute path");
+        return workingDirectory;
+    }
+
+    static JsonObject readRequest(DataInputStream in) throws IOException {
+        String requestAsString = in.readUTF();
+        return JsonProvider.provider().createReader(new StringReader(requestAsString)).readObject();
+    }
+
+    /**
+     * Copies the result sent by the daemon to the given output stream, returning the error message, if any.
+     */
+    static Optional<String> readResult(DataInputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[FRAME_SIZE];
+        while (true) {
+            int length = in.readInt();
+            if (length == END_OF_RESULT) {
+                return Optional.empty();
+            } else if (length == ERROR) {
+                return Optional.of(in.readUTF());
+            } else {
+                int remaining = length;
+                while (remaining > 0) {
+                    int count = in.read(buffer, 0, Math.min(remaining, buffer.length));
+                    if (count < 0) {
+                        throw new EOFException("Unexpected end of result");
+                    }
+                    out.write(buffer, 0, count);
+                    remaining -= count;
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link OutputStream} used by the daemon to send the result, buffering the output and sending it in frames.
+     * Closing this output stream does not close the underlying output stream.
+     */
+    static final class ResultOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte[] buffer = new byte[FRAME_SIZE];
+        private int count = 0;
+
+        ResultOutputStream(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                writeFrame();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            while (len > 0) {
+                if (count == buffer.length) {
+                    writeFrame();
+                }
+                int chunkSize = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, chunkSize);
+                count += chunkSize;
+                off += chunkSize;
+                len -= chunkSize;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writeFrame();
+            out.flush();
+        }
+
+        void endResult() throws IOException {
+            writeFrame();
+            out.writeInt(END_OF_RESULT);
+            out.flush();
+        }
+
+        void endResultWithError(String errorMessage) throws IOException {
+            writeFrame();
+            out.writeInt(ERROR);
+            out.writeUTF(errorMessage);
+            out.flush();
+        }
+
+        private void writeFrame() throws IOException {
+            if (count > 0) {
+                out.writeInt(count);
+                out.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.cdiwiring.WeldContainers;
+import eu.cdevreeze.dbutilities.cdiwiring.config.RequestAwareConfig;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+import eu.cdevreeze.dbutilities.function.OutputFormat;
+import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import jdk.net.ExtendedSocketOptions;
+import org.eclipse.microprofile.config.Config;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * Long-running program that keeps the CDI container, and one {@link EntityManagerFactory} per data source,
+ * alive, and that runs functions on request of {@link EntityAgentDaemonClient} processes. This way, the
+ * costs of CDI container startup and Hibernate bootstrapping are paid only once, instead of once per function call.
+ * <p>
+ * The daemon listens on a Unix domain socket, whose path is given by config property "daemonSocketPath"
+ * (by default file "dbutilities.socket" in a per-user directory in the temp directory, see
+ * {@link DaemonProtocol#getDefaultSocketDirectory()}). After all, any client of the daemon can run any query
+ * with the daemon's database credentials, and can make the daemon read files. Therefore, the socket file is
+ * made accessible to its owner only, and connections of other users than the daemon's user are rejected
+ * (using the peer credentials of the connection). The daemon refuses to start if another daemon already
+ * listens on the socket path. Config property "dataSourceNames" optionally
+ * contains a comma-separated list of data source names whose {@link EntityManagerFactory} is created at startup.
+ * Other {@link EntityManagerFactory} instances are created on first use. It is recommended to use pooled
+ * data sources (config property "&lt;dataSourceName&gt;.pooled"), so that database connections are reused
+ * across requests as well.
+ * <p>
+ * Both functions returning JSON and functions returning XML can be run, as well as functions taking the
+ * {@link EntityManagerFactory} (such as concurrent table exports). Requests are handled concurrently,
+ * each one in its own virtual thread. The function options (such as the fetch size) are resolved per request,
+ * from the config properties sent by the client and the config of the request's data source (see
+ * {@link RequestAwareConfig}), and relative path arguments are resolved against the working directory of the
+ * client (see {@link FunctionArguments#WORKING_DIRECTORY}). Likewise, if the client sets config property
+ * "outputCompression", the result is compressed by the daemon, using a {@link ParallelCompressingOutputStream}
+ * (see {@link CompressionOptions}), and the client receives the compressed bytes.
+ * <p>
+ * See {@link DaemonProtocol} for the protocol used. The daemon stops when the JVM is shut down, for
+ * example by Ctrl-C or SIGTERM.
+ *
+ * @author Chris de Vreeze
+ */
+public final class EntityAgentDaemon {
+
+    private final Config config;
+    private final Map<String, EntityManagerFactory> entityManagerFactories = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the daemon. The given {@link Config} should be a {@link RequestAwareConfig}, so that the
+     * compression options are resolved per request.
+     */
+    public EntityAgentDaemon(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (WeldContainer weldContainer = WeldContainers.initialize()) {
+            Instance<Config> configInstance = weldContainer.select(Config.class, Default.Literal.INSTANCE);
+
+            Preconditions.checkArgument(
+                    configInstance.isResolvable(),
+                    String.format("Could not resolve Config with required qualifier '%s'", Default.Literal.INSTANCE)
+            );
+
+            Config config = configInstance.get();
+
+            EntityAgentDaemon daemon = new EntityAgentDaemon(config);
+            try {
+                config.getOptionalValues("dataSourceNames", String.class)
+                        .orElse(List.of())
+                        .forEach(daemon::getEntityManagerFactory);
+
+                daemon.serve(DaemonProtocol.getSocketPath(config));
+            } finally {
+                daemon.closeEntityManagerFactories();
+            }
+        }
+    }
+
+    /**
+     * Accepts and handles requests, until the JVM is shut down.
+     */
+    public void serve(Path socketPath) throws IOException {
+        prepareSocketDirectory(socketPath.toAbsolutePath().getParent());
+        removeStaleSocket(socketPath);
+
+        Thread mainThread = Thread.currentThread();
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+            // The socket file is owned by the user running this process
+            UserPrincipal daemonUser = Files.getOwner(socketPath);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    // Stops the accept loop below
+                    serverChannel.close();
+                    // Lets the main thread close the resources it holds
+                    mainThread.join();
+                } catch (IOException | InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+
+            System.err.printf("Listening on %s%n", socketPath);
+
+            while (serverChannel.isOpen()) {
+                SocketChannel channel;
+                try {
+                    channel = serverChannel.accept();
+                } catch (AsynchronousCloseException e) {
+                    break;
+                }
+                executor.submit(() -> handle(channel, daemonUser));
+            }
+        } finally {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void handle(SocketChannel channel, UserPrincipal daemonUser) {
+        try (channel) {
+            Optional<UserPrincipal> peerUserOption = getPeerUser(channel);
+            if (!peerUserOption.equals(Optional.of(daemonUser))) {
+                System.err.printf(
+                        "Rejected connection of user %s%n",
+                        peerUserOption.map(UserPrincipal::getName).orElse("(unknown)"));
+                return;
+            }
+
+            var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            var out = new DaemonProtocol.ResultOutputStream(
+                    new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))
+            );
+
+            try {
+                JsonObject request = DaemonProtocol.readRequest(in);
+
+                String dataSourceName = request.getString("dataSourceName");
+                String functionName = request.getString("function");
+                List<String> factoryArgs = request.getJsonArray("args").getValuesAs(JsonString::getString);
+                boolean streaming = request.getBoolean("streaming", false);
+                Optional<OutputFormat> outputFormatOption = request.containsKey("outputFormat") ?
+                        Optional.of(OutputFormat.parse(request.getString("outputFormat"))) :
+                        Optional.empty();
+
+                EntityManagerFactory emf = getEntityManagerFactory(dataSourceName);
+
+                // The function factories are looked up and applied while the request properties and the
+                // working directory of the client are bound
+                ScopedValue.where(RequestAwareConfig.REQUEST_PROPERTIES, DaemonProtocol.getRequestProperties(request))
+                        .where(FunctionArguments.WORKING_DIRECTORY, DaemonProtocol.getWorkingDirectory(request))
+                        .run(() -> {
+                            try {
+                                Optional<CompressionOptions> compressionOptionsOption =
+                                        CompressionOptions.fromConfig(config);
+                                if (compressionOptionsOption.isPresent()) {
+                                    // Not closing the result output stream, which still has to end the result
+                                    ParallelCompressingOutputStream compressingOut =
+                                            ParallelCompressingOutputStream.create(out, compressionOptionsOption.get());
+                                    try {
+                                        run(emf, functionName, factoryArgs, streaming, outputFormatOption, compressingOut);
+                                    } finally {
+                                        // Also stopping the compression threads on failure
+                                        compressingOut.finish();
+                                    }
+                                } else {
+                                    run(emf, functionName, factoryArgs, streaming, outputFormatOption, out);
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+
+                out.endResult();
+            } catch (RuntimeException e) {
+                e.printStackTrace(System.err);
+                out.endResultWithError(e.toString());
+            }
+        } catch (IOException e) {
+            // The client has probably gone away
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void run(
+            EntityManagerFactory emf,
+            String functionName,
+            List<String> factoryArgs,
+            boolean streaming,
+            Optional<OutputFormat> outputFormatOption,
+            OutputStream out
+    ) throws IOException {
+        if (outputFormatOption.isPresent()) {
+            EntityAgentProgramReturningJson.run(emf, functionName, factoryArgs, outputFormatOption.get(), out);
+        } else if (EntityAgentProgramReturningJson.canResolveFunction(functionName)) {
+            EntityAgentProgramReturningJson.run(emf, functionName, factoryArgs, streaming, out);
+        } else if (EntityAgentProgramReturningXml.canResolveFunction(functionName)) {
+            EntityAgentProgramReturningXml.run(emf, functionName, factoryArgs, streaming, out);
+        } else if (EntityManagerFactoryProgramReturningJson.canResolveFunction(functionName)) {
+            EntityManagerFactoryProgramReturningJson.run(emf, functionName, factoryArgs, out);
+        } else {
+            throw new IllegalArgumentException(String.format("Could not resolve function with name '%s'", functionName));
+        }
+    }
+
+    /**
+     * Creates the socket directory, accessible to its owner only, if it does not exist. The default socket
+     * directory is not used if it exists but is not private to the user running this process.
+     */
+    private static void prepareSocketDirectory(Path socketDirectory) throws IOException {
+        if (Files.notExists(socketDirectory)) {
+            Files.createDirectories(
+                    socketDirectory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } else if (socketDirectory.equals(DaemonProtocol.getDefaultSocketDirectory().toAbsolutePath())) {
+            UserPrincipal currentUser = FileSystems.getDefault().getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(socketDirectory, LinkOption.NOFOLLOW_LINKS);
+
+            if (!Files.getOwner(socketDirectory, LinkOption.NOFOLLOW_LINKS).equals(currentUser) ||
+                    !PosixFilePermissions.fromString("rwx------").containsAll(permissions)) {
+                throw new IllegalStateException(String.format(
+                        "Socket directory %s must be owned by %s and accessible to its owner only",
+                        socketDirectory,
+                        currentUser.getName()));
+            }
+        }
+    }
+
+    /**
+     * Removes the socket file left behind by a previous daemon run, if any. If a daemon still listens on the
+     * socket, an exception is thrown instead.
+     */
+    private static void removeStaleSocket(Path socketPath) throws IOException {
+        if (Files.exists(socketPath, LinkOption.NOFOLLOW_LINKS)) {
+            try (SocketChannel _ = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+                throw new IllegalStateException(String.format("Another daemon is listening on %s", socketPath));
+            } catch (ConnectException e) {
+                // Nobody answers, so the socket file is stale
+                Files.delete(socketPath);
+            }
+        }
+    }
+
+    /**
+     * Returns the user of the process at the other end of the connection, if the platform supports
+     * peer credentials.
+     */
+    private static Optional<UserPrincipal> getPeerUser(SocketChannel channel) throws IOException {
+        if (channel.supportedOptions().contains(ExtendedSocketOptions.SO_PEERCRED)) {
+            return Optional.of(channel.getOption(ExtendedSocketOptions.SO_PEERCRED).user());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private EntityManagerFactory getEntityManagerFactory(String dataSourceName) {
+        return entityManagerFactories.computeIfAbsent(dataSourceName, dsName -> {
+            Instance<PersistenceConfiguration> persistenceConfigInstance =
+                    CDI.current().select(PersistenceConfiguration.class, NamedLiteral.of(dsName));
+
+            Preconditions.checkArgument(
+                    persistenceConfigInstance.isResolvable(),
+                    String.format("Could not resolve PersistenceConfiguration with name '%s'", dsName)
+            );
+
+            return persistenceConfigInstance.get().createEntityManagerFactory();
+        });
+    }
+
+    private void closeEntityManagerFactories() {
+        entityManagerFactories.values().forEach(EntityManagerFactory::close);
+        entityManagerFactories.clear();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import jakarta.json.JsonObject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * Thin client of {@link EntityAgentDaemon}. It takes the same program arguments as
+ * {@link EntityAgentProgramReturningJson} and {@link EntityAgentProgramReturningXml}, and writes the
+ * result to standard output. Unlike those programs, it starts no CDI container and no Hibernate, so
+ * it starts up fast.
+ * <p>
+ * Like for those programs, config properties "dataSourceName", "streaming" and "outputFormat" are used. The config
+ * properties determining function options, such as "fetchSize" (see {@link DaemonProtocol#REQUEST_PROPERTY_NAMES}),
+ * are forwarded to the daemon, if set. So are the compression config properties, such as "outputCompression"
+ * (see {@link CompressionOptions}), so the daemon compresses the result, and the client writes the compressed
+ * bytes as they are. Relative path arguments, such as query files and output files, are relative to the
+ * working directory of the client, as for the other programs. Config property
+ * "daemonSocketPath" must be the same as for the daemon, if set. On failure, the error message is written
+ * to standard error, and the exit code is 1.
+ *
+ * @author Chris de Vreeze
+ */
+public final class EntityAgentDaemonClient {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        Objects.checkIndex(0, args.length);
+        String entityAgentFunctionName = args[0];
+
+        List<String> factoryArgs = Arrays.stream(args).skip(1).toList();
+
+        Optional<String> errorOption = run(entityAgentFunctionName, factoryArgs);
+
+        if (errorOption.isPresent()) {
+            System.err.println(errorOption.get());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Sends the request to the daemon, writing the result to standard output. Returns the error message, if any.
+     */
+    public static Optional<String> run(String entityAgentFunctionName, List<String> factoryArgs) throws IOException {
+        Config config = ConfigProvider.getConfig();
+
+        // Typically, system property "dataSourceName" has been passed to the program
+        String dataSourceName =
+                config.getOptionalValue("dataSourceName", String.class).orElseThrow();
+        boolean streaming = config.getOptionalValue("streaming", Boolean.class).orElse(false);
+        Optional<String> outputFormatOption = config.getOptionalValue("outputFormat", String.class);
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String propertyName : DaemonProtocol.REQUEST_PROPERTY_NAMES) {
+            config.getOptionalValue(propertyName, String.class)
+                    .ifPresent(value -> properties.put(propertyName, value));
+        }
+        // Relative path arguments are resolved by the daemon against the working directory of this process
+        JsonObject request = DaemonProtocol.createRequest(
+                dataSourceName,
+                entityAgentFunctionName,
+                factoryArgs,
+                Path.of(System.getProperty("user.dir")).toAbsolutePath(),
+                streaming,
+                outputFormatOption,
+                properties
+        );
+
+        UnixDomainSocketAddress socketAddress = UnixDomainSocketAddress.of(DaemonProtocol.getSocketPath(config));
+
+        try (SocketChannel channel = SocketChannel.open(socketAddress)) {
+            DaemonProtocol.writeRequest(
+                    request,
+                    new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))
+            );
+
+            // Writing directly to standard output, bypassing the PrintStream, but buffering the output
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE);
+
+            Optional<String> errorOption = DaemonProtocol.readResult(
+                    new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))),
+                    out
+            );
+
+            // Not closing standard output
+            out.flush();
+            return errorOption;
+        }
+    }
+}
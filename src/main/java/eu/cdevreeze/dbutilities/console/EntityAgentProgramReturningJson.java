@@ -18,8 +18,15 @@ package eu.cdevreeze.dbutilities.console;
 
 import module java.base;
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.cdiwiring.WeldContainers;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.CborEncoder;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonStreamFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.OutputFormat;
 import jakarta.enterprise.inject.Default;
 import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.literal.NamedLiteral;
@@ -29,11 +36,11 @@ import jakarta.json.JsonObject;
 import jakarta.json.JsonWriter;
 import jakarta.json.JsonWriterFactory;
 import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
 import jakarta.persistence.EntityAgent;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceConfiguration;
 import org.eclipse.microprofile.config.Config;
-import org.jboss.weld.environment.se.Weld;
 import org.jboss.weld.environment.se.WeldContainer;
 
 /**
@@ -41,11 +48,26 @@ import org.jboss.weld.environment.se.WeldContainer;
  * is the name of the {@link EntityAgentToJsonObjectFunction} to create and run,
  * and the remaining program arguments are passed to the {@link EntityAgentToJsonObjectFunctionFactory}
  * to create a {@link EntityAgentToJsonObjectFunction}, which is subsequently run.
+ * <p>
+ * If config property "streaming" is true, a {@link EntityAgentToJsonStreamFunction} is created and run
+ * instead, and its JSON output is written to standard output while the query results are being read.
+ * This keeps memory usage flat, however large the query result is.
+ * <p>
+ * If config property "outputFormat" is set (for example to "ndjson"), a {@link EntityAgentToOutputStreamFunction}
+ * is created and run instead, writing its output in that {@link OutputFormat} to standard output. Output format
+ * "cbor" is supported for every {@link EntityAgentToJsonObjectFunction}, writing its JSON result as CBOR if the
+ * function is not a {@link EntityAgentToOutputStreamFunction}. That is far more compact than pretty-printed JSON,
+ * and cheaper to produce and parse.
+ * <p>
+ * If config property "outputCompression" is set to "gzip" or "zstd", the output is compressed on several cores
+ * by a {@link ParallelCompressingOutputStream}. See {@link CompressionOptions} for the related config properties.
  *
  * @author Chris de Vreeze
  */
 public final class EntityAgentProgramReturningJson {
 
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     public static void main(String[] args) {
         Objects.checkIndex(0, args.length);
         String entityAgentFunctionName = args[0];
@@ -56,10 +78,8 @@ public final class EntityAgentProgramReturningJson {
     }
 
     public static void run(String entityAgentFunctionName, List<String> factoryArgs) {
-        Weld weld = new Weld();
-
-        try (WeldContainer weldContainer = weld.initialize()) {
-            Instance<Config> configInstance = CDI.current().select(Config.class, Default.Literal.INSTANCE);
+        try (WeldContainer weldContainer = WeldContainers.initialize()) {
+            Instance<Config> configInstance = weldContainer.select(Config.class, Default.Literal.INSTANCE);
 
             Preconditions.checkArgument(
                     configInstance.isResolvable(),
@@ -72,13 +92,80 @@ public final class EntityAgentProgramReturningJson {
             String dataSourceName =
                     config.getOptionalValue("dataSourceName", String.class).orElseThrow();
 
-            Instance<PersistenceConfiguration> persistenceConfigInstance = CDI.current().select(PersistenceConfiguration.class, NamedLiteral.of(dataSourceName));
+            Instance<PersistenceConfiguration> persistenceConfigInstance = weldContainer.select(PersistenceConfiguration.class, NamedLiteral.of(dataSourceName));
 
             Preconditions.checkArgument(
                     persistenceConfigInstance.isResolvable(),
                     String.format("Could not resolve PersistenceConfiguration with name '%s'", dataSourceName)
             );
 
+            boolean streaming = config.getOptionalValue("streaming", Boolean.class).orElse(false);
+            Optional<OutputFormat> outputFormatOption =
+                    config.getOptionalValue("outputFormat", String.class).map(OutputFormat::parse);
+
+            // Writing directly to standard output, bypassing the PrintStream, but buffering the output
+            OutputStream stdout = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE);
+            Optional<CompressionOptions> compressionOptionsOption = CompressionOptions.fromConfig(config);
+            OutputStream out = compressionOptionsOption.isPresent() ?
+                    ParallelCompressingOutputStream.create(stdout, compressionOptionsOption.get()) :
+                    stdout;
+
+            try (EntityManagerFactory emf = persistenceConfigInstance.get().createEntityManagerFactory()) {
+                if (outputFormatOption.isPresent()) {
+                    run(emf, entityAgentFunctionName, factoryArgs, outputFormatOption.get(), out);
+                } else {
+                    run(emf, entityAgentFunctionName, factoryArgs, streaming, out);
+                }
+            }
+
+            // Not closing standard output
+            if (out instanceof ParallelCompressingOutputStream compressingOut) {
+                compressingOut.finish();
+            }
+            stdout.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns true if a function (not necessarily a streaming one) with the given name can be resolved
+     * in the running CDI container.
+     */
+    public static boolean canResolveFunction(String entityAgentFunctionName) {
+        return CDI.current()
+                .select(EntityAgentToJsonObjectFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName))
+                .isResolvable();
+    }
+
+    /**
+     * Creates the function with the given name and factory arguments, runs it against the given
+     * {@link EntityManagerFactory}, and writes the JSON result to the given {@link OutputStream}, followed by
+     * a newline. The output stream is flushed, but not closed.
+     * <p>
+     * This method expects a running CDI container, and leaves it running. So it can be called many times,
+     * even concurrently, within the same CDI container.
+     */
+    public static void run(
+            EntityManagerFactory emf,
+            String entityAgentFunctionName,
+            List<String> factoryArgs,
+            boolean streaming,
+            OutputStream out
+    ) throws IOException {
+        if (streaming) {
+            Instance<EntityAgentToJsonStreamFunctionFactory> functionFactoryInstance =
+                    CDI.current().select(EntityAgentToJsonStreamFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName));
+
+            Preconditions.checkArgument(
+                    functionFactoryInstance.isResolvable(),
+                    String.format("Could not resolve streaming function with name '%s'", entityAgentFunctionName)
+            );
+
+            EntityAgentToJsonStreamFunction function = functionFactoryInstance.get().apply(factoryArgs);
+
+            runStreaming(emf, function, out);
+        } else {
             Instance<EntityAgentToJsonObjectFunctionFactory> functionFactoryInstance =
                     CDI.current().select(EntityAgentToJsonObjectFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName));
 
@@ -89,22 +176,99 @@ public final class EntityAgentProgramReturningJson {
 
             EntityAgentToJsonObjectFunction function = functionFactoryInstance.get().apply(factoryArgs);
 
-            // Do the actual work within a JPA EntityAgent
-            JsonObject result;
-            try (EntityManagerFactory emf = persistenceConfigInstance.get().createEntityManagerFactory()) {
-                result = emf.callInTransaction(EntityAgent.class, function);
-            }
+            run(emf, function, out);
+        }
+    }
 
-            StringWriter sw = new StringWriter();
-            Map<String, Object> props = new HashMap<>();
-            props.put(JsonGenerator.PRETTY_PRINTING, true);
-            JsonWriterFactory jsonWriterFactory = Json.createWriterFactory(props);
-            try (JsonWriter jsonWriter = jsonWriterFactory.createWriter(sw)) {
-                jsonWriter.writeObject(result);
-            }
-            String resultAsString = sw.toString();
+    /**
+     * Creates the function with the given name and factory arguments, runs it against the given
+     * {@link EntityManagerFactory}, and writes its output in the given {@link OutputFormat} to the given
+     * {@link OutputStream}. The output stream is flushed, but not closed.
+     * <p>
+     * This method expects a running CDI container, and leaves it running.
+     */
+    public static void run(
+            EntityManagerFactory emf,
+            String entityAgentFunctionName,
+            List<String> factoryArgs,
+            OutputFormat outputFormat,
+            OutputStream out
+    ) throws IOException {
+        Instance<EntityAgentToOutputStreamFunctionFactory> functionFactoryInstance =
+                CDI.current().select(EntityAgentToOutputStreamFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName));
 
-            System.out.println(resultAsString);
+        if (!functionFactoryInstance.isResolvable() && outputFormat == OutputFormat.CBOR) {
+            runReturningCbor(emf, entityAgentFunctionName, factoryArgs, out);
+            return;
         }
+
+        Preconditions.checkArgument(
+                functionFactoryInstance.isResolvable(),
+                String.format("Could not resolve function with name '%s' for output format %s", entityAgentFunctionName, outputFormat)
+        );
+
+        EntityAgentToOutputStreamFunction function = functionFactoryInstance.get().apply(factoryArgs);
+
+        // Do the actual work within a JPA EntityAgent, writing the output while it is being computed
+        emf.callInTransaction(EntityAgent.class, function.writingTo(outputFormat, out));
+
+        out.flush();
+    }
+
+    private static void runReturningCbor(
+            EntityManagerFactory emf,
+            String entityAgentFunctionName,
+            List<String> factoryArgs,
+            OutputStream out
+    ) throws IOException {
+        Instance<EntityAgentToJsonObjectFunctionFactory> functionFactoryInstance =
+                CDI.current().select(EntityAgentToJsonObjectFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName));
+
+        Preconditions.checkArgument(
+                functionFactoryInstance.isResolvable(),
+                String.format("Could not resolve function with name '%s'", entityAgentFunctionName)
+        );
+
+        EntityAgentToJsonObjectFunction function = functionFactoryInstance.get().apply(factoryArgs);
+
+        // Do the actual work within a JPA EntityAgent
+        JsonObject result = emf.callInTransaction(EntityAgent.class, function);
+
+        new CborEncoder(out).writeJsonValue(result);
+        out.flush();
+    }
+
+    private static void run(EntityManagerFactory emf, EntityAgentToJsonObjectFunction function, OutputStream out)
+            throws IOException {
+        // Do the actual work within a JPA EntityAgent
+        JsonObject result = emf.callInTransaction(EntityAgent.class, function);
+
+        StringWriter sw = new StringWriter();
+        Map<String, Object> props = new HashMap<>();
+        props.put(JsonGenerator.PRETTY_PRINTING, true);
+        JsonWriterFactory jsonWriterFactory = Json.createWriterFactory(props);
+        try (JsonWriter jsonWriter = jsonWriterFactory.createWriter(sw)) {
+            jsonWriter.writeObject(result);
+        }
+        String resultAsString = sw.toString();
+
+        out.write((resultAsString + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void runStreaming(EntityManagerFactory emf, EntityAgentToJsonStreamFunction function, OutputStream out)
+            throws IOException {
+        Map<String, Object> props = new HashMap<>();
+        props.put(JsonGenerator.PRETTY_PRINTING, true);
+        JsonGeneratorFactory jsonGeneratorFactory = Json.createGeneratorFactory(props);
+        // Not closing the JsonGenerator, because that would close the output stream
+        JsonGenerator jsonGenerator = jsonGeneratorFactory.createGenerator(out, StandardCharsets.UTF_8);
+
+        // Do the actual work within a JPA EntityAgent, writing the rows while they are being retrieved
+        emf.callInTransaction(EntityAgent.class, function.writingTo(jsonGenerator));
+
+        jsonGenerator.flush();
+        out.write(System.lineSeparator().getBytes(StandardCharsets.UTF_8));
+        out.flush();
     }
 }
@@ -17,9 +17,13 @@
 package eu.cdevreeze.dbutilities.console;
 
 import module java.base;
+import module java.xml;
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.cdiwiring.WeldContainers;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunction;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToXmlStreamFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToXmlStreamFunctionFactory;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.Element;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentPrinter;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.jaxpinterop.DocumentPrinters;
@@ -31,7 +35,6 @@ import jakarta.persistence.EntityAgent;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceConfiguration;
 import org.eclipse.microprofile.config.Config;
-import org.jboss.weld.environment.se.Weld;
 import org.jboss.weld.environment.se.WeldContainer;
 
 /**
@@ -39,11 +42,20 @@ import org.jboss.weld.environment.se.WeldContainer;
  * is the name of the {@link EntityAgentToElementFunction} to create and run,
  * and the remaining program arguments are passed to the {@link EntityAgentToElementFunctionFactory}
  * to create a {@link EntityAgentToElementFunction}, which is subsequently run.
+ * <p>
+ * If config property "streaming" is true, a {@link EntityAgentToXmlStreamFunction} is created and run
+ * instead, and its XML output is written to standard output while the query results are being read.
+ * This keeps memory usage flat, however large the query result is.
+ * <p>
+ * If config property "outputCompression" is set to "gzip" or "zstd", the output is compressed on several cores
+ * by a {@link ParallelCompressingOutputStream}. See {@link CompressionOptions} for the related config properties.
  *
  * @author Chris de Vreeze
  */
 public final class EntityAgentProgramReturningXml {
 
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     public static void main(String[] args) {
         Objects.checkIndex(0, args.length);
         String entityAgentFunctionName = args[0];
@@ -54,10 +66,8 @@ public final class EntityAgentProgramReturningXml {
     }
 
     public static void run(String entityAgentFunctionName, List<String> factoryArgs) {
-        Weld weld = new Weld();
-
-        try (WeldContainer weldContainer = weld.initialize()) {
-            Instance<Config> configInstance = CDI.current().select(Config.class, Default.Literal.INSTANCE);
+        try (WeldContainer weldContainer = WeldContainers.initialize()) {
+            Instance<Config> configInstance = weldContainer.select(Config.class, Default.Literal.INSTANCE);
 
             Preconditions.checkArgument(
                     configInstance.isResolvable(),
@@ -70,13 +80,74 @@ public final class EntityAgentProgramReturningXml {
             String dataSourceName =
                     config.getOptionalValue("dataSourceName", String.class).orElseThrow();
 
-            Instance<PersistenceConfiguration> persistenceConfigInstance = CDI.current().select(PersistenceConfiguration.class, NamedLiteral.of(dataSourceName));
+            Instance<PersistenceConfiguration> persistenceConfigInstance = weldContainer.select(PersistenceConfiguration.class, NamedLiteral.of(dataSourceName));
 
             Preconditions.checkArgument(
                     persistenceConfigInstance.isResolvable(),
                     String.format("Could not resolve PersistenceConfiguration with name '%s'", dataSourceName)
             );
 
+            boolean streaming = config.getOptionalValue("streaming", Boolean.class).orElse(false);
+
+            // Writing directly to standard output, bypassing the PrintStream, but buffering the output
+            OutputStream stdout = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE);
+            Optional<CompressionOptions> compressionOptionsOption = CompressionOptions.fromConfig(config);
+            OutputStream out = compressionOptionsOption.isPresent() ?
+                    ParallelCompressingOutputStream.create(stdout, compressionOptionsOption.get()) :
+                    stdout;
+
+            try (EntityManagerFactory emf = persistenceConfigInstance.get().createEntityManagerFactory()) {
+                run(emf, entityAgentFunctionName, factoryArgs, streaming, out);
+            }
+
+            // Not closing standard output
+            if (out instanceof ParallelCompressingOutputStream compressingOut) {
+                compressingOut.finish();
+            }
+            stdout.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns true if a function (not necessarily a streaming one) with the given name can be resolved
+     * in the running CDI container.
+     */
+    public static boolean canResolveFunction(String entityAgentFunctionName) {
+        return CDI.current()
+                .select(EntityAgentToElementFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName))
+                .isResolvable();
+    }
+
+    /**
+     * Creates the function with the given name and factory arguments, runs it against the given
+     * {@link EntityManagerFactory}, and writes the XML result to the given {@link OutputStream}, followed by
+     * a newline. The output stream is flushed, but not closed.
+     * <p>
+     * This method expects a running CDI container, and leaves it running. So it can be called many times,
+     * even concurrently, within the same CDI container.
+     */
+    public static void run(
+            EntityManagerFactory emf,
+            String entityAgentFunctionName,
+            List<String> factoryArgs,
+            boolean streaming,
+            OutputStream out
+    ) throws IOException {
+        if (streaming) {
+            Instance<EntityAgentToXmlStreamFunctionFactory> functionFactoryInstance =
+                    CDI.current().select(EntityAgentToXmlStreamFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName));
+
+            Preconditions.checkArgument(
+                    functionFactoryInstance.isResolvable(),
+                    String.format("Could not resolve streaming function with name '%s'", entityAgentFunctionName)
+            );
+
+            EntityAgentToXmlStreamFunction function = functionFactoryInstance.get().apply(factoryArgs);
+
+            runStreaming(emf, function, out);
+        } else {
             Instance<EntityAgentToElementFunctionFactory> functionFactoryInstance =
                     CDI.current().select(EntityAgentToElementFunctionFactory.class, NamedLiteral.of(entityAgentFunctionName));
 
@@ -87,16 +158,40 @@ public final class EntityAgentProgramReturningXml {
 
             EntityAgentToElementFunction function = functionFactoryInstance.get().apply(factoryArgs);
 
-            // Do the actual work within a JPA EntityAgent
-            Element result;
-            try (EntityManagerFactory emf = persistenceConfigInstance.get().createEntityManagerFactory()) {
-                result = emf.callInTransaction(EntityAgent.class, function);
-            }
+            run(emf, function, out);
+        }
+    }
+
+    private static void run(EntityManagerFactory emf, EntityAgentToElementFunction function, OutputStream out)
+            throws IOException {
+        // Do the actual work within a JPA EntityAgent
+        Element result = emf.callInTransaction(EntityAgent.class, function);
 
-            DocumentPrinter docPrinter = DocumentPrinters.instance();
-            String xmlString = docPrinter.print(result);
+        DocumentPrinter docPrinter = DocumentPrinters.instance();
+        String xmlString = docPrinter.print(result);
 
-            System.out.println(xmlString);
+        out.write((xmlString + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void runStreaming(EntityManagerFactory emf, EntityAgentToXmlStreamFunction function, OutputStream out)
+            throws IOException {
+        try {
+            XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+            // Closing the XMLStreamWriter does not close the underlying output stream
+            XMLStreamWriter xmlStreamWriter = xmlOutputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            xmlStreamWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+
+            // Do the actual work within a JPA EntityAgent, writing the rows while they are being retrieved
+            emf.callInTransaction(EntityAgent.class, function.writingTo(xmlStreamWriter));
+
+            xmlStreamWriter.writeEndDocument();
+            xmlStreamWriter.close();
+        } catch (XMLStreamException e) {
+            throw new RuntimeException(e);
         }
+
+        out.write(System.lineSeparator().getBytes(StandardCharsets.UTF_8));
+        out.flush();
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.cdiwiring.WeldContainers;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonWriter;
+import jakarta.json.JsonWriterFactory;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import org.eclipse.microprofile.config.Config;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * Console program using a {@link EntityManagerFactoryToJsonObjectFunction}. The first program argument
+ * is the name of the {@link EntityManagerFactoryToJsonObjectFunction} to create and run,
+ * and the remaining program arguments are passed to the {@link EntityManagerFactoryToJsonObjectFunctionFactory}
+ * to create a {@link EntityManagerFactoryToJsonObjectFunction}, which is subsequently run.
+ *
+ * @author Chris de Vreeze
+ */
+public final class EntityManagerFactoryProgramReturningJson {
+
+    public static void main(String[] args) {
+        Objects.checkIndex(0, args.length);
+        String functionName = args[0];
+
+        List<String> factoryArgs = Arrays.stream(args).skip(1).toList();
+
+        run(functionName, factoryArgs);
+    }
+
+    public static void run(String functionName, List<String> factoryArgs) {
+        try (WeldContainer weldContainer = WeldContainers.initialize()) {
+            Instance<Config> configInstance = weldContainer.select(Config.class, Default.Literal.INSTANCE);
+
+            Preconditions.checkArgument(
+                    configInstance.isResolvable(),
+                    String.format("Could not resolve Config with required qualifier '%s'", Default.Literal.INSTANCE)
+            );
+
+            Config config = configInstance.get();
+
+            // Typically, system property "dataSourceName" has been passed to the program
+            String dataSourceName =
+                    config.getOptionalValue("dataSourceName", String.class).orElseThrow();
+
+            Instance<PersistenceConfiguration> persistenceConfigInstance = weldContainer.select(PersistenceConfiguration.class, NamedLiteral.of(dataSourceName));
+
+            Preconditions.checkArgument(
+                    persistenceConfigInstance.isResolvable(),
+                    String.format("Could not resolve PersistenceConfiguration with name '%s'", dataSourceName)
+            );
+
+            // Writing directly to standard output, bypassing the PrintStream
+            OutputStream out = new FileOutputStream(FileDescriptor.out);
+
+            try (EntityManagerFactory emf = persistenceConfigInstance.get().createEntityManagerFactory()) {
+                run(emf, functionName, factoryArgs, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns true if a function with the given name can be resolved in the running CDI container.
+     */
+    public static boolean canResolveFunction(String functionName) {
+        return CDI.current()
+                .select(EntityManagerFactoryToJsonObjectFunctionFactory.class, NamedLiteral.of(functionName))
+                .isResolvable();
+    }
+
+    /**
+     * Creates the function with the given name and factory arguments, runs it against the given
+     * {@link EntityManagerFactory}, and writes the JSON result to the given {@link OutputStream}, followed by
+     * a newline. The output stream is flushed, but not closed.
+     * <p>
+     * This method expects a running CDI container, and leaves it running.
+     */
+    public static void run(
+            EntityManagerFactory emf,
+            String functionName,
+            List<String> factoryArgs,
+            OutputStream out
+    ) throws IOException {
+        Instance<EntityManagerFactoryToJsonObjectFunctionFactory> functionFactoryInstance =
+                CDI.current().select(EntityManagerFactoryToJsonObjectFunctionFactory.class, NamedLiteral.of(functionName));
+
+        Preconditions.checkArgument(
+                functionFactoryInstance.isResolvable(),
+                String.format("Could not resolve function with name '%s'", functionName)
+        );
+
+        EntityManagerFactoryToJsonObjectFunction function = functionFactoryInstance.get().apply(factoryArgs);
+
+        // The function itself decides which transactions to run, and how many at the same time
+        JsonObject result = function.apply(emf);
+
+        StringWriter sw = new StringWriter();
+        Map<String, Object> props = new HashMap<>();
+        props.put(JsonGenerator.PRETTY_PRINTING, true);
+        JsonWriterFactory jsonWriterFactory = Json.createWriterFactory(props);
+        try (JsonWriter jsonWriter = jsonWriterFactory.createWriter(sw)) {
+            jsonWriter.writeObject(result);
+        }
+        String resultAsString = sw.toString();
+
+        out.write((resultAsString + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
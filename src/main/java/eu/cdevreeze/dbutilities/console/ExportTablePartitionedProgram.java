@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.ExportTablePartitioned;
+
+/**
+ * Program that calls {@link ExportTablePartitioned} and shows the export summary.
+ * <p>
+ * The program arguments are the table name, the output file, and optionally the key column (by default
+ * the primary key column).
+ * <p>
+ * System property "partitions" determines the number of key ranges (by default the maximum concurrency),
+ * system property "partitionBoundaries" (minmax or ntile) how the key range boundaries are computed, and
+ * system property "ordered" (by default true) whether the rows are ordered by key. System properties
+ * "exportFormat" and "maxConcurrency" are used as in {@link ExportTablesProgram}.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTablePartitionedProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(1, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                ExportTablePartitioned.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.ExportTableResumable;
+
+/**
+ * Program that calls {@link ExportTableResumable} and shows the export summary.
+ * <p>
+ * The program arguments are the table name, the output file, and optionally the key column (by default
+ * the primary key column). If a checkpoint file of an earlier failed run exists next to the output file,
+ * the export resumes from that checkpoint.
+ * <p>
+ * System property "pageSize" determines the number of rows per page (and per transaction), falling back
+ * to config property "&lt;dataSourceName&gt;.pageSize". System property "exportFormat" is used as in
+ * {@link ExportTablesProgram}.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTableResumableProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(1, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                ExportTableResumable.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
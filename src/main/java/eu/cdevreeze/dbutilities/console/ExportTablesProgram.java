@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.ExportTables;
+
+/**
+ * Program that calls {@link ExportTables} and shows the export summary.
+ * <p>
+ * The first program argument is the output directory, and the remaining program arguments are table names
+ * or table name patterns (containing a "%", such as "HR.%"). One file per table is written to the output
+ * directory.
+ * <p>
+ * System property "exportFormat" (json or xml) determines the output format, and system property
+ * "maxConcurrency" determines the maximum number of tables exported at the same time (falling back to
+ * config property "&lt;dataSourceName&gt;.maxConcurrency"). Each table export uses its own database connection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTablesProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(1, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                ExportTables.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
@@ -23,6 +23,10 @@ import eu.cdevreeze.dbutilities.entityagentfunction.GetJsonQueryResults;
  * Program that calls {@link GetJsonQueryResults} and shows the result.
  * <p>
  * The only program argument is the query file path.
+ * <p>
+ * With system property "outputFormat" set to "ndjson", the JSON objects are written as newline-delimited JSON,
+ * one compact JSON object per line, while they are being retrieved. With "outputFormat" set to "cbor", they are
+ * written as CBOR instead.
  *
  * @author Chris de Vreeze
  */
@@ -23,6 +23,9 @@ import eu.cdevreeze.dbutilities.entityagentfunction.GetQueryResultsAsXml;
  * Program that calls {@link GetQueryResultsAsXml} and shows the result.
  * <p>
  * The only program argument is the query file path.
+ * <p>
+ * With system property "streaming" set to true, the rows are written to standard output while they
+ * are being retrieved, instead of first being collected in memory.
  *
  * @author Chris de Vreeze
  */
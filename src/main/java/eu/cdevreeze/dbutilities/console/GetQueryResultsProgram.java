@@ -23,6 +23,20 @@ import eu.cdevreeze.dbutilities.entityagentfunction.GetQueryResults;
  * Program that calls {@link GetQueryResults} and shows the result.
  * <p>
  * The only program argument is the query file path.
+ * <p>
+ * With system property "streaming" set to true, the rows are written to standard output while they
+ * are being retrieved, instead of first being collected in memory.
+ * <p>
+ * With system property "outputFormat" set to "ndjson", the rows are written as newline-delimited JSON,
+ * one compact JSON object per line, while they are being retrieved. With "outputFormat" set to "csv", the
+ * rows are written as CSV (RFC 4180) with a header line, and SQL nulls as the value of system property
+ * "csvNullValue" (by default the empty string). With "outputFormat" set to "arrow" or "arrow_file", the rows
+ * are written as typed Apache Arrow IPC record batches (streaming or file format, respectively) of at most
+ * "arrowBatchSize" rows (by default 10000). Arrow output requires JVM option
+ * "--add-opens=java.base/java.nio=ALL-UNNAMED". With "outputFormat" set to "parquet", the rows are written
+ * as a Parquet file, with row groups of about "parquetRowGroupSize" bytes (by default 128 MiB), compressed with
+ * "parquetCompressionCodec" (by default "snappy"). With "outputFormat" set to "cbor", the rows are written as
+ * CBOR, with native numbers, decimals and timestamps.
  *
  * @author Chris de Vreeze
  */
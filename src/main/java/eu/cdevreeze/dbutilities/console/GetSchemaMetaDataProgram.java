@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.GetSchemaMetaData;
+
+/**
+ * Program that calls {@link GetSchemaMetaData} and shows the result.
+ * <p>
+ * The first program argument is the schema name, and the optional second program argument is the
+ * table name pattern.
+ *
+ * @author Chris de Vreeze
+ */
+public final class GetSchemaMetaDataProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(0, args.length);
+        String schemaName = args[0];
+        Objects.requireNonNull(schemaName);
+
+        EntityAgentProgramReturningJson.run(
+                GetSchemaMetaData.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
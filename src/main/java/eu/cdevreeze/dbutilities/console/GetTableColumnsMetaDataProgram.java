@@ -22,7 +22,8 @@ import eu.cdevreeze.dbutilities.entityagentfunction.GetTableColumnsMetaData;
 /**
  * Program that calls {@link GetTableColumnsMetaData} and shows the result.
  * <p>
- * The only program argument is the table name.
+ * The first program argument is the table name, and the optional second program argument is the
+ * schema name.
  *
  * @author Chris de Vreeze
  */
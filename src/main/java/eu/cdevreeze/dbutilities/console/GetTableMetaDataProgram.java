@@ -22,7 +22,8 @@ import eu.cdevreeze.dbutilities.entityagentfunction.GetTableMetaData;
 /**
  * Program that calls {@link GetTableMetaData} and shows the result.
  * <p>
- * The only program argument is the table name.
+ * The first program argument is the table name, and the optional second program argument is the
+ * schema name.
  *
  * @author Chris de Vreeze
  */
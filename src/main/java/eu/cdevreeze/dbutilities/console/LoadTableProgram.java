@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.LoadTable;
+
+/**
+ * Program that calls {@link LoadTable} and shows the load summary.
+ * <p>
+ * The program arguments are the table name, the input file (NDJSON, or CSV if the file name ends with ".csv")
+ * and, optionally, the schema name.
+ * <p>
+ * System properties "batchSize" and "commitInterval" determine the number of rows per JDBC batch and per
+ * transaction, respectively (falling back to config properties "&lt;dataSourceName&gt;.batchSize" and
+ * "&lt;dataSourceName&gt;.commitInterval"). System property "maxConcurrency" determines the maximum number of
+ * writer connections (falling back to config property "&lt;dataSourceName&gt;.maxConcurrency"). System property
+ * "csvNullValue" (by default the empty string) is the unquoted CSV field value standing for SQL null.
+ *
+ * @author Chris de Vreeze
+ */
+public final class LoadTableProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(1, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                LoadTable.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.LookupRowsByKeys;
+
+/**
+ * Program that calls {@link LookupRowsByKeys} and shows the lookup summary.
+ * <p>
+ * The program arguments are the table name, the key column name, the JDBC type of the key column (such as
+ * VARCHAR, INTEGER or NUMERIC), the file with keys (NDJSON, or CSV if the file name ends with ".csv") and the
+ * NDJSON output file.
+ * <p>
+ * System property "lookupChunkSize" determines the number of keys looked up per query execution (falling back
+ * to config property "&lt;dataSourceName&gt;.lookupChunkSize"). System property "maxConcurrency" determines the
+ * maximum number of database connections over which the chunks are spread (falling back to config property
+ * "&lt;dataSourceName&gt;.maxConcurrency").
+ *
+ * @author Chris de Vreeze
+ */
+public final class LookupRowsByKeysProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(4, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                LookupRowsByKeys.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+
+/**
+ * Compression of the output of the console programs.
+ *
+ * @author Chris de Vreeze
+ */
+public enum OutputCompression {
+
+    GZIP(6),
+    ZSTD(3);
+
+    private final int defaultLevel;
+
+    OutputCompression(int defaultLevel) {
+        this.defaultLevel = defaultLevel;
+    }
+
+    public int getDefaultLevel() {
+        return defaultLevel;
+    }
+
+    /**
+     * Returns the output compression with the given name, ignoring case.
+     */
+    public static OutputCompression parse(String name) {
+        return OutputCompression.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import com.github.luben.zstd.Zstd;
+import com.google.common.base.Preconditions;
+
+/**
+ * {@link OutputStream} compressing its output in parallel, in the style of pigz. The written bytes are collected
+ * in blocks of a fixed size, and each full block is compressed by a pool of platform threads, while the next blocks
+ * are being filled. Compressed blocks are written to the underlying output stream in order, so the output is one
+ * ordinary compressed stream. The number of blocks in flight is bounded, so memory usage stays flat.
+ * <p>
+ * For gzip, each block is compressed as raw deflate data, primed with the last 32 KiB of the previous block as
+ * dictionary, and ended by a sync flush (except for the last block). Together with one gzip header and trailer
+ * (containing the CRC-32 computed while writing), that yields a single gzip member, compressing almost as well
+ * as sequential gzip. For zstd, each block is compressed as an independent frame, and a sequence of frames is
+ * a valid zstd stream.
+ * <p>
+ * Method {@link #finish()} writes the remaining data without closing the underlying output stream, which is
+ * useful when writing to standard output. Method {@link #close()} finishes and closes the underlying output stream.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ParallelCompressingOutputStream extends OutputStream {
+
+    /**
+     * Compressor of one block, called concurrently for different blocks, except for the methods that are
+     * documented to be called sequentially.
+     */
+    public interface BlockCompressor {
+
+        /**
+         * Returns the bytes to write before the first block. Called once.
+         */
+        byte[] header();
+
+        /**
+         * Called sequentially with the uncompressed blocks, in order, before they are compressed.
+         */
+        void update(byte[] block, int length);
+
+        /**
+         * Compresses the given block. The dictionary is the previous (uncompressed) block, which is empty
+         * for the first block.
+         */
+        byte[] compress(byte[] block, int length, byte[] dictionary, int dictionaryLength, boolean last) throws IOException;
+
+        /**
+         * Returns the bytes to write after the last block. Called once.
+         */
+        byte[] trailer();
+    }
+
+    private static final int MAX_PENDING_BLOCKS_PER_THREAD = 2;
+
+    private final OutputStream out;
+    private final BlockCompressor blockCompressor;
+    private final ExecutorService executor;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength;
+    private byte[] previousBlock = new byte[0];
+    private int previousBlockLength;
+    private boolean finished;
+
+    public ParallelCompressingOutputStream(
+            OutputStream out,
+            BlockCompressor blockCompressor,
+            int threadCount,
+            int blockSize
+    ) throws IOException {
+        Preconditions.checkArgument(threadCount > 0, "Thread count must be positive");
+        Preconditions.checkArgument(blockSize > 0, "Block size must be positive");
+
+        this.out = out;
+        this.blockCompressor = blockCompressor;
+        // Compression is CPU-bound, so platform threads rather than virtual threads are used
+        this.executor = Executors.newFixedThreadPool(threadCount, Thread.ofPlatform().daemon().factory());
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = MAX_PENDING_BLOCKS_PER_THREAD * threadCount;
+        this.block = new byte[blockSize];
+
+        out.write(blockCompressor.header());
+    }
+
+    /**
+     * Creates a {@link ParallelCompressingOutputStream} from the given {@link CompressionOptions}.
+     */
+    public static ParallelCompressingOutputStream create(OutputStream out, CompressionOptions compressionOptions)
+            throws IOException {
+        BlockCompressor blockCompressor = switch (compressionOptions.compression()) {
+            case GZIP -> new GzipBlockCompressor(compressionOptions.level());
+            case ZSTD -> new ZstdBlockCompressor(compressionOptions.level());
+        };
+        return new ParallelCompressingOutputStream(
+                out,
+                blockCompressor,
+                compressionOptions.threadCount(),
+                compressionOptions.blockSize()
+        );
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (blockLength == blockSize) {
+            submitBlock(false);
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureOpen();
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            // Only submitting a full block once more data arrives, so that the last block is seldom empty
+            if (blockLength == blockSize) {
+                submitBlock(false);
+            }
+            int count = Math.min(remaining, blockSize - blockLength);
+            System.arraycopy(b, offset, block, blockLength, count);
+            blockLength += count;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+    /**
+     * Compresses and writes the data written so far, and flushes the underlying output stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLength > 0) {
+            submitBlock(false);
+        }
+        writePendingBlocks(0);
+        out.flush();
+    }
+
+    /**
+     * Compresses and writes the remaining data, followed by the trailer, and flushes the underlying output stream,
+     * without closing it. Afterward, no more data can be written.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            submitBlock(true);
+            writePendingBlocks(0);
+            out.write(blockCompressor.trailer());
+            out.flush();
+        } finally {
+            finished = true;
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Stream already finished");
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] currentBlock = block;
+        int currentBlockLength = blockLength;
+        byte[] dictionary = previousBlock;
+        int dictionaryLength = previousBlockLength;
+
+        blockCompressor.update(currentBlock, currentBlockLength);
+        pendingBlocks.addLast(executor.submit(
+                () -> blockCompressor.compress(currentBlock, currentBlockLength, dictionary, dictionaryLength, last)));
+
+        // The submitted block is not reused, because it is the dictionary of the next block
+        previousBlock = currentBlock;
+        previousBlockLength = currentBlockLength;
+        block = new byte[blockSize];
+        blockLength = 0;
+
+        writePendingBlocks(maxPendingBlocks);
+    }
+
+    /**
+     * Writes compressed blocks in order, waiting for them if more than the given number of blocks is pending.
+     * Blocks that are already done are written in any case.
+     */
+    private void writePendingBlocks(int maxRemainingPendingBlocks) throws IOException {
+        while (!pendingBlocks.isEmpty() &&
+                (pendingBlocks.size() > maxRemainingPendingBlocks || pendingBlocks.peekFirst().isDone())) {
+            Future<byte[]> compressedBlock = pendingBlocks.removeFirst();
+            try {
+                out.write(compressedBlock.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while compressing");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Gzip {@link BlockCompressor}, compressing blocks as raw deflate data with the previous block as dictionary.
+     */
+    public static final class GzipBlockCompressor implements BlockCompressor {
+
+        private static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final int level;
+        private final CRC32 crc = new CRC32();
+        private long uncompressedSize;
+
+        public GzipBlockCompressor(int level) {
+            Preconditions.checkArgument(level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION,
+                    "Gzip compression level must be between 0 and 9");
+            this.level = level;
+        }
+
+        @Override
+        public byte[] header() {
+            // Magic number, deflate method, no flags, no modification time, no extra flags, unknown OS
+            return new byte[]{0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+        }
+
+        @Override
+        public void update(byte[] block, int length) {
+            crc.update(block, 0, length);
+            uncompressedSize += length;
+        }
+
+        @Override
+        public byte[] compress(byte[] block, int length, byte[] dictionary, int dictionaryLength, boolean last) {
+            Deflater deflater = new Deflater(level, true);
+            try {
+                if (dictionaryLength > 0) {
+                    int dictionarySize = Math.min(dictionaryLength, MAX_DICTIONARY_SIZE);
+                    deflater.setDictionary(dictionary, dictionaryLength - dictionarySize, dictionarySize);
+                }
+                deflater.setInput(block, 0, length);
+
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(length / 2 + 64);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                if (last) {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int count = deflater.deflate(buffer);
+                        bos.write(buffer, 0, count);
+                    }
+                } else {
+                    // A sync flush ends the block on a byte boundary, so that the next block can be appended
+                    int count;
+                    do {
+                        count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                        bos.write(buffer, 0, count);
+                    } while (count == buffer.length);
+                }
+                return bos.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] trailer() {
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt((int) crc.getValue());
+            trailer.putInt((int) uncompressedSize);
+            return trailer.array();
+        }
+    }
+
+    /**
+     * Zstd {@link BlockCompressor}, compressing each block as an independent frame.
+     */
+    public static final class ZstdBlockCompressor implements BlockCompressor {
+
+        private final int level;
+
+        public ZstdBlockCompressor(int level) {
+            Preconditions.checkArgument(level >= Zstd.minCompressionLevel() && level <= Zstd.maxCompressionLevel(),
+                    "Zstd compression level out of range");
+            this.level = level;
+        }
+
+        @Override
+        public byte[] header() {
+            return new byte[0];
+        }
+
+        @Override
+        public void update(byte[] block, int length) {
+            // Each frame has its own checksum, if any
+        }
+
+        @Override
+        public byte[] compress(byte[] block, int length, byte[] dictionary, int dictionaryLength, boolean last)
+                throws IOException {
+            byte[] buffer = new byte[Math.toIntExact(Zstd.compressBound(length))];
+            long size = Zstd.compressByteArray(buffer, 0, buffer.length, block, 0, length, level);
+            if (Zstd.isError(size)) {
+                throw new IOException("Zstd compression failed: " + Zstd.getErrorName(size));
+            }
+            return Arrays.copyOf(buffer, Math.toIntExact(size));
+        }
+
+        @Override
+        public byte[] trailer() {
+            return new byte[0];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.RunParameterSweep;
+
+/**
+ * Program that calls {@link RunParameterSweep} and shows the sweep summary.
+ * <p>
+ * The first three program arguments are the query file, the file with parameter tuples (NDJSON, or CSV if the
+ * file name ends with ".csv") and the NDJSON output file. The remaining program arguments are the JDBC types of
+ * the query parameters, such as VARCHAR, INTEGER or NUMERIC.
+ * <p>
+ * System property "maxConcurrency" determines the maximum number of database connections over which the tuples
+ * are spread (falling back to config property "&lt;dataSourceName&gt;.maxConcurrency"). System property
+ * "csvNullValue" (by default the empty string) is the unquoted CSV field value standing for SQL null.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RunParameterSweepProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(2, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                RunParameterSweep.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
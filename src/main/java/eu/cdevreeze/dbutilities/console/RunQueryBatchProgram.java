@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.RunQueryBatch;
+
+/**
+ * Program that calls {@link RunQueryBatch} and shows the batch summary.
+ * <p>
+ * The only program argument is the manifest file, listing the query files, their parameters and their output
+ * files. All queries run in this one JVM, against one EntityManagerFactory.
+ * <p>
+ * System property "maxConcurrency" determines the maximum number of queries running at the same time (falling
+ * back to config property "&lt;dataSourceName&gt;.maxConcurrency"). Each query uses its own database connection.
+ * The other output options, such as "csvNullValue", are the same as for {@link GetQueryResultsProgram}.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RunQueryBatchProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(0, args.length);
+        String manifestFile = args[0];
+        Objects.requireNonNull(manifestFile);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                RunQueryBatch.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
@@ -23,6 +23,9 @@ import eu.cdevreeze.dbutilities.entityagentfunction.SelectAllFromTableAsXml;
  * Program that calls {@link SelectAllFromTableAsXml} and shows the result.
  * <p>
  * The only program argument is the table name.
+ * <p>
+ * With system property "streaming" set to true, the rows are written to standard output while they
+ * are being retrieved, instead of first being collected in memory.
  *
  * @author Chris de Vreeze
  */
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.SelectRowCountsFromTables;
+
+/**
+ * Program that calls {@link SelectRowCountsFromTables} and shows the row counts.
+ * <p>
+ * The program arguments are table names or table name patterns (containing a "%", such as "HR.%").
+ * <p>
+ * System property "maxConcurrency" determines the maximum number of tables counted at the same time (falling
+ * back to config property "&lt;dataSourceName&gt;.maxConcurrency"), and system property "tableTimeout" (an
+ * ISO-8601 duration such as "PT10M") the maximum duration per table. Each table count uses its own database
+ * connection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class SelectRowCountsFromTablesProgram {
+
+    public static void main(String... args) {
+        Objects.checkIndex(0, args.length);
+
+        EntityManagerFactoryProgramReturningJson.run(
+                SelectRowCountsFromTables.class.getSimpleName(),
+                Arrays.stream(args).toList()
+        );
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import module java.management;
+import module java.sql;
+import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.cdiwiring.WeldContainers;
+import jakarta.enterprise.inject.Default;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.literal.NamedLiteral;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonWriter;
+import jakarta.json.JsonWriterFactory;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.weld.environment.se.WeldContainer;
+
+/**
+ * Benchmark measuring the startup time of the console programs, up to and including obtaining the
+ * first database connection. The startup is repeated a number of times within the same JVM. The first
+ * iteration is the cold start (including class loading), and the others are warm starts.
+ * <p>
+ * The time between JVM start and program start is measured as well. The measured phases are CDI container
+ * initialization, resolution of the {@link PersistenceConfiguration} for config property "dataSourceName",
+ * {@link EntityManagerFactory} creation, and obtaining and validating a connection within a transaction.
+ * The timings (in milliseconds) are written to standard output as JSON.
+ * <p>
+ * Config property "fastStartup" determines the startup mode (see {@link WeldContainers}), and config
+ * property "iterations" the number of iterations (default 5). To compare startup modes, run this program
+ * in separate JVMs, once with "fastStartup" true and once with "fastStartup" false.
+ *
+ * @author Chris de Vreeze
+ */
+public final class StartupBenchmarkProgram {
+
+    private static final int DEFAULT_ITERATIONS = 5;
+
+    public static void main(String[] args) {
+        // Time between JVM start and the start of this program
+        long jvmStartupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        Config config = ConfigProvider.getConfig();
+        boolean fastStartup = config.getOptionalValue("fastStartup", Boolean.class).orElse(false);
+        int iterations = config.getOptionalValue("iterations", Integer.class).orElse(DEFAULT_ITERATIONS);
+        Preconditions.checkArgument(iterations > 0, "Expected a positive number of iterations");
+
+        JsonArrayBuilder iterationsJsonArr = Json.createArrayBuilder();
+        for (int i = 0; i < iterations; i++) {
+            iterationsJsonArr.add(measureStartup(fastStartup));
+        }
+
+        JsonObject result = Json.createObjectBuilder()
+                .add("fastStartup", fastStartup)
+                .add("jvmStartupMillis", jvmStartupMillis)
+                .add("iterations", iterationsJsonArr)
+                .build();
+
+        JsonWriterFactory jsonWriterFactory = Json.createWriterFactory(Map.of(JsonGenerator.PRETTY_PRINTING, true));
+        StringWriter sw = new StringWriter();
+        try (JsonWriter jsonWriter = jsonWriterFactory.createWriter(sw)) {
+            jsonWriter.writeObject(result);
+        }
+        System.out.println(sw);
+    }
+
+    private static JsonObject measureStartup(boolean fastStartup) {
+        long startNanos = System.nanoTime();
+
+        try (WeldContainer weldContainer = WeldContainers.initialize(fastStartup)) {
+            long containerInitializedNanos = System.nanoTime();
+
+            Instance<Config> configInstance = weldContainer.select(Config.class, Default.Literal.INSTANCE);
+            Config config = configInstance.get();
+            String dataSourceName =
+                    config.getOptionalValue("dataSourceName", String.class).orElseThrow();
+
+            Instance<PersistenceConfiguration> persistenceConfigInstance =
+                    weldContainer.select(PersistenceConfiguration.class, NamedLiteral.of(dataSourceName));
+
+            Preconditions.checkArgument(
+                    persistenceConfigInstance.isResolvable(),
+                    String.format("Could not resolve PersistenceConfiguration with name '%s'", dataSourceName)
+            );
+
+            PersistenceConfiguration persistenceConfig = persistenceConfigInstance.get();
+            long persistenceConfigResolvedNanos = System.nanoTime();
+
+            try (EntityManagerFactory emf = persistenceConfig.createEntityManagerFactory()) {
+                long emfCreatedNanos = System.nanoTime();
+
+                boolean valid = emf.callInTransaction(
+                        EntityAgent.class,
+                        entityAgent -> entityAgent.callWithConnection((Connection conn) -> conn.isValid(0))
+                );
+                Preconditions.checkState(valid, "Invalid connection");
+                long connectionObtainedNanos = System.nanoTime();
+
+                return Json.createObjectBuilder()
+                        .add("containerInitializationMillis", millisBetween(startNanos, containerInitializedNanos))
+                        .add("persistenceConfigResolutionMillis", millisBetween(containerInitializedNanos, persistenceConfigResolvedNanos))
+                        .add("entityManagerFactoryCreationMillis", millisBetween(persistenceConfigResolvedNanos, emfCreatedNanos))
+                        .add("firstConnectionMillis", millisBetween(emfCreatedNanos, connectionObtainedNanos))
+                        .add("totalMillis", millisBetween(startNanos, connectionObtainedNanos))
+                        .build();
+            }
+        }
+    }
+
+    private static long millisBetween(long startNanos, long endNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+    }
+}
@@ -41,6 +41,10 @@ public final class Db2DataSources {
         dataSource.setUser(config.getValue("db2.user", String.class));
         dataSource.setPassword(config.getValue("db2.password", String.class));
 
+        // Prepared statement caching, which is done per connection, and therefore pays off in a connection pool
+        config.getOptionalValue("db2.maxStatements", Integer.class)
+                .ifPresent(dataSource::setMaxStatements);
+
         return dataSource;
     }
 }
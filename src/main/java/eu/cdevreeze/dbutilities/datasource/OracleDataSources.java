@@ -58,6 +58,13 @@ public final class OracleDataSources {
             dataSource.setUser(config.getValue("oracle.user", String.class));
             dataSource.setPassword(config.getValue("oracle.password", String.class));
 
+            // Implicit statement caching, which is done per connection, and therefore pays off in a connection pool
+            Optional<Integer> maxStatementsOption = config.getOptionalValue("oracle.maxStatements", Integer.class);
+            if (maxStatementsOption.isPresent()) {
+                dataSource.setImplicitCachingEnabled(true);
+                dataSource.setMaxStatements(maxStatementsOption.get());
+            }
+
             // Consider debugging if needed by printing out the JDBC URL created so far
 
             return dataSource;
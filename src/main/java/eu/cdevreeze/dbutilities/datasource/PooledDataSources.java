@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.datasource;
+
+import module java.sql;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.eclipse.microprofile.config.Config;
+
+/**
+ * Factory of pooled {@link DataSource} instances, using HikariCP. The pooled data source wraps
+ * a vendor-specific {@link DataSource}, such as the ones created by {@link PostgresqlDataSources}.
+ * <p>
+ * The pool is configured with config properties starting with "&lt;dataSourceName&gt;.pool.", such as
+ * "postgresql.pool.maximumPoolSize". Time-outs are in milliseconds. Only the maximum pool size has a
+ * default here (10). For other settings, the HikariCP defaults are used if they are absent.
+ * <p>
+ * Pooled connections are handed out with auto-commit off, so that they need not be switched off and on
+ * again for each transaction.
+ *
+ * @author Chris de Vreeze
+ */
+public final class PooledDataSources {
+
+    private static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+
+    private PooledDataSources() {
+    }
+
+    public static boolean isPooled(String dataSourceName, Config config) {
+        return config.getOptionalValue(dataSourceName + ".pooled", Boolean.class).orElse(false);
+    }
+
+    public static HikariDataSource getPooledDataSource(String dataSourceName, DataSource dataSource, Config config) {
+        String prefix = dataSourceName + ".pool.";
+        var hikariConfig = new HikariConfig();
+
+        hikariConfig.setPoolName(dataSourceName);
+        hikariConfig.setDataSource(dataSource);
+        hikariConfig.setAutoCommit(false);
+
+        hikariConfig.setMaximumPoolSize(
+                config.getOptionalValue(prefix + "maximumPoolSize", Integer.class).orElse(DEFAULT_MAXIMUM_POOL_SIZE)
+        );
+        config.getOptionalValue(prefix + "minimumIdle", Integer.class)
+                .ifPresent(hikariConfig::setMinimumIdle);
+        config.getOptionalValue(prefix + "connectionTimeout", Long.class)
+                .ifPresent(hikariConfig::setConnectionTimeout);
+        config.getOptionalValue(prefix + "idleTimeout", Long.class)
+                .ifPresent(hikariConfig::setIdleTimeout);
+        config.getOptionalValue(prefix + "maxLifetime", Long.class)
+                .ifPresent(hikariConfig::setMaxLifetime);
+        config.getOptionalValue(prefix + "keepaliveTime", Long.class)
+                .ifPresent(hikariConfig::setKeepaliveTime);
+
+        // Validation: by default, JDBC 4 Connection.isValid is used, which is preferred over a test query
+        config.getOptionalValue(prefix + "validationTimeout", Long.class)
+                .ifPresent(hikariConfig::setValidationTimeout);
+        config.getOptionalValue(prefix + "connectionTestQuery", String.class)
+                .ifPresent(hikariConfig::setConnectionTestQuery);
+
+        return new HikariDataSource(hikariConfig);
+    }
+}
@@ -42,6 +42,16 @@ public final class PostgresqlDataSources {
         config.getOptionalValue("postgresql.sslfactory", String.class)
                 .ifPresent(dataSource::setSslfactory);
 
+        // Prepared statement caching, which is done per connection, and therefore pays off in a connection pool
+        config.getOptionalValue("postgresql.preparedStatementCacheQueries", Integer.class)
+                .ifPresent(dataSource::setPreparedStatementCacheQueries);
+        config.getOptionalValue("postgresql.prepareThreshold", Integer.class)
+                .ifPresent(dataSource::setPrepareThreshold);
+
+        // Rewriting batched inserts into multi-row inserts, which speeds up bulk loading considerably
+        config.getOptionalValue("postgresql.reWriteBatchedInserts", Boolean.class)
+                .ifPresent(dataSource::setReWriteBatchedInserts);
+
         return dataSource;
     }
 }
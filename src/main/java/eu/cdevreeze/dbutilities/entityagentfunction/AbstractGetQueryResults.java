@@ -18,57 +18,72 @@ package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
 import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.JsonGeneratorColumnValueWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.JsonObjectBuilderColumnValueWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.PreparedStatements;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ResultSetWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ResultSetWriters;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowEncoder;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonStreamFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunction;
+import eu.cdevreeze.dbutilities.function.OutputFormat;
 import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonObjectBuilder;
-import jakarta.json.JsonValue;
 import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.persistence.EntityAgent;
 
 /**
  * Abstract {@link EntityAgentToJsonObjectFunction} that returns the results of a query as JSON.
+ * <p>
+ * It is also a {@link EntityAgentToJsonStreamFunction}, writing the same JSON to a {@link JsonGenerator}
+ * while the result set is being read. That way, large query results need not fit in memory.
+ * <p>
+ * Column values are encoded by a {@link RowEncoder}, created once per query. Numeric and boolean
+ * columns are written as JSON numbers and booleans, respectively, and other columns as JSON strings.
+ * <p>
+ * Finally, it is also a {@link EntityAgentToOutputStreamFunction}, writing the rows in another
+ * {@link OutputFormat}, such as NDJSON or CSV, to an {@link OutputStream}.
  *
  * @author Chris de Vreeze
  */
-public abstract class AbstractGetQueryResults implements EntityAgentToJsonObjectFunction {
+public abstract class AbstractGetQueryResults
+        implements EntityAgentToJsonObjectFunction, EntityAgentToJsonStreamFunction, EntityAgentToOutputStreamFunction {
 
     protected abstract String getQueryString();
 
     protected abstract List<QueryParameter> getQueryParameters();
 
+    protected abstract QueryOptions getQueryOptions();
+
+    protected OutputOptions getOutputOptions() {
+        return OutputOptions.DEFAULT;
+    }
+
     @Override
     public final JsonObject apply(EntityAgent entityAgent) {
-        return entityAgent.callWithConnection((Connection conn) -> apply(conn));
+        return entityAgent.callWithConnection((Connection conn) -> Connections.callWithoutAutoCommit(conn, this::apply));
     }
 
     private JsonObject apply(Connection connection) throws SQLException {
         // Unlike class Json, class JsonProvider does not involve a lookup each time it is used
         JsonProvider jsonProvider = JsonProvider.provider();
 
-        try (PreparedStatement ps = connection.prepareStatement(getQueryString())) {
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, getQueryString(), getQueryOptions())) {
             PreparedStatements.setParameters(ps, getQueryParameters());
 
             try (ResultSet rs = ps.executeQuery()) {
                 JsonArrayBuilder rowsJsonArr = jsonProvider.createArrayBuilder();
-                ResultSetMetaData rsMetaData = rs.getMetaData();
+                RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
                 while (rs.next()) {
                     JsonObjectBuilder row = jsonProvider.createObjectBuilder();
-                    IntStream.rangeClosed(1, rsMetaData.getColumnCount())
-                            .forEach(i -> {
-                                try {
-                                    row.add(
-                                            rsMetaData.getColumnLabel(i),
-                                            Optional.ofNullable(rs.getString(i))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    );
-                                } catch (SQLException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            });
+                    rowEncoder.encodeRow(rs, new JsonObjectBuilderColumnValueWriter(rowEncoder, row));
                     rowsJsonArr.add(row);
                 }
                 return jsonProvider.createObjectBuilder()
@@ -77,4 +92,57 @@ public abstract class AbstractGetQueryResults implements EntityAgentToJsonObject
             }
         }
     }
+
+    @Override
+    public final void writeTo(EntityAgent entityAgent, JsonGenerator jsonGenerator) {
+        entityAgent.runWithConnection(
+                (Connection conn) -> Connections.runWithoutAutoCommit(conn, c -> writeTo(c, jsonGenerator)));
+    }
+
+    private void writeTo(Connection connection, JsonGenerator jsonGenerator) throws SQLException {
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, getQueryString(), getQueryOptions())) {
+            PreparedStatements.setParameters(ps, getQueryParameters());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+                JsonGeneratorColumnValueWriter columnValueWriter =
+                        new JsonGeneratorColumnValueWriter(rowEncoder, jsonGenerator);
+
+                jsonGenerator.writeStartObject();
+                jsonGenerator.writeStartArray("rows");
+                while (rs.next()) {
+                    jsonGenerator.writeStartObject();
+                    rowEncoder.encodeRow(rs, columnValueWriter);
+                    jsonGenerator.writeEnd();
+                }
+                jsonGenerator.writeEnd();
+                jsonGenerator.writeEnd();
+            }
+        }
+    }
+
+    @Override
+    public final void writeTo(EntityAgent entityAgent, OutputFormat outputFormat, OutputStream outputStream) {
+        writeTo(entityAgent, ResultSetWriters.create(outputFormat, getOutputOptions()), outputStream);
+    }
+
+    /**
+     * Writes the query results to the given {@link OutputStream}, using the given {@link ResultSetWriter}.
+     * This is useful for functions that transform the query results of this function in a streaming way.
+     */
+    public final void writeTo(EntityAgent entityAgent, ResultSetWriter resultSetWriter, OutputStream outputStream) {
+        entityAgent.runWithConnection(
+                (Connection conn) -> Connections.runWithoutAutoCommit(conn, c -> writeTo(c, resultSetWriter, outputStream)));
+    }
+
+    private void writeTo(Connection connection, ResultSetWriter resultSetWriter, OutputStream outputStream)
+            throws SQLException, IOException {
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, getQueryString(), getQueryOptions())) {
+            PreparedStatements.setParameters(ps, getQueryParameters());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                resultSetWriter.write(rs, outputStream);
+            }
+        }
+    }
 }
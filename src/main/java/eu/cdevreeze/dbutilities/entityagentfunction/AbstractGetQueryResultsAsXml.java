@@ -18,72 +18,87 @@ package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
 import module java.sql;
+import module java.xml;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ElementColumnValueWriter;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.PreparedStatements;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowEncoder;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.XmlStreamColumnValueWriter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToXmlStreamFunction;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.Element;
-import eu.cdevreeze.yaidom4j.dom.immutabledom.Nodes;
 import jakarta.persistence.EntityAgent;
 
 import static eu.cdevreeze.yaidom4j.dom.immutabledom.Nodes.elem;
 
 /**
  * Abstract {@link EntityAgentToElementFunction} that returns the results of a query as XML.
+ * <p>
+ * It is also a {@link EntityAgentToXmlStreamFunction}, writing the same XML to a {@link XMLStreamWriter}
+ * while the result set is being read. That way, large query results need not fit in memory.
+ * <p>
+ * Column values are encoded by a {@link RowEncoder}, created once per query.
  *
  * @author Chris de Vreeze
  */
-public abstract class AbstractGetQueryResultsAsXml implements EntityAgentToElementFunction {
+public abstract class AbstractGetQueryResultsAsXml implements EntityAgentToElementFunction, EntityAgentToXmlStreamFunction {
 
     protected abstract String getQueryString();
 
     protected abstract List<QueryParameter> getQueryParameters();
 
+    protected abstract QueryOptions getQueryOptions();
+
     @Override
     public final Element apply(EntityAgent entityAgent) {
-        return entityAgent.callWithConnection((Connection conn) -> apply(conn));
+        return entityAgent.callWithConnection((Connection conn) -> Connections.callWithoutAutoCommit(conn, this::apply));
     }
 
     private Element apply(Connection connection) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(getQueryString())) {
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, getQueryString(), getQueryOptions())) {
             PreparedStatements.setParameters(ps, getQueryParameters());
 
             try (ResultSet rs = ps.executeQuery()) {
                 List<Element> rows = new ArrayList<>();
-                ResultSetMetaData rsMetaData = rs.getMetaData();
+                RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+                List<QName> columnNames = rowEncoder.getColumnLabels().stream().map(QName::new).toList();
                 while (rs.next()) {
-                    List<Element> columns = new ArrayList<>();
-                    IntStream.rangeClosed(1, rsMetaData.getColumnCount())
-                            .forEach(i -> {
-                                try {
-                                    String columnValue = rs.getString(i);
-                                    columns.add(
-                                            elem(rsMetaData.getColumnLabel(i))
-                                                    .withAttributes(
-                                                            ImmutableMap.of(new QName("null"), "true")
-                                                                    .entrySet()
-                                                                    .stream()
-                                                                    .filter(ignored -> columnValue == null)
-                                                                    .collect(
-                                                                            ImmutableMap.toImmutableMap(Map.Entry::getKey, Map.Entry::getValue)
-                                                                    )
-                                                    )
-                                                    .plusChildOption(
-                                                            Optional.ofNullable(columnValue)
-                                                                    .map(Nodes::text)
-                                                    )
-                                    );
-                                } catch (SQLException e) {
-                                    throw new RuntimeException(e);
-                                }
-                            });
+                    ElementColumnValueWriter columnValueWriter = new ElementColumnValueWriter(columnNames);
+                    rowEncoder.encodeRow(rs, columnValueWriter);
                     rows.add(
-                            elem("row").withChildren(ImmutableList.copyOf(columns))
+                            elem("row").withChildren(ImmutableList.copyOf(columnValueWriter.getColumnElements()))
                     );
                 }
                 return elem("rows").withChildren(ImmutableList.copyOf(rows));
             }
         }
     }
+
+    @Override
+    public final void writeTo(EntityAgent entityAgent, XMLStreamWriter xmlStreamWriter) {
+        entityAgent.runWithConnection(
+                (Connection conn) -> Connections.runWithoutAutoCommit(conn, c -> writeTo(c, xmlStreamWriter)));
+    }
+
+    private void writeTo(Connection connection, XMLStreamWriter xmlStreamWriter) throws SQLException, XMLStreamException {
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, getQueryString(), getQueryOptions())) {
+            PreparedStatements.setParameters(ps, getQueryParameters());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+                XmlStreamColumnValueWriter columnValueWriter = new XmlStreamColumnValueWriter(rowEncoder, xmlStreamWriter);
+
+                xmlStreamWriter.writeStartElement("rows");
+                while (rs.next()) {
+                    xmlStreamWriter.writeStartElement("row");
+                    rowEncoder.encodeRow(rs, columnValueWriter);
+                    xmlStreamWriter.writeEndElement();
+                }
+                xmlStreamWriter.writeEndElement();
+            }
+        }
+    }
 }
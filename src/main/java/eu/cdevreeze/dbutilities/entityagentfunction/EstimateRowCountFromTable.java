@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowCounts;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+
+/**
+ * {@link EntityAgentToJsonObjectFunction} that estimates the row count of a given table from the optimizer
+ * statistics, without scanning the table. This is supported for PostgreSQL (pg_class.reltuples), Oracle
+ * (ALL_TABLES.NUM_ROWS) and Db2 (SYSCAT.TABLES.CARD). The result also contains the time the statistics were
+ * last gathered, if known.
+ * <p>
+ * If no estimate is available (no statistics, or another database), the exact row count is selected instead,
+ * as done by {@link SelectRowCountFromTable}, unless that fallback is turned off. Property "estimated" in the
+ * result tells whether the row count is an estimate. If there is no estimate and the fallback is turned off,
+ * property "rowCount" is null, and property "estimated" is false.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class EstimateRowCountFromTable implements EntityAgentToJsonObjectFunction {
+
+    private final String tableName;
+    private final boolean fallBackToExactCount;
+
+    public EstimateRowCountFromTable(String tableName, boolean fallBackToExactCount) {
+        this.tableName = RowCounts.checkTableNameWrtSqlInjection(tableName);
+        this.fallBackToExactCount = fallBackToExactCount;
+    }
+
+    public EstimateRowCountFromTable(String tableName) {
+        this(tableName, true);
+    }
+
+    @Override
+    public JsonObject apply(EntityAgent entityAgent) {
+        return entityAgent.callWithConnection((Connection conn) -> apply(conn));
+    }
+
+    private JsonObject apply(Connection connection) {
+        // Unlike Json, JsonProvider does not involve a lookup each time it is used
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        try {
+            Optional<RowCounts.RowCountEstimate> estimateOption = RowCounts.estimateRowCount(connection, tableName);
+
+            if (estimateOption.isPresent()) {
+                RowCounts.RowCountEstimate estimate = estimateOption.get();
+                return jsonProvider.createObjectBuilder()
+                        .add("rowCount", estimate.rowCount())
+                        .add("estimated", true)
+                        .add("statisticsTime", estimate.statisticsTime()
+                                .<JsonValue>map(jsonProvider::createValue)
+                                .orElse(JsonValue.NULL))
+                        .build();
+            } else if (fallBackToExactCount) {
+                return jsonProvider.createObjectBuilder()
+                        .add("rowCount", RowCounts.selectRowCount(connection, tableName))
+                        .add("estimated", false)
+                        .addNull("statisticsTime")
+                        .build();
+            } else {
+                // No row count at all, so nothing is estimated either
+                return jsonProvider.createObjectBuilder()
+                        .addNull("rowCount")
+                        .add("estimated", false)
+                        .addNull("statisticsTime")
+                        .build();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
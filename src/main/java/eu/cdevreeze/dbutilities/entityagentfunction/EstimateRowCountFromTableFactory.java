@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+
+/**
+ * Factory of {@link EstimateRowCountFromTable} objects. The first argument is the table name, and the optional
+ * second argument tells whether to fall back to the exact row count if there is no estimate ("true" by default).
+ *
+ * @author Chris de Vreeze
+ */
+public final class EstimateRowCountFromTableFactory implements EntityAgentToJsonObjectFunctionFactory {
+
+    @Override
+    public EstimateRowCountFromTable apply(List<String> args) {
+        Objects.checkIndex(0, args.size());
+        String tableName = Objects.requireNonNull(args.getFirst());
+        boolean fallBackToExactCount = args.size() < 2 || Boolean.parseBoolean(args.get(1));
+        return new EstimateRowCountFromTable(tableName, fallBackToExactCount);
+    }
+}
@@ -17,11 +17,17 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import module java.sql;
 import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.CborEncoder;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunction;
+import eu.cdevreeze.dbutilities.function.OutputFormat;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
 import jakarta.json.JsonReaderFactory;
 import jakarta.json.JsonString;
 import jakarta.json.spi.JsonProvider;
@@ -31,16 +37,26 @@ import jakarta.persistence.EntityAgent;
  * {@link EntityAgentToJsonObjectFunction} that returns the results of a JSON-returning query as JSON.
  * It is expected that each row has just one column, and that it is of type "JSON object".
  * <p>
+ * It is also a {@link EntityAgentToOutputStreamFunction}, supporting output formats NDJSON and CBOR. For NDJSON,
+ * each JSON object is written as one compact line, while the query results are being read. For CBOR, the JSON
+ * objects are written in the same structure as the JSON result of this function.
+ * <p>
  * Instances are created by a dedicated factory object, and not by CDI injection.
  *
  * @author Chris de Vreeze
  */
-public final class GetJsonQueryResults implements EntityAgentToJsonObjectFunction {
+public final class GetJsonQueryResults implements EntityAgentToJsonObjectFunction, EntityAgentToOutputStreamFunction {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
     private final GetQueryResults delegate;
 
+    public GetJsonQueryResults(Path queryFile, List<QueryParameter> queryParameters, QueryOptions queryOptions) {
+        this.delegate = new GetQueryResults(queryFile, queryParameters, queryOptions);
+    }
+
     public GetJsonQueryResults(Path queryFile, List<QueryParameter> queryParameters) {
-        this.delegate = new GetQueryResults(queryFile, queryParameters);
+        this(queryFile, queryParameters, QueryOptions.DEFAULT);
     }
 
     @Override
@@ -68,4 +84,60 @@ public final class GetJsonQueryResults implements EntityAgentToJsonObjectFunctio
                 )
                 .build();
     }
+
+    @Override
+    public void writeTo(EntityAgent entityAgent, OutputFormat outputFormat, OutputStream outputStream) {
+        switch (outputFormat) {
+            case NDJSON -> delegate.writeTo(entityAgent, GetJsonQueryResults::writeJsonObjectLines, outputStream);
+            case CBOR -> delegate.writeTo(entityAgent, GetJsonQueryResults::writeJsonObjectsAsCbor, outputStream);
+            default -> throw new IllegalArgumentException(String.format("Output format %s not supported", outputFormat));
+        }
+    }
+
+    private static long writeJsonObjectLines(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        JsonReaderFactory jsonReaderFactory = JsonProvider.provider().createReaderFactory(Map.of());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        int column = rs.findColumn("json_object");
+        long rowCount = 0;
+
+        while (rs.next()) {
+            String escapedJson = rs.getString(column);
+            Preconditions.checkArgument(escapedJson != null, "Null JSON object not allowed");
+
+            // Parsing and re-serializing the JSON object, so that it is guaranteed to fit on one line
+            try (JsonReader jsonReader = jsonReaderFactory.createReader(new StringReader(escapedJson))) {
+                writer.write(jsonReader.readObject().toString());
+            }
+            writer.write('\n');
+            rowCount += 1;
+        }
+        // Not closing the writer, because that would close the output stream
+        writer.flush();
+        return rowCount;
+    }
+
+    private static long writeJsonObjectsAsCbor(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        JsonReaderFactory jsonReaderFactory = JsonProvider.provider().createReaderFactory(Map.of());
+        OutputStream bufferedOut = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        CborEncoder encoder = new CborEncoder(bufferedOut);
+        int column = rs.findColumn("json_object");
+        long rowCount = 0;
+
+        encoder.writeMapStart(1);
+        encoder.writeString("rows");
+        encoder.writeIndefiniteArrayStart();
+        while (rs.next()) {
+            String escapedJson = rs.getString(column);
+            Preconditions.checkArgument(escapedJson != null, "Null JSON object not allowed");
+
+            try (JsonReader jsonReader = jsonReaderFactory.createReader(new StringReader(escapedJson))) {
+                encoder.writeJsonValue(jsonReader.readObject());
+            }
+            rowCount += 1;
+        }
+        encoder.writeBreak();
+        // Not closing the buffered output stream, because that would close the output stream
+        bufferedOut.flush();
+        return rowCount;
+    }
 }
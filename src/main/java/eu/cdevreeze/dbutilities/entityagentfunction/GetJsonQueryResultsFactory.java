@@ -17,21 +17,35 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
 
 /**
  * Factory of {@link GetJsonQueryResults} objects.
  *
  * @author Chris de Vreeze
  */
-public final class GetJsonQueryResultsFactory implements EntityAgentToJsonObjectFunctionFactory {
+public final class GetJsonQueryResultsFactory
+        implements EntityAgentToJsonObjectFunctionFactory, EntityAgentToOutputStreamFunctionFactory {
+
+    private final QueryOptions queryOptions;
+
+    public GetJsonQueryResultsFactory(QueryOptions queryOptions) {
+        this.queryOptions = queryOptions;
+    }
+
+    public GetJsonQueryResultsFactory() {
+        this(QueryOptions.DEFAULT);
+    }
 
     @Override
     public GetJsonQueryResults apply(List<String> args) {
         Objects.checkIndex(0, args.size());
-        Path queryFile = Path.of(Objects.requireNonNull(args.getFirst()));
+        Path queryFile = FunctionArguments.toPath(Objects.requireNonNull(args.getFirst()));
         List<QueryParameter> queryParameters = QueryParameter.parseParameters(args.subList(1, args.size()));
-        return new GetJsonQueryResults(queryFile, queryParameters);
+        return new GetJsonQueryResults(queryFile, queryParameters, queryOptions);
     }
 }
@@ -17,6 +17,8 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
 
@@ -31,10 +33,27 @@ public final class GetQueryResults extends AbstractGetQueryResults {
 
     private final Path queryFile;
     private final List<QueryParameter> queryParameters;
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
 
-    public GetQueryResults(Path queryFile, List<QueryParameter> queryParameters) {
+    public GetQueryResults(
+            Path queryFile,
+            List<QueryParameter> queryParameters,
+            QueryOptions queryOptions,
+            OutputOptions outputOptions
+    ) {
         this.queryFile = queryFile;
         this.queryParameters = List.copyOf(queryParameters);
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+    }
+
+    public GetQueryResults(Path queryFile, List<QueryParameter> queryParameters, QueryOptions queryOptions) {
+        this(queryFile, queryParameters, queryOptions, OutputOptions.DEFAULT);
+    }
+
+    public GetQueryResults(Path queryFile, List<QueryParameter> queryParameters) {
+        this(queryFile, queryParameters, QueryOptions.DEFAULT);
     }
 
     @Override
@@ -50,4 +69,14 @@ public final class GetQueryResults extends AbstractGetQueryResults {
     protected List<QueryParameter> getQueryParameters() {
         return queryParameters;
     }
+
+    @Override
+    protected QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
+
+    @Override
+    protected OutputOptions getOutputOptions() {
+        return outputOptions;
+    }
 }
@@ -17,6 +17,7 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunction;
 
@@ -31,10 +32,16 @@ public final class GetQueryResultsAsXml extends AbstractGetQueryResultsAsXml {
 
     private final Path queryFile;
     private final List<QueryParameter> queryParameters;
+    private final QueryOptions queryOptions;
 
-    public GetQueryResultsAsXml(Path queryFile, List<QueryParameter> queryParameters) {
+    public GetQueryResultsAsXml(Path queryFile, List<QueryParameter> queryParameters, QueryOptions queryOptions) {
         this.queryFile = queryFile;
         this.queryParameters = List.copyOf(queryParameters);
+        this.queryOptions = queryOptions;
+    }
+
+    public GetQueryResultsAsXml(Path queryFile, List<QueryParameter> queryParameters) {
+        this(queryFile, queryParameters, QueryOptions.DEFAULT);
     }
 
     @Override
@@ -50,4 +57,9 @@ public final class GetQueryResultsAsXml extends AbstractGetQueryResultsAsXml {
     protected List<QueryParameter> getQueryParameters() {
         return queryParameters;
     }
+
+    @Override
+    protected QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
 }
@@ -17,21 +17,34 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToXmlStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
 
 /**
  * Factory of {@link GetQueryResultsAsXml} objects.
  *
  * @author Chris de Vreeze
  */
-public final class GetQueryResultsAsXmlFactory implements EntityAgentToElementFunctionFactory {
+public final class GetQueryResultsAsXmlFactory implements EntityAgentToElementFunctionFactory, EntityAgentToXmlStreamFunctionFactory {
+
+    private final QueryOptions queryOptions;
+
+    public GetQueryResultsAsXmlFactory(QueryOptions queryOptions) {
+        this.queryOptions = queryOptions;
+    }
+
+    public GetQueryResultsAsXmlFactory() {
+        this(QueryOptions.DEFAULT);
+    }
 
     @Override
     public GetQueryResultsAsXml apply(List<String> args) {
         Objects.checkIndex(0, args.size());
-        Path queryFile = Path.of(Objects.requireNonNull(args.getFirst()));
+        Path queryFile = FunctionArguments.toPath(Objects.requireNonNull(args.getFirst()));
         List<QueryParameter> queryParameters = QueryParameter.parseParameters(args.subList(1, args.size()));
-        return new GetQueryResultsAsXml(queryFile, queryParameters);
+        return new GetQueryResultsAsXml(queryFile, queryParameters, queryOptions);
     }
 }
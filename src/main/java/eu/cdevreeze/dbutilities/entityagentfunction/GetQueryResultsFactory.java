@@ -17,21 +17,44 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
 
 /**
  * Factory of {@link GetQueryResults} objects.
  *
  * @author Chris de Vreeze
  */
-public final class GetQueryResultsFactory implements EntityAgentToJsonObjectFunctionFactory {
+public final class GetQueryResultsFactory
+        implements EntityAgentToJsonObjectFunctionFactory, EntityAgentToJsonStreamFunctionFactory,
+        EntityAgentToOutputStreamFunctionFactory {
+
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+
+    public GetQueryResultsFactory(QueryOptions queryOptions, OutputOptions outputOptions) {
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+    }
+
+    public GetQueryResultsFactory(QueryOptions queryOptions) {
+        this(queryOptions, OutputOptions.DEFAULT);
+    }
+
+    public GetQueryResultsFactory() {
+        this(QueryOptions.DEFAULT);
+    }
 
     @Override
     public GetQueryResults apply(List<String> args) {
         Objects.checkIndex(0, args.size());
-        Path queryFile = Path.of(Objects.requireNonNull(args.getFirst()));
+        Path queryFile = FunctionArguments.toPath(Objects.requireNonNull(args.getFirst()));
         List<QueryParameter> queryParameters = QueryParameter.parseParameters(args.subList(1, args.size()));
-        return new GetQueryResults(queryFile, queryParameters);
+        return new GetQueryResults(queryFile, queryParameters, queryOptions, outputOptions);
     }
 }
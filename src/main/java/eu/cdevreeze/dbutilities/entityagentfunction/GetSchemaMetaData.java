@@ -0,0 +1,253 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngine;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngines;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataJson;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+
+/**
+ * {@link EntityAgentToJsonObjectFunction} that retrieves a snapshot of the metadata of all tables in a database
+ * schema (optionally restricted by a table name pattern): the tables, their columns, primary keys, foreign keys
+ * and indexes. The JSON objects for tables and columns are the same as those returned by {@link GetTableMetaData}
+ * and {@link GetTableColumnsMetaData}.
+ * <p>
+ * Instead of calling {@link DatabaseMetaData} once per table, the metadata is retrieved with a handful of bulk
+ * calls for the whole schema, and assembled in memory. For primary keys, foreign keys and indexes, the bulk call
+ * passes no table name. Not all JDBC drivers support that, so if such a call fails, the data is retrieved per
+ * table instead. The bulk call runs under a savepoint, if possible, so that its failure does not abort the
+ * surrounding transaction (as it would on PostgreSQL). Note that an empty result of a bulk call is normal, for
+ * example for a schema without foreign keys, so it does not lead to calls per table.
+ * <p>
+ * Depending on the {@link MetaDataOptions}, tables and columns are queried from the data dictionary of the
+ * database (for Oracle, Db2 and PostgreSQL) instead of through {@link DatabaseMetaData}.
+ * <p>
+ * The schema name must match the schema name as stored in the database (e.g. in upper case for Oracle and Db2).
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class GetSchemaMetaData implements EntityAgentToJsonObjectFunction {
+
+    @FunctionalInterface
+    private interface MetaDataCall {
+
+        /**
+         * Calls a {@link DatabaseMetaData} method for the given table, or for all tables if the table name is empty.
+         */
+        ResultSet call(Optional<String> tableName) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface RowConverter {
+
+        JsonObject convert(ResultSet rs, JsonProvider jsonProvider) throws SQLException;
+    }
+
+    private final String schemaName;
+    private final String tableNamePattern;
+    private final MetaDataOptions metaDataOptions;
+
+    public GetSchemaMetaData(String schemaName, String tableNamePattern, MetaDataOptions metaDataOptions) {
+        this.schemaName = schemaName;
+        this.tableNamePattern = tableNamePattern;
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    public GetSchemaMetaData(String schemaName, String tableNamePattern) {
+        this(schemaName, tableNamePattern, MetaDataOptions.DEFAULT);
+    }
+
+    public GetSchemaMetaData(String schemaName) {
+        this(schemaName, "%");
+    }
+
+    @Override
+    public JsonObject apply(EntityAgent entityAgent) {
+        return entityAgent.callWithConnection((Connection conn) -> apply(conn));
+    }
+
+    private JsonObject apply(Connection connection) {
+        // Unlike Json, JsonProvider does not involve a lookup each time it is used
+        JsonProvider jsonProvider = JsonProvider.provider();
+        try {
+            DatabaseMetaData dbMetaData = connection.getMetaData();
+            MetaDataEngine metaDataEngine = MetaDataEngines.create(connection, metaDataOptions, jsonProvider);
+
+            Map<String, JsonObject> tables = new LinkedHashMap<>();
+            for (JsonObject table : metaDataEngine.getTables(Optional.of(schemaName), tableNamePattern)) {
+                tables.put(table.getString("tableName"), table);
+            }
+
+            Map<String, List<JsonObject>> columnsByTable = new HashMap<>();
+            for (JsonObject column : metaDataEngine.getColumns(Optional.of(schemaName), tableNamePattern)) {
+                String tableName = column.getString("tableName");
+                if (tables.containsKey(tableName)) {
+                    columnsByTable.computeIfAbsent(tableName, _ -> new ArrayList<>()).add(column);
+                }
+            }
+            Map<String, List<JsonObject>> primaryKeysByTable = fetchGroupedByTable(
+                    connection,
+                    tableName -> dbMetaData.getPrimaryKeys(null, schemaName, tableName.orElse(null)),
+                    "TABLE_NAME",
+                    MetaDataJson::primaryKeyColumn,
+                    tables.keySet(),
+                    jsonProvider
+            );
+            Map<String, List<JsonObject>> foreignKeysByTable = fetchGroupedByTable(
+                    connection,
+                    tableName -> dbMetaData.getImportedKeys(null, schemaName, tableName.orElse(null)),
+                    "FKTABLE_NAME",
+                    MetaDataJson::foreignKeyColumn,
+                    tables.keySet(),
+                    jsonProvider
+            );
+            Map<String, List<JsonObject>> indexesByTable = fetchGroupedByTable(
+                    connection,
+                    tableName -> dbMetaData.getIndexInfo(null, schemaName, tableName.orElse(null), false, true),
+                    "TABLE_NAME",
+                    MetaDataJson::indexColumn,
+                    tables.keySet(),
+                    jsonProvider
+            );
+
+            JsonArrayBuilder tablesJsonArr = jsonProvider.createArrayBuilder();
+            for (Map.Entry<String, JsonObject> table : tables.entrySet()) {
+                String tableName = table.getKey();
+                JsonObjectBuilder tableJson = jsonProvider.createObjectBuilder(table.getValue())
+                        .add("columns", toJsonArray(columnsByTable.getOrDefault(tableName, List.of()), jsonProvider))
+                        .add("primaryKey", toJsonArray(primaryKeysByTable.getOrDefault(tableName, List.of()), jsonProvider))
+                        .add("foreignKeys", toJsonArray(foreignKeysByTable.getOrDefault(tableName, List.of()), jsonProvider))
+                        .add("indexes", toJsonArray(withoutIndexStatistics(indexesByTable.getOrDefault(tableName, List.of())), jsonProvider));
+                tablesJsonArr.add(tableJson);
+            }
+            return jsonProvider.createObjectBuilder()
+                    .add("schema", schemaName)
+                    .add("tables", tablesJsonArr)
+                    .build();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Retrieves metadata rows for all given tables at once, falling back to one call per table if the bulk call
+     * fails. The result only contains rows of the given tables, grouped by table name.
+     */
+    private static Map<String, List<JsonObject>> fetchGroupedByTable(
+            Connection connection,
+            MetaDataCall metaDataCall,
+            String tableNameColumn,
+            RowConverter rowConverter,
+            Set<String> tableNames,
+            JsonProvider jsonProvider
+    ) throws SQLException {
+        Map<String, List<JsonObject>> result = new HashMap<>();
+        if (tableNames.isEmpty()) {
+            return result;
+        }
+
+        boolean bulkCallSucceeded = tryBulkCall(connection, metaDataCall, tableNameColumn, rowConverter, tableNames, jsonProvider, result);
+
+        if (!bulkCallSucceeded) {
+            result.clear();
+            for (String tableName : tableNames) {
+                // Table names in patterns may contain wildcards, such as underscores, so filtering on the exact name
+                collectRows(metaDataCall.call(Optional.of(tableName)), tableNameColumn, rowConverter, tableName::equals, jsonProvider, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Makes the bulk call (passing no table name), collecting the rows in the result. Returns false if the driver
+     * does not support the bulk call. Within a transaction, the call is made under a savepoint (if supported), which
+     * is rolled back if the call fails.
+     */
+    private static boolean tryBulkCall(
+            Connection connection,
+            MetaDataCall metaDataCall,
+            String tableNameColumn,
+            RowConverter rowConverter,
+            Set<String> tableNames,
+            JsonProvider jsonProvider,
+            Map<String, List<JsonObject>> result
+    ) throws SQLException {
+        Optional<Savepoint> savepointOption = !connection.getAutoCommit() && connection.getMetaData().supportsSavepoints() ?
+                Optional.of(connection.setSavepoint()) :
+                Optional.empty();
+
+        try {
+            collectRows(metaDataCall.call(Optional.empty()), tableNameColumn, rowConverter, tableNames::contains, jsonProvider, result);
+        } catch (SQLException e) {
+            // The driver does not support the bulk call, so undoing its effect on the transaction, if any
+            if (savepointOption.isPresent()) {
+                connection.rollback(savepointOption.get());
+            }
+            return false;
+        }
+
+        if (savepointOption.isPresent()) {
+            try {
+                connection.releaseSavepoint(savepointOption.get());
+            } catch (SQLFeatureNotSupportedException e) {
+                // Oracle does not support releasing savepoints, which is harmless here
+            }
+        }
+        return true;
+    }
+
+    private static void collectRows(
+            ResultSet resultSet,
+            String tableNameColumn,
+            RowConverter rowConverter,
+            Predicate<String> tableNameFilter,
+            JsonProvider jsonProvider,
+            Map<String, List<JsonObject>> result
+    ) throws SQLException {
+        try (ResultSet rs = resultSet) {
+            while (rs.next()) {
+                String tableName = rs.getString(tableNameColumn);
+                if (tableNameFilter.test(tableName)) {
+                    result.computeIfAbsent(tableName, _ -> new ArrayList<>()).add(rowConverter.convert(rs, jsonProvider));
+                }
+            }
+        }
+    }
+
+    private static List<JsonObject> withoutIndexStatistics(List<JsonObject> indexColumns) {
+        return indexColumns.stream()
+                .filter(indexColumn -> indexColumn.getInt("type") != DatabaseMetaData.tableIndexStatistic)
+                .toList();
+    }
+
+    private static JsonArrayBuilder toJsonArray(List<JsonObject> jsonObjects, JsonProvider jsonProvider) {
+        JsonArrayBuilder jsonArr = jsonProvider.createArrayBuilder();
+        jsonObjects.forEach(jsonArr::add);
+        return jsonArr;
+    }
+}
@@ -18,16 +18,23 @@ package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
 import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataCache;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngine;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngines;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
-import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonValue;
 import jakarta.json.spi.JsonProvider;
 import jakarta.persistence.EntityAgent;
 
 /**
  * {@link EntityAgentToJsonObjectFunction} that retrieves metadata of a table's columns in the database.
  * <p>
+ * Depending on the {@link MetaDataOptions}, the metadata is queried from the data dictionary of the database
+ * (for Oracle, Db2 and PostgreSQL), or retrieved through JDBC {@link DatabaseMetaData}. If the options contain
+ * a {@link MetaDataCache}, the metadata is taken from that cache if it is still valid. The optional schema name
+ * narrows the search.
+ * <p>
  * Instances are created by a dedicated factory object, and not by CDI injection.
  *
  * @author Chris de Vreeze
@@ -35,13 +42,31 @@ import jakarta.persistence.EntityAgent;
 public final class GetTableColumnsMetaData implements EntityAgentToJsonObjectFunction {
 
     private final String tableName;
+    private final Optional<String> schemaName;
+    private final MetaDataOptions metaDataOptions;
 
-    public GetTableColumnsMetaData(String tableName) {
+    public GetTableColumnsMetaData(String tableName, Optional<String> schemaName, MetaDataOptions metaDataOptions) {
         this.tableName = tableName;
+        this.schemaName = schemaName;
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    public GetTableColumnsMetaData(String tableName, MetaDataOptions metaDataOptions) {
+        this(tableName, Optional.empty(), metaDataOptions);
+    }
+
+    public GetTableColumnsMetaData(String tableName) {
+        this(tableName, MetaDataOptions.DEFAULT);
     }
 
     @Override
     public JsonObject apply(EntityAgent entityAgent) {
+        // A fresh cache entry saves the database round trip altogether
+        Optional<MetaDataCache.Entry> freshCacheEntry =
+                metaDataOptions.metaDataCache().flatMap(cache -> cache.getFresh(getCacheKey()));
+        if (freshCacheEntry.isPresent()) {
+            return toJsonObject(freshCacheEntry.get().columns(), JsonProvider.provider());
+        }
         return entityAgent.callWithConnection((Connection conn) -> apply(conn));
     }
 
@@ -49,63 +74,24 @@ public final class GetTableColumnsMetaData implements EntityAgentToJsonObjectFun
         // Unlike Json, JsonProvider does not involve a lookup each time it is used
         JsonProvider jsonProvider = JsonProvider.provider();
         try {
-            DatabaseMetaData dbMetaData = connection.getMetaData();
-            try (ResultSet rs = dbMetaData.getColumns(null, null, tableName, null)) {
-                JsonArrayBuilder columnsJsonArr = jsonProvider.createArrayBuilder();
-                while (rs.next()) {
-                    columnsJsonArr.add(
-                            jsonProvider.createObjectBuilder()
-                                    .add(
-                                            "tableCat",
-                                            Optional.ofNullable(rs.getString("TABLE_CAT"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add(
-                                            "tableSchema",
-                                            Optional.ofNullable(rs.getString("TABLE_SCHEM"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add("tableName", rs.getString("TABLE_NAME"))
-                                    .add("columnName", rs.getString("COLUMN_NAME"))
-                                    .add("dataType", rs.getInt("DATA_TYPE"))
-                                    .add("typeName", rs.getString("TYPE_NAME"))
-                                    .add("columnSize", rs.getInt("COLUMN_SIZE"))
-                                    .add("decimalDigits", Optional.ofNullable(rs.getString("DECIMAL_DIGITS"))
-                                            .map(Integer::parseInt).map(v -> (JsonValue) jsonProvider.createValue(v)).orElse(JsonValue.NULL))
-                                    .add("numPrecRadix", Optional.ofNullable(rs.getString("NUM_PREC_RADIX"))
-                                            .map(Integer::parseInt).map(v -> (JsonValue) jsonProvider.createValue(v)).orElse(JsonValue.NULL))
-                                    .add("nullable", Optional.ofNullable(rs.getString("NULLABLE"))
-                                            .map(Integer::parseInt).map(v -> (JsonValue) jsonProvider.createValue(v)).orElse(JsonValue.NULL))
-                                    .add(
-                                            "remarks",
-                                            Optional.ofNullable(rs.getString("REMARKS"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add(
-                                            "columnDef",
-                                            Optional.ofNullable(rs.getString("COLUMN_DEF"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add("charOctetLength", Optional.ofNullable(rs.getString("CHAR_OCTET_LENGTH"))
-                                            .map(Integer::parseInt).map(v -> (JsonValue) jsonProvider.createValue(v)).orElse(JsonValue.NULL))
-                                    .add("ordinalPosition", Optional.ofNullable(rs.getString("ORDINAL_POSITION"))
-                                            .map(Integer::parseInt).map(v -> (JsonValue) jsonProvider.createValue(v)).orElse(JsonValue.NULL))
-                                    .add("isNullable", rs.getString("IS_NULLABLE"))
-                                    .add("isAutoIncrement", rs.getString("IS_AUTOINCREMENT"))
-                                    .add("isGeneratedColumn", rs.getString("IS_GENERATEDCOLUMN"))
-                    );
-                }
-                return jsonProvider.createObjectBuilder()
-                        .add("table", tableName)
-                        .add("columns", columnsJsonArr)
-                        .build();
-            }
+            MetaDataEngine metaDataEngine = MetaDataEngines.create(connection, metaDataOptions, jsonProvider);
+            List<JsonObject> columns = metaDataOptions.metaDataCache().isPresent() ?
+                    metaDataOptions.metaDataCache().get().getValidated(getCacheKey(), metaDataEngine).columns() :
+                    metaDataEngine.getColumns(schemaName, tableName);
+            return toJsonObject(columns, jsonProvider);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
+
+    private MetaDataCache.Key getCacheKey() {
+        return new MetaDataCache.Key(schemaName, tableName);
+    }
+
+    private JsonObject toJsonObject(List<JsonObject> columns, JsonProvider jsonProvider) {
+        return jsonProvider.createObjectBuilder()
+                .add("table", tableName)
+                .add("columns", jsonProvider.createArrayBuilder(columns))
+                .build();
+    }
 }
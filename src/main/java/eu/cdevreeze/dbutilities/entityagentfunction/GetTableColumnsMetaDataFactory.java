@@ -17,19 +17,32 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
 
 /**
- * Factory of {@link GetTableColumnsMetaData} objects.
+ * Factory of {@link GetTableColumnsMetaData} objects. The first argument is the table name, and the optional second
+ * argument is the schema name.
  *
  * @author Chris de Vreeze
  */
 public final class GetTableColumnsMetaDataFactory implements EntityAgentToJsonObjectFunctionFactory {
 
+    private final MetaDataOptions metaDataOptions;
+
+    public GetTableColumnsMetaDataFactory(MetaDataOptions metaDataOptions) {
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    public GetTableColumnsMetaDataFactory() {
+        this(MetaDataOptions.DEFAULT);
+    }
+
     @Override
     public GetTableColumnsMetaData apply(List<String> args) {
         Objects.checkIndex(0, args.size());
         String tableName = Objects.requireNonNull(args.getFirst());
-        return new GetTableColumnsMetaData(tableName);
+        Optional<String> schemaName = args.size() >= 2 ? Optional.of(args.get(1)) : Optional.empty();
+        return new GetTableColumnsMetaData(tableName, schemaName, metaDataOptions);
     }
 }
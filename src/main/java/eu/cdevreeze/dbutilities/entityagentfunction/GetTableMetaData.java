@@ -18,16 +18,23 @@ package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
 import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataCache;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngine;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngines;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
-import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonValue;
 import jakarta.json.spi.JsonProvider;
 import jakarta.persistence.EntityAgent;
 
 /**
  * {@link EntityAgentToJsonObjectFunction} that retrieves metadata of a table in the database.
  * <p>
+ * Depending on the {@link MetaDataOptions}, the metadata is queried from the data dictionary of the database
+ * (for Oracle, Db2 and PostgreSQL), or retrieved through JDBC {@link DatabaseMetaData}. If the options contain
+ * a {@link MetaDataCache}, the metadata is taken from that cache if it is still valid. The optional schema name
+ * narrows the search.
+ * <p>
  * Instances are created by a dedicated factory object, and not by CDI injection.
  *
  * @author Chris de Vreeze
@@ -35,13 +42,31 @@ import jakarta.persistence.EntityAgent;
 public final class GetTableMetaData implements EntityAgentToJsonObjectFunction {
 
     private final String tableName;
+    private final Optional<String> schemaName;
+    private final MetaDataOptions metaDataOptions;
 
-    public GetTableMetaData(String tableName) {
+    public GetTableMetaData(String tableName, Optional<String> schemaName, MetaDataOptions metaDataOptions) {
         this.tableName = tableName;
+        this.schemaName = schemaName;
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    public GetTableMetaData(String tableName, MetaDataOptions metaDataOptions) {
+        this(tableName, Optional.empty(), metaDataOptions);
+    }
+
+    public GetTableMetaData(String tableName) {
+        this(tableName, MetaDataOptions.DEFAULT);
     }
 
     @Override
     public JsonObject apply(EntityAgent entityAgent) {
+        // A fresh cache entry saves the database round trip altogether
+        Optional<MetaDataCache.Entry> freshCacheEntry =
+                metaDataOptions.metaDataCache().flatMap(cache -> cache.getFresh(getCacheKey()));
+        if (freshCacheEntry.isPresent()) {
+            return toJsonObject(freshCacheEntry.get().tables(), JsonProvider.provider());
+        }
         return entityAgent.callWithConnection((Connection conn) -> apply(conn));
     }
 
@@ -49,59 +74,23 @@ public final class GetTableMetaData implements EntityAgentToJsonObjectFunction {
         // Unlike Json, JsonProvider does not involve a lookup each time it is used
         JsonProvider jsonProvider = JsonProvider.provider();
         try {
-            DatabaseMetaData dbMetaData = connection.getMetaData();
-            try (ResultSet rs = dbMetaData.getTables(null, null, tableName, null)) {
-                JsonArrayBuilder tablesJsonArr = jsonProvider.createArrayBuilder();
-                while (rs.next()) {
-                    tablesJsonArr.add(
-                            jsonProvider.createObjectBuilder()
-                                    .add(
-                                            "tableCat",
-                                            Optional.ofNullable(rs.getString("TABLE_CAT"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add(
-                                            "tableSchema",
-                                            Optional.ofNullable(rs.getString("TABLE_SCHEM"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add("tableName", rs.getString("TABLE_NAME"))
-                                    .add("tableType", rs.getString("TABLE_TYPE"))
-                                    .add(
-                                            "remarks",
-                                            Optional.ofNullable(rs.getString("REMARKS"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add(
-                                            "typeCat",
-                                            Optional.ofNullable(rs.getString("TYPE_CAT"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add(
-                                            "typeSchema",
-                                            Optional.ofNullable(rs.getString("TYPE_SCHEM"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                                    .add(
-                                            "typeName",
-                                            Optional.ofNullable(rs.getString("TYPE_NAME"))
-                                                    .map(v -> (JsonValue) jsonProvider.createValue(v))
-                                                    .orElse(JsonValue.NULL)
-                                    )
-                            // Left out SELF_REFERENCING_COL_NAME and REF_GENERATION
-                    );
-                }
-                return jsonProvider.createObjectBuilder()
-                        .add("tables", tablesJsonArr)
-                        .build();
-            }
+            MetaDataEngine metaDataEngine = MetaDataEngines.create(connection, metaDataOptions, jsonProvider);
+            List<JsonObject> tables = metaDataOptions.metaDataCache().isPresent() ?
+                    metaDataOptions.metaDataCache().get().getValidated(getCacheKey(), metaDataEngine).tables() :
+                    metaDataEngine.getTables(schemaName, tableName);
+            return toJsonObject(tables, jsonProvider);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
+
+    private MetaDataCache.Key getCacheKey() {
+        return new MetaDataCache.Key(schemaName, tableName);
+    }
+
+    private JsonObject toJsonObject(List<JsonObject> tables, JsonProvider jsonProvider) {
+        return jsonProvider.createObjectBuilder()
+                .add("tables", jsonProvider.createArrayBuilder(tables))
+                .build();
+    }
 }
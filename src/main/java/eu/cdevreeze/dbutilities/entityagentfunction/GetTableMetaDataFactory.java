@@ -17,19 +17,32 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
 
 /**
- * Factory of {@link GetTableMetaData} objects.
+ * Factory of {@link GetTableMetaData} objects. The first argument is the table name, and the optional second
+ * argument is the schema name.
  *
  * @author Chris de Vreeze
  */
 public final class GetTableMetaDataFactory implements EntityAgentToJsonObjectFunctionFactory {
 
+    private final MetaDataOptions metaDataOptions;
+
+    public GetTableMetaDataFactory(MetaDataOptions metaDataOptions) {
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    public GetTableMetaDataFactory() {
+        this(MetaDataOptions.DEFAULT);
+    }
+
     @Override
     public GetTableMetaData apply(List<String> args) {
         Objects.checkIndex(0, args.size());
         String tableName = Objects.requireNonNull(args.getFirst());
-        return new GetTableMetaData(tableName);
+        Optional<String> schemaName = args.size() >= 2 ? Optional.of(args.get(1)) : Optional.empty();
+        return new GetTableMetaData(tableName, schemaName, metaDataOptions);
     }
 }
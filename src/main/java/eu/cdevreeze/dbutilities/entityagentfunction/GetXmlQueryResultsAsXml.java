@@ -20,6 +20,7 @@ import module java.base;
 import module java.xml;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunction;
 import eu.cdevreeze.yaidom4j.dom.immutabledom.Element;
@@ -39,8 +40,12 @@ public final class GetXmlQueryResultsAsXml implements EntityAgentToElementFuncti
 
     private final GetQueryResultsAsXml delegate;
 
+    public GetXmlQueryResultsAsXml(Path queryFile, List<QueryParameter> queryParameters, QueryOptions queryOptions) {
+        this.delegate = new GetQueryResultsAsXml(queryFile, queryParameters, queryOptions);
+    }
+
     public GetXmlQueryResultsAsXml(Path queryFile, List<QueryParameter> queryParameters) {
-        this.delegate = new GetQueryResultsAsXml(queryFile, queryParameters);
+        this(queryFile, queryParameters, QueryOptions.DEFAULT);
     }
 
     @Override
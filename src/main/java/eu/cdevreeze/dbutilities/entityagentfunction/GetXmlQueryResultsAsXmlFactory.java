@@ -17,8 +17,10 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
 
 /**
  * Factory of {@link GetXmlQueryResultsAsXml} objects.
@@ -27,11 +29,21 @@ import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunctionFactory;
  */
 public final class GetXmlQueryResultsAsXmlFactory implements EntityAgentToElementFunctionFactory {
 
+    private final QueryOptions queryOptions;
+
+    public GetXmlQueryResultsAsXmlFactory(QueryOptions queryOptions) {
+        this.queryOptions = queryOptions;
+    }
+
+    public GetXmlQueryResultsAsXmlFactory() {
+        this(QueryOptions.DEFAULT);
+    }
+
     @Override
     public GetXmlQueryResultsAsXml apply(List<String> args) {
         Objects.checkIndex(0, args.size());
-        Path queryFile = Path.of(Objects.requireNonNull(args.getFirst()));
+        Path queryFile = FunctionArguments.toPath(Objects.requireNonNull(args.getFirst()));
         List<QueryParameter> queryParameters = QueryParameter.parseParameters(args.subList(1, args.size()));
-        return new GetXmlQueryResultsAsXml(queryFile, queryParameters);
+        return new GetXmlQueryResultsAsXml(queryFile, queryParameters, queryOptions);
     }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction;
+
+import module java.base;
+import module java.sql;
+import com.google.common.base.Preconditions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataCache;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataEngines;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
+import jakarta.json.JsonObject;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+
+/**
+ * {@link EntityAgentToJsonObjectFunction} that refreshes the {@link MetaDataCache} for all tables in a database
+ * schema (optionally restricted by a table name pattern). Only the tables whose change token (such as the last
+ * DDL time) differs from the cached one are re-fetched. Afterward, {@link GetTableMetaData} and
+ * {@link GetTableColumnsMetaData} calls for these tables and this schema are served from the cache.
+ * <p>
+ * The result lists the unchanged, refreshed and removed tables. The metadata options must contain a cache.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RefreshMetaDataCache implements EntityAgentToJsonObjectFunction {
+
+    private final String schemaName;
+    private final String tableNamePattern;
+    private final MetaDataOptions metaDataOptions;
+
+    public RefreshMetaDataCache(String schemaName, String tableNamePattern, MetaDataOptions metaDataOptions) {
+        Preconditions.checkArgument(metaDataOptions.metaDataCache().isPresent(), "No metadata cache configured");
+
+        this.schemaName = schemaName;
+        this.tableNamePattern = tableNamePattern;
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityAgent entityAgent) {
+        return entityAgent.callWithConnection((Connection conn) -> apply(conn));
+    }
+
+    private JsonObject apply(Connection connection) {
+        // Unlike Json, JsonProvider does not involve a lookup each time it is used
+        JsonProvider jsonProvider = JsonProvider.provider();
+        try {
+            MetaDataCache.RefreshResult refreshResult = metaDataOptions.metaDataCache().orElseThrow().refreshSchema(
+                    schemaName,
+                    tableNamePattern,
+                    MetaDataEngines.create(connection, metaDataOptions, jsonProvider)
+            );
+            return jsonProvider.createObjectBuilder()
+                    .add("schema", schemaName)
+                    .add("unchanged", jsonProvider.createArrayBuilder(refreshResult.unchanged()))
+                    .add("refreshed", jsonProvider.createArrayBuilder(refreshResult.refreshed()))
+                    .add("removed", jsonProvider.createArrayBuilder(refreshResult.removed()))
+                    .build();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+
+/**
+ * Factory of {@link RefreshMetaDataCache} objects. The first argument is the schema name, and the optional second
+ * argument is the table name pattern (by default "%").
+ *
+ * @author Chris de Vreeze
+ */
+public final class RefreshMetaDataCacheFactory implements EntityAgentToJsonObjectFunctionFactory {
+
+    private final MetaDataOptions metaDataOptions;
+
+    public RefreshMetaDataCacheFactory(MetaDataOptions metaDataOptions) {
+        this.metaDataOptions = metaDataOptions;
+    }
+
+    @Override
+    public RefreshMetaDataCache apply(List<String> args) {
+        Objects.checkIndex(0, args.size());
+        String schemaName = Objects.requireNonNull(args.getFirst());
+        String tableNamePattern = args.size() >= 2 ? Objects.requireNonNull(args.get(1)) : "%";
+        return new RefreshMetaDataCache(schemaName, tableNamePattern, metaDataOptions);
+    }
+}
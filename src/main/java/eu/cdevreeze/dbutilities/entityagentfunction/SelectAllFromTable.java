@@ -17,6 +17,8 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
 
@@ -30,9 +32,21 @@ import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
 public final class SelectAllFromTable extends AbstractGetQueryResults {
 
     private final String tableName;
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
 
-    public SelectAllFromTable(String tableName) {
+    public SelectAllFromTable(String tableName, QueryOptions queryOptions, OutputOptions outputOptions) {
         this.tableName = checkTableNameWrtSqlInjection(tableName);
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+    }
+
+    public SelectAllFromTable(String tableName, QueryOptions queryOptions) {
+        this(tableName, queryOptions, OutputOptions.DEFAULT);
+    }
+
+    public SelectAllFromTable(String tableName) {
+        this(tableName, QueryOptions.DEFAULT);
     }
 
     @Override
@@ -45,6 +59,16 @@ public final class SelectAllFromTable extends AbstractGetQueryResults {
         return List.of();
     }
 
+    @Override
+    protected QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
+
+    @Override
+    protected OutputOptions getOutputOptions() {
+        return outputOptions;
+    }
+
     private static String checkTableNameWrtSqlInjection(String tableName) {
         if (tableName.chars().anyMatch(Character::isWhitespace)) {
             throw new RuntimeException("Table name with whitespace not allowed (to prevent SQL injection)");
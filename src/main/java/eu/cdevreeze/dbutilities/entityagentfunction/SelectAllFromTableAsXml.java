@@ -17,6 +17,7 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunction;
 
@@ -30,9 +31,15 @@ import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunction;
 public final class SelectAllFromTableAsXml extends AbstractGetQueryResultsAsXml {
 
     private final String tableName;
+    private final QueryOptions queryOptions;
 
-    public SelectAllFromTableAsXml(String tableName) {
+    public SelectAllFromTableAsXml(String tableName, QueryOptions queryOptions) {
         this.tableName = checkTableNameWrtSqlInjection(tableName);
+        this.queryOptions = queryOptions;
+    }
+
+    public SelectAllFromTableAsXml(String tableName) {
+        this(tableName, QueryOptions.DEFAULT);
     }
 
     @Override
@@ -45,6 +52,11 @@ public final class SelectAllFromTableAsXml extends AbstractGetQueryResultsAsXml
         return List.of();
     }
 
+    @Override
+    protected QueryOptions getQueryOptions() {
+        return queryOptions;
+    }
+
     private static String checkTableNameWrtSqlInjection(String tableName) {
         if (tableName.chars().anyMatch(Character::isWhitespace)) {
             throw new RuntimeException("Table name with whitespace not allowed (to prevent SQL injection)");
@@ -17,19 +17,31 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentToElementFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToXmlStreamFunctionFactory;
 
 /**
  * Factory of {@link SelectAllFromTableAsXml} objects.
  *
  * @author Chris de Vreeze
  */
-public final class SelectAllFromTableAsXmlFactory implements EntityAgentToElementFunctionFactory {
+public final class SelectAllFromTableAsXmlFactory implements EntityAgentToElementFunctionFactory, EntityAgentToXmlStreamFunctionFactory {
+
+    private final QueryOptions queryOptions;
+
+    public SelectAllFromTableAsXmlFactory(QueryOptions queryOptions) {
+        this.queryOptions = queryOptions;
+    }
+
+    public SelectAllFromTableAsXmlFactory() {
+        this(QueryOptions.DEFAULT);
+    }
 
     @Override
     public SelectAllFromTableAsXml apply(List<String> args) {
         Objects.checkIndex(0, args.size());
         String tableName = Objects.requireNonNull(args.getFirst());
-        return new SelectAllFromTableAsXml(tableName);
+        return new SelectAllFromTableAsXml(tableName, queryOptions);
     }
 }
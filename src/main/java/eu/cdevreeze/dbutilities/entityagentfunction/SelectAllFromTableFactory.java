@@ -17,19 +17,41 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToJsonStreamFunctionFactory;
+import eu.cdevreeze.dbutilities.function.EntityAgentToOutputStreamFunctionFactory;
 
 /**
  * Factory of {@link SelectAllFromTable} objects.
  *
  * @author Chris de Vreeze
  */
-public final class SelectAllFromTableFactory implements EntityAgentToJsonObjectFunctionFactory {
+public final class SelectAllFromTableFactory
+        implements EntityAgentToJsonObjectFunctionFactory, EntityAgentToJsonStreamFunctionFactory,
+        EntityAgentToOutputStreamFunctionFactory {
+
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+
+    public SelectAllFromTableFactory(QueryOptions queryOptions, OutputOptions outputOptions) {
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+    }
+
+    public SelectAllFromTableFactory(QueryOptions queryOptions) {
+        this(queryOptions, OutputOptions.DEFAULT);
+    }
+
+    public SelectAllFromTableFactory() {
+        this(QueryOptions.DEFAULT);
+    }
 
     @Override
     public SelectAllFromTable apply(List<String> args) {
         Objects.checkIndex(0, args.size());
         String tableName = Objects.requireNonNull(args.getFirst());
-        return new SelectAllFromTable(tableName);
+        return new SelectAllFromTable(tableName, queryOptions, outputOptions);
     }
 }
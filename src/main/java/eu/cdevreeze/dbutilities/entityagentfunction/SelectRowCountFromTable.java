@@ -17,6 +17,7 @@
 package eu.cdevreeze.dbutilities.entityagentfunction;
 
 import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowCounts;
 import eu.cdevreeze.dbutilities.function.EntityAgentToJsonObjectFunction;
 import jakarta.json.JsonObject;
 import jakarta.json.spi.JsonProvider;
@@ -34,7 +35,7 @@ public final class SelectRowCountFromTable implements EntityAgentToJsonObjectFun
     private final String tableName;
 
     public SelectRowCountFromTable(String tableName) {
-        this.tableName = checkTableNameWrtSqlInjection(tableName);
+        this.tableName = RowCounts.checkTableNameWrtSqlInjection(tableName);
     }
 
     @Override
@@ -46,26 +47,11 @@ public final class SelectRowCountFromTable implements EntityAgentToJsonObjectFun
         // Unlike Json, JsonProvider does not involve a lookup each time it is used
         JsonProvider jsonProvider = JsonProvider.provider();
 
-        try (PreparedStatement ps = connection.prepareStatement("select count(*) from " + tableName)) {
-            try (ResultSet rs = ps.executeQuery()) {
-                long rowCount;
-                if (rs.next()) {
-                    rowCount = rs.getLong(1);
-                } else {
-                    throw new RuntimeException("Missing result row");
-                }
-                return jsonProvider.createObjectBuilder().add("rowCount", rowCount).build();
-            }
+        try {
+            long rowCount = RowCounts.selectRowCount(connection, tableName);
+            return jsonProvider.createObjectBuilder().add("rowCount", rowCount).build();
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
-
-    private static String checkTableNameWrtSqlInjection(String tableName) {
-        if (tableName.chars().anyMatch(Character::isWhitespace)) {
-            throw new RuntimeException("Table name with whitespace not allowed (to prevent SQL injection)");
-        } else {
-            return tableName;
-        }
-    }
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import com.google.common.base.Preconditions;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeMicroVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.ipc.ArrowWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * {@link ResultSetWriter} writing Apache Arrow IPC, either in the streaming format or in the file format.
+ * The Arrow schema is derived from the result set metadata, so the output is typed per column, unlike JSON,
+ * XML and CSV output. Rows are collected in record batches of the given maximum size, so the result set is
+ * streamed rather than materialized in memory.
+ * <p>
+ * The column types map to Arrow types as follows: booleans to Bool, integral types to Int(64), floating point
+ * types to FloatingPoint(DOUBLE), decimals to Decimal(precision, scale) (or to Utf8 if the precision is not
+ * known or exceeds 38), dates to Date(DAY), times to Time(MICROSECOND), timestamps to Timestamp(MICROSECOND)
+ * (with time zone "UTC" for timestamps with time zone), binary types to Binary, and all other types to Utf8.
+ * <p>
+ * The vectors are allocated off-heap. Note that the Arrow memory module needs
+ * "--add-opens=java.base/java.nio=ALL-UNNAMED" at runtime. Without it, method {@link #write(ResultSet, OutputStream)}
+ * fails up front with an exception naming that JVM option, instead of failing inside Arrow (only once with a
+ * meaningful message, and with {@link NoClassDefFoundError} afterward).
+ *
+ * @author Chris de Vreeze
+ */
+public final class ArrowResultSetWriter implements ResultSetWriter {
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    private static final String REQUIRED_JVM_OPTION = "--add-opens=java.base/java.nio=ALL-UNNAMED";
+
+    private final boolean fileFormat;
+    private final int batchSize;
+
+    public ArrowResultSetWriter(boolean fileFormat, int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+
+        this.fileFormat = fileFormat;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long write(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        checkArrowMemoryAccess();
+
+        ResultSetMetaData metaData = rs.getMetaData();
+        RowEncoder rowEncoder = RowEncoder.from(metaData);
+        Schema schema = createSchema(rowEncoder, metaData);
+
+        try (BufferAllocator allocator = new RootAllocator();
+             VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator)) {
+            // The Arrow writer closes the channel, but the output stream is owned by the caller
+            WritableByteChannel channel = Channels.newChannel(new NonClosingOutputStream(out));
+
+            try (ArrowWriter writer = fileFormat ?
+                    new ArrowFileWriter(root, null, channel) :
+                    new ArrowStreamWriter(root, null, channel)) {
+                writer.start();
+                root.allocateNew();
+                VectorColumnValueWriter columnValueWriter = new VectorColumnValueWriter(root.getFieldVectors());
+
+                long rowCount = 0;
+                int batchRowCount = 0;
+                while (rs.next()) {
+                    columnValueWriter.setRowIndex(batchRowCount);
+                    rowEncoder.encodeRow(rs, columnValueWriter);
+                    batchRowCount += 1;
+                    rowCount += 1;
+
+                    if (batchRowCount == batchSize) {
+                        writeBatch(root, writer, batchRowCount);
+                        batchRowCount = 0;
+                    }
+                }
+                if (batchRowCount > 0) {
+                    writeBatch(root, writer, batchRowCount);
+                }
+                writer.end();
+                return rowCount;
+            }
+        }
+    }
+
+    /**
+     * Checks that Arrow can access the memory address of direct buffers, which it does by reflection.
+     */
+    private static void checkArrowMemoryAccess() {
+        if (!Buffer.class.getModule().isOpen(Buffer.class.getPackageName(), RootAllocator.class.getModule())) {
+            throw new IllegalStateException(String.format(
+                    "Arrow output requires JVM option '%s' (package %s is not open to Arrow)",
+                    REQUIRED_JVM_OPTION,
+                    Buffer.class.getPackageName()));
+        }
+    }
+
+    private static void writeBatch(VectorSchemaRoot root, ArrowWriter writer, int batchRowCount) throws IOException {
+        root.setRowCount(batchRowCount);
+        writer.writeBatch();
+        // Reusing the allocated buffers for the next batch
+        root.getFieldVectors().forEach(ValueVector::reset);
+    }
+
+    private static Schema createSchema(RowEncoder rowEncoder, ResultSetMetaData metaData) throws SQLException {
+        List<Field> fields = new ArrayList<>();
+        for (int i = 0; i < rowEncoder.getColumnCount(); i++) {
+            ArrowType arrowType = switch (rowEncoder.getColumnType(i)) {
+                case BOOLEAN -> ArrowType.Bool.INSTANCE;
+                case LONG -> new ArrowType.Int(64, true);
+                case DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+                case DECIMAL -> decimalType(metaData.getPrecision(i + 1), metaData.getScale(i + 1));
+                case DATE -> new ArrowType.Date(DateUnit.DAY);
+                case TIME -> new ArrowType.Time(TimeUnit.MICROSECOND, 64);
+                case TIMESTAMP -> new ArrowType.Timestamp(TimeUnit.MICROSECOND, null);
+                case TIMESTAMP_WITH_TIME_ZONE -> new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+                case BINARY -> ArrowType.Binary.INSTANCE;
+                case STRING -> ArrowType.Utf8.INSTANCE;
+            };
+            fields.add(Field.nullable(rowEncoder.getColumnLabel(i), arrowType));
+        }
+        return new Schema(fields);
+    }
+
+    private static ArrowType decimalType(int precision, int scale) {
+        if (precision >= 1 && precision <= MAX_DECIMAL_PRECISION && scale >= 0 && scale <= precision) {
+            return new ArrowType.Decimal(precision, scale, 128);
+        } else {
+            // Unconstrained numbers (e.g. Oracle NUMBER without precision) cannot be represented losslessly
+            return ArrowType.Utf8.INSTANCE;
+        }
+    }
+
+    private static long toEpochMicros(long epochSecond, int nano) {
+        return Math.addExact(Math.multiplyExact(epochSecond, 1_000_000L), nano / 1_000);
+    }
+
+    private static final class VectorColumnValueWriter implements ColumnValueWriter<RuntimeException> {
+
+        private final List<FieldVector> vectors;
+        private int rowIndex;
+
+        VectorColumnValueWriter(List<FieldVector> vectors) {
+            this.vectors = List.copyOf(vectors);
+        }
+
+        void setRowIndex(int rowIndex) {
+            this.rowIndex = rowIndex;
+        }
+
+        @Override
+        public void writeNull(int columnIndex) {
+            vectors.get(columnIndex).setNull(rowIndex);
+        }
+
+        @Override
+        public void writeString(int columnIndex, String value) {
+            ((VarCharVector) vectors.get(columnIndex)).setSafe(rowIndex, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeBoolean(int columnIndex, boolean value) {
+            ((BitVector) vectors.get(columnIndex)).setSafe(rowIndex, value ? 1 : 0);
+        }
+
+        @Override
+        public void writeLong(int columnIndex, long value) {
+            ((BigIntVector) vectors.get(columnIndex)).setSafe(rowIndex, value);
+        }
+
+        @Override
+        public void writeDouble(int columnIndex, double value) {
+            ((Float8Vector) vectors.get(columnIndex)).setSafe(rowIndex, value);
+        }
+
+        @Override
+        public void writeDecimal(int columnIndex, BigDecimal value) {
+            if (vectors.get(columnIndex) instanceof DecimalVector decimalVector) {
+                decimalVector.setSafe(rowIndex, value.setScale(decimalVector.getScale(), RoundingMode.HALF_UP));
+            } else {
+                writeString(columnIndex, value.toPlainString());
+            }
+        }
+
+        @Override
+        public void writeDate(int columnIndex, LocalDate value) {
+            ((DateDayVector) vectors.get(columnIndex)).setSafe(rowIndex, Math.toIntExact(value.toEpochDay()));
+        }
+
+        @Override
+        public void writeTime(int columnIndex, LocalTime value) {
+            ((TimeMicroVector) vectors.get(columnIndex)).setSafe(rowIndex, value.toNanoOfDay() / 1_000);
+        }
+
+        @Override
+        public void writeTimestamp(int columnIndex, LocalDateTime value) {
+            long micros = toEpochMicros(value.toEpochSecond(ZoneOffset.UTC), value.getNano());
+            ((TimeStampMicroVector) vectors.get(columnIndex)).setSafe(rowIndex, micros);
+        }
+
+        @Override
+        public void writeTimestampWithTimeZone(int columnIndex, OffsetDateTime value) {
+            long micros = toEpochMicros(value.toEpochSecond(), value.getNano());
+            ((TimeStampMicroTZVector) vectors.get(columnIndex)).setSafe(rowIndex, micros);
+        }
+
+        @Override
+        public void writeBytes(int columnIndex, byte[] value) {
+            ((VarBinaryVector) vectors.get(columnIndex)).setSafe(rowIndex, value);
+        }
+    }
+}
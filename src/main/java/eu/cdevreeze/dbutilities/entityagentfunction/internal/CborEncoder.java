@@ -0,0 +1,279 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Streaming encoder of CBOR (RFC 8949) data items, writing to an {@link OutputStream}. The caller is responsible
+ * for buffering, flushing and closing the output stream.
+ * <p>
+ * Besides the basic data items, it writes decimals as decimal fractions (tag 4), big integers as bignums (tags 2
+ * and 3), instants as epoch-based date/times (tag 1, with an integer or floating point number of seconds), and
+ * dates as full-date strings (tag 1004, RFC 8943). Doubles are written in single precision if that is lossless.
+ * Maps and arrays can be written with a known size or with indefinite length (terminated by {@link #writeBreak()}).
+ *
+ * @author Chris de Vreeze
+ */
+public final class CborEncoder {
+
+    private static final int MAJOR_TYPE_UNSIGNED_INT = 0;
+    private static final int MAJOR_TYPE_NEGATIVE_INT = 1;
+    private static final int MAJOR_TYPE_BYTE_STRING = 2;
+    private static final int MAJOR_TYPE_TEXT_STRING = 3;
+    private static final int MAJOR_TYPE_ARRAY = 4;
+    private static final int MAJOR_TYPE_MAP = 5;
+    private static final int MAJOR_TYPE_TAG = 6;
+
+    private static final int TAG_EPOCH_DATE_TIME = 1;
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+    private static final int TAG_FULL_DATE_STRING = 1004;
+
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int FLOAT32 = 0xfa;
+    private static final int FLOAT64 = 0xfb;
+    private static final int INDEFINITE_LENGTH = 0x1f;
+    private static final int BREAK = 0xff;
+
+    private final OutputStream out;
+    private final byte[] scratch = new byte[9];
+
+    public CborEncoder(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Returns the encoding of the given string as CBOR text string. Useful for map keys that are written many times.
+     */
+    public static byte[] encodeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length + 9);
+        try {
+            CborEncoder encoder = new CborEncoder(bos);
+            encoder.writeTypeAndArgument(MAJOR_TYPE_TEXT_STRING, bytes.length);
+            bos.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Writes the given bytes as-is, such as a data item encoded by {@link #encodeString(String)}.
+     */
+    public void writeEncoded(byte[] encodedDataItem) throws IOException {
+        out.write(encodedDataItem);
+    }
+
+    public void writeNull() throws IOException {
+        out.write(NULL);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        out.write(value ? TRUE : FALSE);
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (value >= 0) {
+            writeTypeAndArgument(MAJOR_TYPE_UNSIGNED_INT, value);
+        } else {
+            // The argument of a negative integer is -1 - value, which is ~value
+            writeTypeAndArgument(MAJOR_TYPE_NEGATIVE_INT, ~value);
+        }
+    }
+
+    public void writeBigInteger(BigInteger value) throws IOException {
+        if (value.bitLength() < Long.SIZE) {
+            writeLong(value.longValue());
+        } else if (value.bitLength() == Long.SIZE) {
+            // Still fits in the 64-bit argument, interpreted as unsigned
+            if (value.signum() >= 0) {
+                writeTypeAndArgument(MAJOR_TYPE_UNSIGNED_INT, value.longValue());
+            } else {
+                writeTypeAndArgument(MAJOR_TYPE_NEGATIVE_INT, value.not().longValue());
+            }
+        } else if (value.signum() >= 0) {
+            writeTag(TAG_POSITIVE_BIGNUM);
+            writeBytes(toUnsignedBytes(value));
+        } else {
+            writeTag(TAG_NEGATIVE_BIGNUM);
+            writeBytes(toUnsignedBytes(value.not()));
+        }
+    }
+
+    public void writeDouble(double value) throws IOException {
+        float floatValue = (float) value;
+        if (floatValue == value || Double.isNaN(value)) {
+            out.write(FLOAT32);
+            writeBigEndian(Float.floatToIntBits(floatValue), Integer.BYTES);
+        } else {
+            out.write(FLOAT64);
+            writeBigEndian(Double.doubleToLongBits(value), Long.BYTES);
+        }
+    }
+
+    /**
+     * Writes the given decimal as decimal fraction (tag 4), that is, as array of the exponent (the negated scale)
+     * and the mantissa (the unscaled value).
+     */
+    public void writeDecimal(BigDecimal value) throws IOException {
+        writeTag(TAG_DECIMAL_FRACTION);
+        writeArrayStart(2);
+        writeLong(-(long) value.scale());
+        writeBigInteger(value.unscaledValue());
+    }
+
+    public void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeTypeAndArgument(MAJOR_TYPE_TEXT_STRING, bytes.length);
+        out.write(bytes);
+    }
+
+    public void writeBytes(byte[] value) throws IOException {
+        writeTypeAndArgument(MAJOR_TYPE_BYTE_STRING, value.length);
+        out.write(value);
+    }
+
+    /**
+     * Writes the given instant as epoch-based date/time (tag 1). The number of seconds is an integer if there
+     * is no fractional second, and a double otherwise (which is precise up to microseconds for current dates).
+     */
+    public void writeInstant(Instant value) throws IOException {
+        writeTag(TAG_EPOCH_DATE_TIME);
+        if (value.getNano() == 0) {
+            writeLong(value.getEpochSecond());
+        } else {
+            out.write(FLOAT64);
+            double seconds = value.getEpochSecond() + value.getNano() / 1_000_000_000.0;
+            writeBigEndian(Double.doubleToLongBits(seconds), Long.BYTES);
+        }
+    }
+
+    /**
+     * Writes the given date as full-date string (tag 1004).
+     */
+    public void writeDate(LocalDate value) throws IOException {
+        writeTag(TAG_FULL_DATE_STRING);
+        writeString(value.toString());
+    }
+
+    public void writeArrayStart(int size) throws IOException {
+        writeTypeAndArgument(MAJOR_TYPE_ARRAY, size);
+    }
+
+    public void writeIndefiniteArrayStart() throws IOException {
+        out.write((MAJOR_TYPE_ARRAY << 5) | INDEFINITE_LENGTH);
+    }
+
+    public void writeMapStart(int size) throws IOException {
+        writeTypeAndArgument(MAJOR_TYPE_MAP, size);
+    }
+
+    public void writeIndefiniteMapStart() throws IOException {
+        out.write((MAJOR_TYPE_MAP << 5) | INDEFINITE_LENGTH);
+    }
+
+    /**
+     * Ends an indefinite-length array or map.
+     */
+    public void writeBreak() throws IOException {
+        out.write(BREAK);
+    }
+
+    public void writeTag(long tag) throws IOException {
+        writeTypeAndArgument(MAJOR_TYPE_TAG, tag);
+    }
+
+    /**
+     * Writes the given JSON value. JSON numbers are written as integers if they are integral, and as decimal
+     * fractions otherwise.
+     */
+    public void writeJsonValue(JsonValue value) throws IOException {
+        switch (value.getValueType()) {
+            case OBJECT -> {
+                JsonObject jsonObject = value.asJsonObject();
+                writeMapStart(jsonObject.size());
+                for (Map.Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+                    writeString(entry.getKey());
+                    writeJsonValue(entry.getValue());
+                }
+            }
+            case ARRAY -> {
+                JsonArray jsonArray = value.asJsonArray();
+                writeArrayStart(jsonArray.size());
+                for (JsonValue element : jsonArray) {
+                    writeJsonValue(element);
+                }
+            }
+            case STRING -> writeString(((JsonString) value).getString());
+            case NUMBER -> {
+                JsonNumber jsonNumber = (JsonNumber) value;
+                if (jsonNumber.isIntegral()) {
+                    writeBigInteger(jsonNumber.bigIntegerValueExact());
+                } else {
+                    writeDecimal(jsonNumber.bigDecimalValue());
+                }
+            }
+            case TRUE -> writeBoolean(true);
+            case FALSE -> writeBoolean(false);
+            case NULL -> writeNull();
+        }
+    }
+
+    private void writeTypeAndArgument(int majorType, long argument) throws IOException {
+        int initialByte = majorType << 5;
+        if (argument >= 0 && argument < 24) {
+            out.write(initialByte | (int) argument);
+        } else if (argument >= 0 && argument <= 0xffL) {
+            scratch[0] = (byte) (initialByte | 24);
+            scratch[1] = (byte) argument;
+            out.write(scratch, 0, 2);
+        } else if (argument >= 0 && argument <= 0xffffL) {
+            out.write(initialByte | 25);
+            writeBigEndian(argument, 2);
+        } else if (argument >= 0 && argument <= 0xffffffffL) {
+            out.write(initialByte | 26);
+            writeBigEndian(argument, 4);
+        } else {
+            // Also used for arguments of 2^63 and more (passed as negative long, interpreted as unsigned)
+            out.write(initialByte | 27);
+            writeBigEndian(argument, 8);
+        }
+    }
+
+    private void writeBigEndian(long value, int byteCount) throws IOException {
+        for (int i = 0; i < byteCount; i++) {
+            scratch[i] = (byte) (value >>> (8 * (byteCount - 1 - i)));
+        }
+        out.write(scratch, 0, byteCount);
+    }
+
+    private static byte[] toUnsignedBytes(BigInteger nonNegativeValue) {
+        byte[] bytes = nonNegativeValue.toByteArray();
+        // Dropping the sign byte, if any
+        return (bytes.length > 1 && bytes[0] == 0) ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+}
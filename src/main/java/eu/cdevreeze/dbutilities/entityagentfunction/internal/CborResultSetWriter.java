@@ -0,0 +1,128 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * {@link ResultSetWriter} writing CBOR (RFC 8949), with the same structure as the JSON query results: a map
+ * with key "rows", mapped to an (indefinite-length) array of maps from column labels to column values.
+ * <p>
+ * Unlike the JSON output, column values are written as native CBOR data items, read with typed accessors:
+ * integers, floating point numbers, decimal fractions, booleans, byte strings, epoch-based date/times (for
+ * timestamps with time zone) and full-date strings (for dates). Timestamps without time zone and times are
+ * written as ISO-8601 strings, because they do not denote an instant.
+ *
+ * @author Chris de Vreeze
+ */
+public final class CborResultSetWriter implements ResultSetWriter {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public long write(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+        // Not closing the buffered output stream, because that would close the output stream
+        OutputStream bufferedOut = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        CborEncoder encoder = new CborEncoder(bufferedOut);
+        CborColumnValueWriter columnValueWriter = new CborColumnValueWriter(rowEncoder, encoder);
+
+        encoder.writeMapStart(1);
+        encoder.writeString("rows");
+        encoder.writeIndefiniteArrayStart();
+
+        long rowCount = 0;
+        while (rs.next()) {
+            encoder.writeMapStart(rowEncoder.getColumnCount());
+            rowEncoder.encodeRow(rs, columnValueWriter);
+            rowCount += 1;
+        }
+        encoder.writeBreak();
+        bufferedOut.flush();
+        return rowCount;
+    }
+
+    private static final class CborColumnValueWriter implements ColumnValueWriter<IOException> {
+
+        private final CborEncoder encoder;
+        private final List<byte[]> encodedColumnLabels;
+
+        CborColumnValueWriter(RowEncoder rowEncoder, CborEncoder encoder) {
+            this.encoder = encoder;
+            this.encodedColumnLabels = rowEncoder.getColumnLabels().stream().map(CborEncoder::encodeString).toList();
+        }
+
+        private void writeKey(int columnIndex) throws IOException {
+            encoder.writeEncoded(encodedColumnLabels.get(columnIndex));
+        }
+
+        @Override
+        public void writeNull(int columnIndex) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeNull();
+        }
+
+        @Override
+        public void writeString(int columnIndex, String value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeString(value);
+        }
+
+        @Override
+        public void writeBoolean(int columnIndex, boolean value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeBoolean(value);
+        }
+
+        @Override
+        public void writeLong(int columnIndex, long value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeLong(value);
+        }
+
+        @Override
+        public void writeDouble(int columnIndex, double value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeDouble(value);
+        }
+
+        @Override
+        public void writeDecimal(int columnIndex, BigDecimal value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeDecimal(value);
+        }
+
+        @Override
+        public void writeDate(int columnIndex, LocalDate value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeDate(value);
+        }
+
+        @Override
+        public void writeTimestampWithTimeZone(int columnIndex, OffsetDateTime value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeInstant(value.toInstant());
+        }
+
+        @Override
+        public void writeBytes(int columnIndex, byte[] value) throws IOException {
+            writeKey(columnIndex);
+            encoder.writeBytes(value);
+        }
+    }
+}
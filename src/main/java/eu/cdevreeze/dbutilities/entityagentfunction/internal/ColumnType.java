@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * The kind of value of a result set column, as far as encoding it (in JSON, XML etc.) is concerned.
+ * Each column type corresponds to one typed {@link ResultSet} getter.
+ * <p>
+ * The column type is determined once per query from the {@link ResultSetMetaData}, instead of
+ * once per cell.
+ *
+ * @author Chris de Vreeze
+ */
+public enum ColumnType {
+
+    /**
+     * Boolean column, read with {@link ResultSet#getBoolean(int)}. BIT columns are only boolean columns if
+     * their precision is 1 (or unknown), so not for PostgreSQL bit(n) with n &gt; 1, for example.
+     */
+    BOOLEAN,
+
+    /**
+     * Integral number column that fits in a long, read with {@link ResultSet#getLong(int)}.
+     */
+    LONG,
+
+    /**
+     * Approximate number column, read with {@link ResultSet#getDouble(int)}.
+     */
+    DOUBLE,
+
+    /**
+     * Exact number column, read with {@link ResultSet#getBigDecimal(int)}.
+     */
+    DECIMAL,
+
+    /**
+     * Date column, read as {@link LocalDate}.
+     */
+    DATE,
+
+    /**
+     * Time column, read as {@link LocalTime}. Unlike {@link ResultSet#getTime(int)}, that keeps fractional seconds
+     * and does not depend on the JVM default time zone.
+     */
+    TIME,
+
+    /**
+     * Timestamp column without time zone, read as {@link LocalDateTime}. Unlike {@link ResultSet#getTimestamp(int)},
+     * that does not depend on the JVM default time zone, so timestamps in a DST gap are not shifted.
+     */
+    TIMESTAMP,
+
+    /**
+     * Timestamp column with time zone, read as {@link OffsetDateTime}.
+     */
+    TIMESTAMP_WITH_TIME_ZONE,
+
+    /**
+     * Binary column, read with {@link ResultSet#getBytes(int)}.
+     */
+    BINARY,
+
+    /**
+     * Any other column, read with {@link ResultSet#getString(int)}.
+     */
+    STRING;
+
+    /**
+     * The maximum precision of a NUMERIC or DECIMAL column without fraction digits whose values fit in a long.
+     */
+    private static final int MAX_LONG_PRECISION = 18;
+
+    /**
+     * Returns the column type of the given (1-based) column.
+     * <p>
+     * Note that Oracle reports all NUMBER columns as NUMERIC. Those without scale and with limited
+     * precision are treated as integral numbers.
+     */
+    public static ColumnType from(ResultSetMetaData rsMetaData, int column) throws SQLException {
+        return from(rsMetaData.getColumnType(column), rsMetaData.getPrecision(column), rsMetaData.getScale(column));
+    }
+
+    /**
+     * Returns the column type of a column with the given JDBC type (see {@link Types}), precision and scale, as
+     * found in the result set metadata or in the column metadata of a table.
+     */
+    public static ColumnType from(int jdbcType, int precision, int scale) {
+        return switch (jdbcType) {
+            case Types.BOOLEAN -> BOOLEAN;
+            case Types.BIT -> precision <= 1 ? BOOLEAN : STRING;
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> LONG;
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> DOUBLE;
+            case Types.NUMERIC, Types.DECIMAL -> isLongCompatible(precision, scale) ? LONG : DECIMAL;
+            case Types.DATE -> DATE;
+            case Types.TIME -> TIME;
+            case Types.TIMESTAMP -> TIMESTAMP;
+            case Types.TIMESTAMP_WITH_TIMEZONE -> TIMESTAMP_WITH_TIME_ZONE;
+            case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY -> BINARY;
+            default -> STRING;
+        };
+    }
+
+    private static boolean isLongCompatible(int precision, int scale) {
+        // Precision 0 means unknown precision, as in an Oracle NUMBER column without precision
+        return scale == 0 && precision > 0 && precision <= MAX_LONG_PRECISION;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+
+/**
+ * Consumer of the column values of one result set row, as encoded by a {@link RowEncoder}.
+ * Each method gets the 0-based column index and a value of the corresponding {@link ColumnType}.
+ * <p>
+ * By default, all non-string values are written as strings. Writers of formats that know about
+ * numbers, booleans etc. override the corresponding methods. The type parameter is the checked
+ * exception type thrown by the writer, if any. Temporal values are written in ISO-8601 format
+ * (always including seconds), and binary values in Base64.
+ *
+ * @author Chris de Vreeze
+ */
+public interface ColumnValueWriter<E extends Exception> {
+
+    void writeNull(int columnIndex) throws E;
+
+    void writeString(int columnIndex, String value) throws E;
+
+    default void writeBoolean(int columnIndex, boolean value) throws E {
+        writeString(columnIndex, Boolean.toString(value));
+    }
+
+    default void writeLong(int columnIndex, long value) throws E {
+        writeString(columnIndex, Long.toString(value));
+    }
+
+    default void writeDouble(int columnIndex, double value) throws E {
+        writeString(columnIndex, Double.toString(value));
+    }
+
+    default void writeDecimal(int columnIndex, BigDecimal value) throws E {
+        writeString(columnIndex, value.toPlainString());
+    }
+
+    default void writeDate(int columnIndex, LocalDate value) throws E {
+        writeString(columnIndex, value.toString());
+    }
+
+    default void writeTime(int columnIndex, LocalTime value) throws E {
+        writeString(columnIndex, DateTimeFormatter.ISO_LOCAL_TIME.format(value));
+    }
+
+    default void writeTimestamp(int columnIndex, LocalDateTime value) throws E {
+        writeString(columnIndex, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+    }
+
+    default void writeTimestampWithTimeZone(int columnIndex, OffsetDateTime value) throws E {
+        writeString(columnIndex, DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value));
+    }
+
+    default void writeBytes(int columnIndex, byte[] value) throws E {
+        writeString(columnIndex, Base64.getEncoder().encodeToString(value));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.sql;
+import jakarta.persistence.ConnectionConsumer;
+import jakarta.persistence.ConnectionFunction;
+
+/**
+ * Support for working with a JDBC {@link Connection}.
+ *
+ * @author Chris de Vreeze
+ */
+public class Connections {
+
+    private Connections() {
+    }
+
+    /**
+     * Calls the given function, making sure that auto-commit is off during the call. If auto-commit was on,
+     * it is turned off before the call, and turned on again afterwards.
+     * <p>
+     * Typically, auto-commit is already off, because the connection takes part in a transaction.
+     * Yet it is important to make sure that it is off, because the PostgreSQL JDBC driver only uses
+     * a server-side cursor, retrieving the result set in chunks of the fetch size, if auto-commit is off.
+     */
+    public static <T> T callWithoutAutoCommit(Connection connection, ConnectionFunction<Connection, T> function)
+            throws Exception {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            return function.apply(connection);
+        } finally {
+            if (autoCommit) {
+                // Turning on auto-commit again also commits the (read-only) work done so far
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Runs the given consumer, making sure that auto-commit is off during the call.
+     * See {@link #callWithoutAutoCommit(Connection, ConnectionFunction)}.
+     */
+    public static void runWithoutAutoCommit(Connection connection, ConnectionConsumer<Connection> consumer)
+            throws Exception {
+        callWithoutAutoCommit(connection, conn -> {
+            consumer.accept(conn);
+            return null;
+        });
+    }
+}
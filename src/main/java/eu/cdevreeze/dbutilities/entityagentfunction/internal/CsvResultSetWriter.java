@@ -0,0 +1,147 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * {@link ResultSetWriter} writing CSV, according to RFC 4180. The first record is the header, containing the
+ * column labels. Records are separated by CRLF.
+ * <p>
+ * Fields are only quoted if they contain a comma, double quote, CR or LF, and double quotes inside quoted
+ * fields are escaped by doubling them. SQL nulls are written as the configured null value (unquoted). Strings
+ * equal to the null value (such as empty strings, with the default null value) are always quoted, so they can be
+ * told apart from nulls.
+ * Column values are read with typed accessors, so numbers and dates are formatted without going through
+ * {@link ResultSet#getString(int)}. Dates and timestamps are written in ISO-8601 format.
+ *
+ * @author Chris de Vreeze
+ */
+public final class CsvResultSetWriter implements ResultSetWriter {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final String nullValue;
+
+    public CsvResultSetWriter(String nullValue) {
+        this.nullValue = nullValue;
+    }
+
+    @Override
+    public long write(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        CsvColumnValueWriter columnValueWriter = new CsvColumnValueWriter(writer, nullValue);
+
+        for (int i = 0; i < rowEncoder.getColumnCount(); i++) {
+            columnValueWriter.writeString(i, rowEncoder.getColumnLabel(i));
+        }
+        writer.write("\r\n");
+
+        long rowCount = 0;
+        while (rs.next()) {
+            rowEncoder.encodeRow(rs, columnValueWriter);
+            writer.write("\r\n");
+            rowCount += 1;
+        }
+        // Not closing the writer, because that would close the output stream
+        writer.flush();
+        return rowCount;
+    }
+
+    private static final class CsvColumnValueWriter implements ColumnValueWriter<IOException> {
+
+        private final Writer writer;
+        private final String nullValue;
+
+        CsvColumnValueWriter(Writer writer, String nullValue) {
+            this.writer = writer;
+            this.nullValue = nullValue;
+        }
+
+        private void writeSeparator(int columnIndex) throws IOException {
+            if (columnIndex > 0) {
+                writer.write(',');
+            }
+        }
+
+        @Override
+        public void writeNull(int columnIndex) throws IOException {
+            writeSeparator(columnIndex);
+            writer.write(nullValue);
+        }
+
+        @Override
+        public void writeString(int columnIndex, String value) throws IOException {
+            writeSeparator(columnIndex);
+            if (value.isEmpty()) {
+                // Distinguishing empty strings from nulls written as empty fields
+                writer.write("\"\"");
+            } else if (value.equals(nullValue) || needsQuoting(value)) {
+                // Strings equal to the null value are quoted, so they are not read back as nulls
+                writer.write('"');
+                int start = 0;
+                for (int i = 0; i < value.length(); i++) {
+                    if (value.charAt(i) == '"') {
+                        writer.write(value, start, i + 1 - start);
+                        writer.write('"');
+                        start = i + 1;
+                    }
+                }
+                writer.write(value, start, value.length() - start);
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+
+        @Override
+        public void writeBoolean(int columnIndex, boolean value) throws IOException {
+            writeSeparator(columnIndex);
+            writer.write(value ? "true" : "false");
+        }
+
+        @Override
+        public void writeLong(int columnIndex, long value) throws IOException {
+            writeSeparator(columnIndex);
+            writer.write(Long.toString(value));
+        }
+
+        @Override
+        public void writeDouble(int columnIndex, double value) throws IOException {
+            writeSeparator(columnIndex);
+            writer.write(Double.toString(value));
+        }
+
+        @Override
+        public void writeDecimal(int columnIndex, BigDecimal value) throws IOException {
+            writeSeparator(columnIndex);
+            writer.write(value.toPlainString());
+        }
+
+        private static boolean needsQuoting(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
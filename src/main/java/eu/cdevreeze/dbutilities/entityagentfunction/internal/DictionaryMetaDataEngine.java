@@ -0,0 +1,499 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import com.google.common.collect.ImmutableMap;
+import jakarta.json.JsonObject;
+import jakarta.json.spi.JsonProvider;
+
+/**
+ * {@link MetaDataEngine} querying the data dictionary of the database directly, instead of going through
+ * JDBC {@link DatabaseMetaData}. It supports Oracle (ALL_TABLES, ALL_VIEWS, ALL_TAB_COLS), Db2 LUW (SYSCAT.TABLES,
+ * SYSCAT.COLUMNS) and PostgreSQL (pg_catalog).
+ * <p>
+ * The dictionary queries return the same column labels as the corresponding {@link DatabaseMetaData} result sets,
+ * so the JSON output has the same shape as for the {@link JdbcMetaDataEngine}. The values are close to those
+ * returned by the JDBC drivers (e.g. the JDBC data types), but not necessarily identical in every detail.
+ * For PostgreSQL, only tables, partitioned tables, views, materialized views and foreign tables are returned.
+ * <p>
+ * On Oracle, column defaults are stored in a LONG column, and selecting a LONG column makes the driver fetch
+ * one row per round trip. Therefore, column defaults are retrieved with a separate query, only for the columns
+ * that have a default.
+ * <p>
+ * Change tokens are taken from ALL_OBJECTS.LAST_DDL_TIME on Oracle and from SYSCAT.TABLES.ALTER_TIME on Db2.
+ * PostgreSQL has no DDL timestamps, so there the change token is a hash of the catalog data of the table.
+ *
+ * @author Chris de Vreeze
+ */
+public final class DictionaryMetaDataEngine implements MetaDataEngine {
+
+    public enum Vendor {
+        ORACLE, DB2, POSTGRESQL;
+
+        /**
+         * Returns the vendor for the given database product name, if supported. Db2 for z/OS (whose product
+         * name is just "DB2") is not supported, because it has no SYSCAT schema.
+         */
+        public static Optional<Vendor> fromDatabaseProductName(String databaseProductName) {
+            if (databaseProductName.startsWith("Oracle")) {
+                return Optional.of(ORACLE);
+            } else if (databaseProductName.startsWith("DB2/")) {
+                return Optional.of(DB2);
+            } else if (databaseProductName.equals("PostgreSQL")) {
+                return Optional.of(POSTGRESQL);
+            } else {
+                return Optional.empty();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConverter {
+
+        JsonObject convert(ResultSet rs, JsonProvider jsonProvider) throws SQLException;
+    }
+
+    private record Query(String sql, List<String> parameters) {
+    }
+
+    // Dictionary queries return many rows, and the Oracle driver fetches only 10 rows per round trip by default
+    private static final QueryOptions QUERY_OPTIONS = new QueryOptions(1000);
+
+    private static final ImmutableMap<String, Integer> ORACLE_SQL_TYPES = ImmutableMap.<String, Integer>builder()
+            .put("CHAR", Types.CHAR)
+            .put("NCHAR", Types.NCHAR)
+            .put("VARCHAR2", Types.VARCHAR)
+            .put("NVARCHAR2", Types.NVARCHAR)
+            .put("NUMBER", Types.DECIMAL)
+            .put("FLOAT", Types.FLOAT)
+            .put("BINARY_FLOAT", 100) // Oracle-specific
+            .put("BINARY_DOUBLE", 101) // Oracle-specific
+            .put("LONG", Types.LONGVARCHAR)
+            .put("DATE", Types.TIMESTAMP)
+            .put("TIMESTAMP", Types.TIMESTAMP)
+            .put("TIMESTAMP WITH TIME ZONE", -101) // Oracle-specific
+            .put("TIMESTAMP WITH LOCAL TIME ZONE", -102) // Oracle-specific
+            .put("RAW", Types.VARBINARY)
+            .put("LONG RAW", Types.LONGVARBINARY)
+            .put("BLOB", Types.BLOB)
+            .put("CLOB", Types.CLOB)
+            .put("NCLOB", Types.NCLOB)
+            .put("ROWID", Types.ROWID)
+            .put("XMLTYPE", Types.SQLXML)
+            .put("BOOLEAN", Types.BOOLEAN)
+            .build();
+
+    private static final ImmutableMap<String, Integer> DB2_SQL_TYPES = ImmutableMap.<String, Integer>builder()
+            .put("SMALLINT", Types.SMALLINT)
+            .put("INTEGER", Types.INTEGER)
+            .put("BIGINT", Types.BIGINT)
+            .put("DECIMAL", Types.DECIMAL)
+            .put("REAL", Types.REAL)
+            .put("DOUBLE", Types.DOUBLE)
+            .put("CHARACTER", Types.CHAR)
+            .put("VARCHAR", Types.VARCHAR)
+            .put("LONG VARCHAR", Types.LONGVARCHAR)
+            .put("GRAPHIC", Types.CHAR)
+            .put("VARGRAPHIC", Types.VARCHAR)
+            .put("CLOB", Types.CLOB)
+            .put("DBCLOB", Types.CLOB)
+            .put("BLOB", Types.BLOB)
+            .put("BINARY", Types.BINARY)
+            .put("VARBINARY", Types.VARBINARY)
+            .put("DATE", Types.DATE)
+            .put("TIME", Types.TIME)
+            .put("TIMESTAMP", Types.TIMESTAMP)
+            .put("BOOLEAN", Types.BOOLEAN)
+            .put("XML", Types.SQLXML)
+            .build();
+
+    private static final ImmutableMap<String, Integer> POSTGRESQL_SQL_TYPES = ImmutableMap.<String, Integer>builder()
+            .put("bool", Types.BIT)
+            .put("int2", Types.SMALLINT)
+            .put("int4", Types.INTEGER)
+            .put("int8", Types.BIGINT)
+            .put("oid", Types.BIGINT)
+            .put("numeric", Types.NUMERIC)
+            .put("float4", Types.REAL)
+            .put("float8", Types.DOUBLE)
+            .put("bpchar", Types.CHAR)
+            .put("varchar", Types.VARCHAR)
+            .put("text", Types.VARCHAR)
+            .put("name", Types.VARCHAR)
+            .put("bytea", Types.BINARY)
+            .put("date", Types.DATE)
+            .put("time", Types.TIME)
+            .put("timetz", Types.TIME)
+            .put("timestamp", Types.TIMESTAMP)
+            .put("timestamptz", Types.TIMESTAMP)
+            .put("xml", Types.SQLXML)
+            .build();
+
+    private final Connection connection;
+    private final Vendor vendor;
+    private final JsonProvider jsonProvider;
+
+    public DictionaryMetaDataEngine(Connection connection, Vendor vendor, JsonProvider jsonProvider) {
+        this.connection = connection;
+        this.vendor = vendor;
+        this.jsonProvider = jsonProvider;
+    }
+
+    @Override
+    public List<JsonObject> getTables(Optional<String> schemaName, String tableNamePattern) throws SQLException {
+        Query query = switch (vendor) {
+            case ORACLE -> oracleTablesQuery(schemaName, tableNamePattern);
+            case DB2 -> db2TablesQuery(schemaName, tableNamePattern);
+            case POSTGRESQL -> postgresqlTablesQuery(schemaName, tableNamePattern);
+        };
+        return execute(query, MetaDataJson::table);
+    }
+
+    @Override
+    public List<JsonObject> getColumns(Optional<String> schemaName, String tableNamePattern) throws SQLException {
+        return switch (vendor) {
+            case ORACLE -> withOracleColumnDefaults(
+                    execute(oracleColumnsQuery(schemaName, tableNamePattern), MetaDataJson::column),
+                    schemaName,
+                    tableNamePattern
+            );
+            case DB2 -> execute(db2ColumnsQuery(schemaName, tableNamePattern), MetaDataJson::column);
+            case POSTGRESQL -> execute(postgresqlColumnsQuery(schemaName, tableNamePattern), MetaDataJson::column);
+        };
+    }
+
+    @Override
+    public Optional<List<TableChangeToken>> getChangeTokens(Optional<String> schemaName, String tableNamePattern)
+            throws SQLException {
+        Query query = switch (vendor) {
+            case ORACLE -> oracleChangeTokensQuery(schemaName, tableNamePattern);
+            case DB2 -> db2ChangeTokensQuery(schemaName, tableNamePattern);
+            case POSTGRESQL -> postgresqlChangeTokensQuery(schemaName, tableNamePattern);
+        };
+
+        try (PreparedStatement ps = prepare(query, QUERY_OPTIONS);
+             ResultSet rs = ps.executeQuery()) {
+            List<TableChangeToken> result = new ArrayList<>();
+            while (rs.next()) {
+                result.add(new TableChangeToken(rs.getString(1), rs.getString(2), rs.getString(3)));
+            }
+            return Optional.of(result);
+        }
+    }
+
+    private PreparedStatement prepare(Query query, QueryOptions queryOptions) throws SQLException {
+        PreparedStatement ps = PreparedStatements.prepareQuery(connection, query.sql(), queryOptions);
+        try {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                ps.setString(i + 1, query.parameters().get(i));
+            }
+            return ps;
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+    }
+
+    private List<JsonObject> execute(Query query, RowConverter rowConverter) throws SQLException {
+        try (PreparedStatement ps = prepare(query, QUERY_OPTIONS)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                List<JsonObject> result = new ArrayList<>();
+                while (rs.next()) {
+                    result.add(rowConverter.convert(rs, jsonProvider));
+                }
+                return result;
+            }
+        }
+    }
+
+    private List<JsonObject> withOracleColumnDefaults(
+            List<JsonObject> columns,
+            Optional<String> schemaName,
+            String tableNamePattern
+    ) throws SQLException {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select c.owner, c.table_name, c.column_name, c.data_default
+                  from all_tab_cols c
+                 where c.hidden_column = 'NO' and c.default_length > 0 %s
+                """.formatted(conditions("c.owner", "c.table_name", schemaName, tableNamePattern, parameters));
+
+        Map<List<String>, String> columnDefaults = new HashMap<>();
+        try (PreparedStatement ps = prepare(new Query(sql, parameters), QueryOptions.DEFAULT)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // Reading the LONG column last
+                    List<String> key = List.of(rs.getString(1), rs.getString(2), rs.getString(3));
+                    Optional.ofNullable(rs.getString(4)).ifPresent(v -> columnDefaults.put(key, v));
+                }
+            }
+        }
+
+        return columns.stream()
+                .map(column -> {
+                    List<String> key = List.of(
+                            column.getString("tableSchema"),
+                            column.getString("tableName"),
+                            column.getString("columnName")
+                    );
+                    return Optional.ofNullable(columnDefaults.get(key))
+                            .map(v -> jsonProvider.createObjectBuilder(column).add("columnDef", v).build())
+                            .orElse(column);
+                })
+                .toList();
+    }
+
+    private static Query oracleTablesQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select cast(null as varchar2(128)) as TABLE_CAT, t.owner as TABLE_SCHEM, t.table_name as TABLE_NAME,
+                       'TABLE' as TABLE_TYPE, tc.comments as REMARKS, cast(null as varchar2(128)) as TYPE_CAT,
+                       cast(null as varchar2(128)) as TYPE_SCHEM, cast(null as varchar2(128)) as TYPE_NAME
+                  from all_tables t
+                  left join all_tab_comments tc on tc.owner = t.owner and tc.table_name = t.table_name
+                 where t.dropped = 'NO' %s
+                union all
+                select cast(null as varchar2(128)), t.owner, t.view_name, 'VIEW', tc.comments,
+                       cast(null as varchar2(128)), cast(null as varchar2(128)), cast(null as varchar2(128))
+                  from all_views t
+                  left join all_tab_comments tc on tc.owner = t.owner and tc.table_name = t.view_name
+                 where 1 = 1 %s
+                 order by TABLE_TYPE, TABLE_SCHEM, TABLE_NAME
+                """.formatted(
+                conditions("t.owner", "t.table_name", schemaName, tableNamePattern, parameters),
+                conditions("t.owner", "t.view_name", schemaName, tableNamePattern, parameters)
+        );
+        return new Query(sql, parameters);
+    }
+
+    private static Query oracleColumnsQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select cast(null as varchar2(128)) as TABLE_CAT, c.owner as TABLE_SCHEM, c.table_name as TABLE_NAME,
+                       c.column_name as COLUMN_NAME, %s as DATA_TYPE, c.data_type as TYPE_NAME,
+                       case when c.data_type in ('CHAR', 'NCHAR', 'VARCHAR2', 'NVARCHAR2') then c.char_length
+                            when c.data_precision is not null then c.data_precision
+                            else c.data_length end as COLUMN_SIZE,
+                       c.data_scale as DECIMAL_DIGITS,
+                       case when c.data_type in ('NUMBER', 'FLOAT') then 10 end as NUM_PREC_RADIX,
+                       case c.nullable when 'N' then 0 else 1 end as NULLABLE,
+                       cc.comments as REMARKS,
+                       cast(null as varchar2(4000)) as COLUMN_DEF,
+                       case when c.data_type in ('CHAR', 'NCHAR', 'VARCHAR2', 'NVARCHAR2') then c.data_length end as CHAR_OCTET_LENGTH,
+                       c.column_id as ORDINAL_POSITION,
+                       case c.nullable when 'N' then 'NO' else 'YES' end as IS_NULLABLE,
+                       case c.identity_column when 'YES' then 'YES' else 'NO' end as IS_AUTOINCREMENT,
+                       case c.virtual_column when 'YES' then 'YES' else 'NO' end as IS_GENERATEDCOLUMN
+                  from all_tab_cols c
+                  left join all_col_comments cc
+                    on cc.owner = c.owner and cc.table_name = c.table_name and cc.column_name = c.column_name
+                 where c.hidden_column = 'NO' %s
+                 order by c.owner, c.table_name, c.column_id
+                """.formatted(
+                // Removing the precision from type names such as "TIMESTAMP(6) WITH TIME ZONE"
+                sqlTypeCase("regexp_replace(c.data_type, '\\(\\d+\\)', '')", ORACLE_SQL_TYPES),
+                conditions("c.owner", "c.table_name", schemaName, tableNamePattern, parameters)
+        );
+        return new Query(sql, parameters);
+    }
+
+    private static Query db2TablesQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select cast(null as varchar(128)) as TABLE_CAT, rtrim(t.tabschema) as TABLE_SCHEM, t.tabname as TABLE_NAME,
+                       case t.type when 'T' then 'TABLE' when 'V' then 'VIEW' when 'A' then 'ALIAS'
+                                   when 'S' then 'MATERIALIZED QUERY TABLE' when 'G' then 'GLOBAL TEMPORARY TABLE'
+                                   when 'N' then 'NICKNAME' when 'H' then 'HIERARCHY TABLE' else 'TABLE' end as TABLE_TYPE,
+                       t.remarks as REMARKS, cast(null as varchar(128)) as TYPE_CAT,
+                       cast(null as varchar(128)) as TYPE_SCHEM, cast(null as varchar(128)) as TYPE_NAME
+                  from syscat.tables t
+                 where 1 = 1 %s
+                 order by TABLE_TYPE, TABLE_SCHEM, TABLE_NAME
+                """.formatted(conditions("t.tabschema", "t.tabname", schemaName, tableNamePattern, parameters));
+        return new Query(sql, parameters);
+    }
+
+    private static Query db2ColumnsQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select cast(null as varchar(128)) as TABLE_CAT, rtrim(c.tabschema) as TABLE_SCHEM, c.tabname as TABLE_NAME,
+                       c.colname as COLUMN_NAME,
+                       case when c.codepage = 0 and c.typename = 'CHARACTER' then %d
+                            when c.codepage = 0 and c.typename = 'VARCHAR' then %d
+                            else %s end as DATA_TYPE,
+                       c.typename as TYPE_NAME,
+                       c.length as COLUMN_SIZE,
+                       case when c.typename in ('SMALLINT', 'INTEGER', 'BIGINT', 'DECIMAL', 'TIMESTAMP') then c.scale end as DECIMAL_DIGITS,
+                       case when c.typename in ('SMALLINT', 'INTEGER', 'BIGINT', 'DECIMAL') then 10
+                            when c.typename in ('REAL', 'DOUBLE') then 2 end as NUM_PREC_RADIX,
+                       case c.nulls when 'N' then 0 else 1 end as NULLABLE,
+                       c.remarks as REMARKS,
+                       c."DEFAULT" as COLUMN_DEF,
+                       case when c.typename in ('CHARACTER', 'VARCHAR', 'LONG VARCHAR', 'CLOB') then c.length end as CHAR_OCTET_LENGTH,
+                       c.colno + 1 as ORDINAL_POSITION,
+                       case c.nulls when 'N' then 'NO' else 'YES' end as IS_NULLABLE,
+                       case c.identity when 'Y' then 'YES' else 'NO' end as IS_AUTOINCREMENT,
+                       case when c.generated <> ' ' and c.identity <> 'Y' then 'YES' else 'NO' end as IS_GENERATEDCOLUMN
+                  from syscat.columns c
+                 where 1 = 1 %s
+                 order by c.tabschema, c.tabname, c.colno
+                """.formatted(
+                Types.BINARY,
+                Types.VARBINARY,
+                sqlTypeCase("c.typename", DB2_SQL_TYPES),
+                conditions("c.tabschema", "c.tabname", schemaName, tableNamePattern, parameters)
+        );
+        return new Query(sql, parameters);
+    }
+
+    private static Query postgresqlTablesQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select current_database() as TABLE_CAT, n.nspname as TABLE_SCHEM, c.relname as TABLE_NAME,
+                       case c.relkind when 'r' then 'TABLE' when 'p' then 'PARTITIONED TABLE' when 'v' then 'VIEW'
+                                      when 'm' then 'MATERIALIZED VIEW' when 'f' then 'FOREIGN TABLE' end as TABLE_TYPE,
+                       obj_description(c.oid, 'pg_class') as REMARKS, cast(null as text) as TYPE_CAT,
+                       cast(null as text) as TYPE_SCHEM, cast(null as text) as TYPE_NAME
+                  from pg_catalog.pg_class c
+                  join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+                 where c.relkind in ('r', 'p', 'v', 'm', 'f') %s
+                 order by TABLE_TYPE, TABLE_SCHEM, TABLE_NAME
+                """.formatted(conditions("n.nspname", "c.relname", schemaName, tableNamePattern, parameters));
+        return new Query(sql, parameters);
+    }
+
+    private static Query postgresqlColumnsQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        // Domains are described by their base type
+        String sql = """
+                select current_database() as TABLE_CAT, n.nspname as TABLE_SCHEM, c.relname as TABLE_NAME,
+                       a.attname as COLUMN_NAME,
+                       case when t.typcategory = 'A' then %d else %s end as DATA_TYPE,
+                       t.typname as TYPE_NAME,
+                       case coalesce(bt.typname, t.typname)
+                            when 'varchar' then case when a.atttypmod > 0 then a.atttypmod - 4 else 2147483647 end
+                            when 'bpchar' then case when a.atttypmod > 0 then a.atttypmod - 4 else 1 end
+                            when 'numeric' then case when a.atttypmod > 0 then ((a.atttypmod - 4) >> 16) & 65535 else 1000 end
+                            when 'int2' then 5 when 'int4' then 10 when 'int8' then 19
+                            when 'float4' then 8 when 'float8' then 17 when 'bool' then 1 when 'date' then 13
+                            when 'time' then 15 when 'timetz' then 21 when 'timestamp' then 29 when 'timestamptz' then 35
+                            else 2147483647 end as COLUMN_SIZE,
+                       case when coalesce(bt.typname, t.typname) = 'numeric'
+                                 then case when a.atttypmod > 0 then (a.atttypmod - 4) & 65535 else 0 end
+                            when coalesce(bt.typname, t.typname) in ('int2', 'int4', 'int8') then 0
+                            when coalesce(bt.typname, t.typname) in ('time', 'timetz', 'timestamp', 'timestamptz')
+                                 then case when a.atttypmod >= 0 then a.atttypmod else 6 end
+                            end as DECIMAL_DIGITS,
+                       case when coalesce(bt.typname, t.typname) in ('int2', 'int4', 'int8', 'numeric', 'float4', 'float8')
+                            then 10 end as NUM_PREC_RADIX,
+                       case when a.attnotnull then 0 else 1 end as NULLABLE,
+                       col_description(c.oid, a.attnum) as REMARKS,
+                       pg_get_expr(d.adbin, d.adrelid) as COLUMN_DEF,
+                       case when coalesce(bt.typname, t.typname) in ('varchar', 'bpchar') and a.atttypmod > 0 then a.atttypmod - 4
+                            when coalesce(bt.typname, t.typname) in ('varchar', 'text') then 2147483647 end as CHAR_OCTET_LENGTH,
+                       a.attnum as ORDINAL_POSITION,
+                       case when a.attnotnull then 'NO' else 'YES' end as IS_NULLABLE,
+                       case when a.attidentity in ('a', 'd') or pg_get_expr(d.adbin, d.adrelid) like 'nextval(%%'
+                            then 'YES' else 'NO' end as IS_AUTOINCREMENT,
+                       case when a.attgenerated = 's' then 'YES' else 'NO' end as IS_GENERATEDCOLUMN
+                  from pg_catalog.pg_attribute a
+                  join pg_catalog.pg_class c on c.oid = a.attrelid
+                  join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+                  join pg_catalog.pg_type t on t.oid = a.atttypid
+                  left join pg_catalog.pg_type bt on t.typtype = 'd' and bt.oid = t.typbasetype
+                  left join pg_catalog.pg_attrdef d on d.adrelid = a.attrelid and d.adnum = a.attnum
+                 where a.attnum > 0 and not a.attisdropped and c.relkind in ('r', 'p', 'v', 'm', 'f') %s
+                 order by n.nspname, c.relname, a.attnum
+                """.formatted(
+                Types.ARRAY,
+                sqlTypeCase("coalesce(bt.typname, t.typname)", POSTGRESQL_SQL_TYPES),
+                conditions("n.nspname", "c.relname", schemaName, tableNamePattern, parameters)
+        );
+        return new Query(sql, parameters);
+    }
+
+    private static Query oracleChangeTokensQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select o.owner, o.object_name, to_char(o.last_ddl_time, 'YYYY-MM-DD"T"HH24:MI:SS')
+                  from all_objects o
+                 where o.object_type in ('TABLE', 'VIEW') %s
+                """.formatted(conditions("o.owner", "o.object_name", schemaName, tableNamePattern, parameters));
+        return new Query(sql, parameters);
+    }
+
+    private static Query db2ChangeTokensQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        String sql = """
+                select rtrim(t.tabschema), t.tabname, char(t.alter_time)
+                  from syscat.tables t
+                 where 1 = 1 %s
+                """.formatted(conditions("t.tabschema", "t.tabname", schemaName, tableNamePattern, parameters));
+        return new Query(sql, parameters);
+    }
+
+    private static Query postgresqlChangeTokensQuery(Optional<String> schemaName, String tableNamePattern) {
+        List<String> parameters = new ArrayList<>();
+        // PostgreSQL does not record DDL times, so hashing the catalog data that ends up in the table metadata
+        String sql = """
+                select n.nspname, c.relname,
+                       md5(concat_ws('|', c.relkind, obj_description(c.oid, 'pg_class'),
+                           (select string_agg(concat_ws(':', a.attnum, a.attname, a.atttypid, a.atttypmod, a.attnotnull,
+                                                        a.attidentity, a.attgenerated, pg_get_expr(d.adbin, d.adrelid),
+                                                        col_description(c.oid, a.attnum)), ',' order by a.attnum)
+                              from pg_catalog.pg_attribute a
+                              left join pg_catalog.pg_attrdef d on d.adrelid = a.attrelid and d.adnum = a.attnum
+                             where a.attrelid = c.oid and a.attnum > 0 and not a.attisdropped)))
+                  from pg_catalog.pg_class c
+                  join pg_catalog.pg_namespace n on n.oid = c.relnamespace
+                 where c.relkind in ('r', 'p', 'v', 'm', 'f') %s
+                """.formatted(conditions("n.nspname", "c.relname", schemaName, tableNamePattern, parameters));
+        return new Query(sql, parameters);
+    }
+
+    /**
+     * Returns the additional where-conditions on schema (if any) and table name pattern, adding the
+     * corresponding parameters. The backslash is used as escape character, like most JDBC drivers do.
+     */
+    private static String conditions(
+            String schemaColumn,
+            String tableNameColumn,
+            Optional<String> schemaName,
+            String tableNamePattern,
+            List<String> parameters
+    ) {
+        StringBuilder sb = new StringBuilder();
+        if (schemaName.isPresent()) {
+            sb.append(" and ").append(schemaColumn).append(" = ?");
+            parameters.add(schemaName.get());
+        }
+        sb.append(" and ").append(tableNameColumn).append(" like ? escape '\\'");
+        parameters.add(tableNamePattern);
+        return sb.toString();
+    }
+
+    /**
+     * Returns a SQL case expression mapping vendor type names to JDBC types, and other types to {@link Types#OTHER}.
+     */
+    private static String sqlTypeCase(String typeNameExpression, Map<String, Integer> sqlTypes) {
+        return sqlTypes.entrySet().stream()
+                .map(e -> String.format("when '%s' then %d", e.getKey(), e.getValue()))
+                .collect(Collectors.joining(" ", "case " + typeNameExpression + " ", " else " + Types.OTHER + " end"));
+    }
+}
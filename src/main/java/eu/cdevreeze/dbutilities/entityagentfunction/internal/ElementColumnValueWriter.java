@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.xml;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.Element;
+import eu.cdevreeze.yaidom4j.dom.immutabledom.Nodes;
+
+/**
+ * {@link ColumnValueWriter} that collects the column values of one row as yaidom4j {@link Element} instances.
+ * The element name is the column label. SQL nulls are represented as empty elements with attribute "null"
+ * set to "true".
+ *
+ * @author Chris de Vreeze
+ */
+public final class ElementColumnValueWriter implements ColumnValueWriter<RuntimeException> {
+
+    private static final ImmutableMap<QName, String> NULL_ATTRIBUTES = ImmutableMap.of(new QName("null"), "true");
+
+    private final List<QName> columnNames;
+    private final ImmutableList.Builder<Element> columnElements = ImmutableList.builder();
+
+    /**
+     * Constructor. The column names are the QNames of the column labels, and are typically computed only
+     * once per query.
+     */
+    public ElementColumnValueWriter(List<QName> columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    @Override
+    public void writeNull(int columnIndex) {
+        columnElements.add(Nodes.elem(columnNames.get(columnIndex)).withAttributes(NULL_ATTRIBUTES));
+    }
+
+    @Override
+    public void writeString(int columnIndex, String value) {
+        columnElements.add(Nodes.elem(columnNames.get(columnIndex)).plusChild(Nodes.text(value)));
+    }
+
+    public ImmutableList<Element> getColumnElements() {
+        return columnElements.build();
+    }
+}
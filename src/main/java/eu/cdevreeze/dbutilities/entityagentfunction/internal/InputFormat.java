@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+
+/**
+ * Format of input files containing records, such as parameter tuples or rows to load.
+ *
+ * @author Chris de Vreeze
+ */
+public enum InputFormat {
+
+    /**
+     * Newline-delimited JSON, with one JSON object or JSON array per line.
+     */
+    NDJSON,
+
+    /**
+     * CSV according to RFC 4180, with a header containing the field names.
+     */
+    CSV;
+
+    /**
+     * Returns the input format with the given name, ignoring case.
+     */
+    public static InputFormat parse(String name) {
+        return InputFormat.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Returns the input format implied by the extension of the given file name: CSV for ".csv", and NDJSON otherwise.
+     */
+    public static InputFormat fromFileName(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+
+/**
+ * Reader of input records from a file in an {@link InputFormat}, such as the output of this tool in NDJSON or CSV
+ * format. Each record is returned as a {@link JsonObject}, whose members are in the order of the input.
+ * <p>
+ * For CSV (RFC 4180), the member names are taken from the header, and the values are JSON strings. Unquoted fields
+ * equal to the configured null value become JSON nulls, just like {@link CsvResultSetWriter} writes SQL nulls.
+ * An empty line is a record with one empty field, so that a single-column CSV file can contain nulls (or empty
+ * strings). Only an empty line at the end of the file is ignored, unless the CSV has a single column.
+ * For NDJSON, lines containing JSON objects are returned as-is, and lines containing JSON arrays are turned
+ * into JSON objects whose member names are the 1-based positions ("1", "2" etc.). Empty lines are skipped.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Chris de Vreeze
+ */
+public final class InputRecordReader implements Closeable {
+
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final InputFormat inputFormat;
+    private final String csvNullValue;
+    private final JsonProvider jsonProvider;
+    private final List<String> csvHeader;
+
+    private InputRecordReader(BufferedReader reader, InputFormat inputFormat, String csvNullValue) throws IOException {
+        this.reader = reader;
+        this.inputFormat = inputFormat;
+        this.csvNullValue = csvNullValue;
+        this.jsonProvider = JsonProvider.provider();
+        this.csvHeader = (inputFormat == InputFormat.CSV) ?
+                readCsvRecord(true).map(fields -> fields.stream().map(CsvField::value).toList()).orElse(List.of()) :
+                List.of();
+    }
+
+    public static InputRecordReader open(Path file, InputFormat inputFormat, String csvNullValue) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8),
+                INPUT_BUFFER_SIZE
+        );
+        try {
+            return new InputRecordReader(reader, inputFormat, csvNullValue);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the next record, if any.
+     */
+    public Optional<JsonObject> read() throws IOException {
+        return switch (inputFormat) {
+            case NDJSON -> readNdjsonRecord();
+            case CSV -> readCsvRecord(csvHeader.size() != 1).map(this::toJsonObject);
+        };
+    }
+
+    /**
+     * Reads all (remaining) records into a list.
+     */
+    public List<JsonObject> readAll() throws IOException {
+        List<JsonObject> result = new ArrayList<>();
+        Optional<JsonObject> recordOption = read();
+        while (recordOption.isPresent()) {
+            result.add(recordOption.get());
+            recordOption = read();
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Converts the given JSON value to a string as SQL parameter value, returning an empty Optional for JSON null.
+     * JSON strings are returned without quotes, and other values as JSON text.
+     */
+    public static Optional<String> toParameterValue(JsonValue jsonValue) {
+        return switch (jsonValue.getValueType()) {
+            case NULL -> Optional.empty();
+            case STRING -> Optional.of(((JsonString) jsonValue).getString());
+            default -> Optional.of(jsonValue.toString());
+        };
+    }
+
+    private Optional<JsonObject> readNdjsonRecord() throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isBlank()) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return Optional.empty();
+        }
+
+        JsonValue jsonValue = jsonProvider.createReader(new StringReader(line)).readValue();
+        return switch (jsonValue) {
+            case JsonObject jsonObject -> Optional.of(jsonObject);
+            case JsonArray jsonArray -> {
+                JsonObjectBuilder builder = jsonProvider.createObjectBuilder();
+                for (int i = 0; i < jsonArray.size(); i++) {
+                    builder.add(String.valueOf(i + 1), jsonArray.get(i));
+                }
+                yield Optional.of(builder.build());
+            }
+            default -> throw new IllegalArgumentException("Expected JSON object or array, but got: " + line);
+        };
+    }
+
+    private JsonObject toJsonObject(List<CsvField> fields) {
+        if (fields.size() != csvHeader.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected %d CSV fields, but got %d", csvHeader.size(), fields.size()));
+        }
+
+        JsonObjectBuilder builder = jsonProvider.createObjectBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            CsvField field = fields.get(i);
+            if (!field.quoted() && field.value().equals(csvNullValue)) {
+                builder.addNull(csvHeader.get(i));
+            } else {
+                builder.add(csvHeader.get(i), field.value());
+            }
+        }
+        return builder.build();
+    }
+
+    private record CsvField(String value, boolean quoted) {
+    }
+
+    /**
+     * Reads one CSV record, which may span multiple lines if quoted fields contain line breaks.
+     * Records may be separated by CRLF or LF. An empty line is a record with one empty field, unless it is
+     * the last line of the input and parameter skipTrailingEmptyLine is true.
+     */
+    private Optional<List<CsvField>> readCsvRecord(boolean skipTrailingEmptyLine) throws IOException {
+        int c = reader.read();
+        if (skipTrailingEmptyLine && (c == '\r' || c == '\n')) {
+            reader.mark(2);
+            int next = reader.read();
+            if (c == '\r' && next == '\n') {
+                next = reader.read();
+            }
+            if (next < 0) {
+                return Optional.empty();
+            }
+            reader.reset();
+        }
+        if (c < 0) {
+            return Optional.empty();
+        }
+
+        List<CsvField> fields = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        while (true) {
+            if (inQuotes) {
+                if (c < 0) {
+                    throw new EOFException("Unterminated quoted CSV field");
+                } else if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == '"' && value.isEmpty() && !quoted) {
+                quoted = true;
+                inQuotes = true;
+            } else if (c == ',' || c == '\r' || c == '\n' || c < 0) {
+                fields.add(new CsvField(value.toString(), quoted));
+                value.setLength(0);
+                quoted = false;
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (c != ',') {
+                    return Optional.of(List.copyOf(fields));
+                }
+            } else {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
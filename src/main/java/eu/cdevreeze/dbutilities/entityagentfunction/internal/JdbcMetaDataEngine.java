@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import jakarta.json.JsonObject;
+import jakarta.json.spi.JsonProvider;
+
+/**
+ * {@link MetaDataEngine} using JDBC {@link DatabaseMetaData}. It works for all databases, but can be slow.
+ *
+ * @author Chris de Vreeze
+ */
+public final class JdbcMetaDataEngine implements MetaDataEngine {
+
+    private final Connection connection;
+    private final JsonProvider jsonProvider;
+
+    public JdbcMetaDataEngine(Connection connection, JsonProvider jsonProvider) {
+        this.connection = connection;
+        this.jsonProvider = jsonProvider;
+    }
+
+    @Override
+    public List<JsonObject> getTables(Optional<String> schemaName, String tableNamePattern) throws SQLException {
+        List<JsonObject> result = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getTables(null, schemaName.orElse(null), tableNamePattern, null)) {
+            while (rs.next()) {
+                result.add(MetaDataJson.table(rs, jsonProvider));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<JsonObject> getColumns(Optional<String> schemaName, String tableNamePattern) throws SQLException {
+        List<JsonObject> result = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getColumns(null, schemaName.orElse(null), tableNamePattern, null)) {
+            while (rs.next()) {
+                result.add(MetaDataJson.column(rs, jsonProvider));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<List<TableChangeToken>> getChangeTokens(Optional<String> schemaName, String tableNamePattern) {
+        // JDBC metadata offers no cheap way to detect DDL changes
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * {@link ColumnValueWriter} that writes each column value as JSON object member to a {@link JsonGenerator}.
+ * Numbers and booleans are written as JSON numbers and booleans, respectively.
+ * <p>
+ * The JSON generator must be inside a JSON object when writing a row.
+ *
+ * @author Chris de Vreeze
+ */
+public final class JsonGeneratorColumnValueWriter implements ColumnValueWriter<RuntimeException> {
+
+    private final RowEncoder rowEncoder;
+    private final JsonGenerator jsonGenerator;
+
+    public JsonGeneratorColumnValueWriter(RowEncoder rowEncoder, JsonGenerator jsonGenerator) {
+        this.rowEncoder = rowEncoder;
+        this.jsonGenerator = jsonGenerator;
+    }
+
+    @Override
+    public void writeNull(int columnIndex) {
+        jsonGenerator.writeNull(rowEncoder.getColumnLabel(columnIndex));
+    }
+
+    @Override
+    public void writeString(int columnIndex, String value) {
+        jsonGenerator.write(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+
+    @Override
+    public void writeBoolean(int columnIndex, boolean value) {
+        jsonGenerator.write(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+
+    @Override
+    public void writeLong(int columnIndex, long value) {
+        jsonGenerator.write(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+
+    @Override
+    public void writeDouble(int columnIndex, double value) {
+        // JSON has no representation of NaN and infinity as numbers
+        if (Double.isFinite(value)) {
+            jsonGenerator.write(rowEncoder.getColumnLabel(columnIndex), value);
+        } else {
+            writeString(columnIndex, Double.toString(value));
+        }
+    }
+
+    @Override
+    public void writeDecimal(int columnIndex, BigDecimal value) {
+        jsonGenerator.write(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import jakarta.json.JsonObjectBuilder;
+
+/**
+ * {@link ColumnValueWriter} that adds each column value as JSON object member to a {@link JsonObjectBuilder}.
+ * Numbers and booleans are added as JSON numbers and booleans, respectively.
+ *
+ * @author Chris de Vreeze
+ */
+public final class JsonObjectBuilderColumnValueWriter implements ColumnValueWriter<RuntimeException> {
+
+    private final RowEncoder rowEncoder;
+    private final JsonObjectBuilder jsonObjectBuilder;
+
+    public JsonObjectBuilderColumnValueWriter(RowEncoder rowEncoder, JsonObjectBuilder jsonObjectBuilder) {
+        this.rowEncoder = rowEncoder;
+        this.jsonObjectBuilder = jsonObjectBuilder;
+    }
+
+    @Override
+    public void writeNull(int columnIndex) {
+        jsonObjectBuilder.addNull(rowEncoder.getColumnLabel(columnIndex));
+    }
+
+    @Override
+    public void writeString(int columnIndex, String value) {
+        jsonObjectBuilder.add(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+
+    @Override
+    public void writeBoolean(int columnIndex, boolean value) {
+        jsonObjectBuilder.add(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+
+    @Override
+    public void writeLong(int columnIndex, long value) {
+        jsonObjectBuilder.add(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+
+    @Override
+    public void writeDouble(int columnIndex, double value) {
+        // JSON has no representation of NaN and infinity as numbers
+        if (Double.isFinite(value)) {
+            jsonObjectBuilder.add(rowEncoder.getColumnLabel(columnIndex), value);
+        } else {
+            writeString(columnIndex, Double.toString(value));
+        }
+    }
+
+    @Override
+    public void writeDecimal(int columnIndex, BigDecimal value) {
+        jsonObjectBuilder.add(rowEncoder.getColumnLabel(columnIndex), value);
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import com.google.common.base.Preconditions;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonWriter;
+import jakarta.json.spi.JsonProvider;
+import java.time.Duration;
+
+/**
+ * On-disk cache of table and column metadata of one data source, with an in-memory layer on top of it.
+ * Each cache entry holds the result of one metadata lookup, i.e. the tables and columns for an optional schema
+ * name and a table name pattern, and is stored as a JSON file in the cache directory.
+ * <p>
+ * Cache entries that have been validated against the database less than the maximum age ago are returned
+ * without any database round trip. Older entries are validated using the change tokens of the
+ * {@link MetaDataEngine}, which is a cheap dictionary query, and only re-fetched if the change tokens differ.
+ * If the metadata engine offers no change tokens (e.g. for databases other than Oracle, Db2 and PostgreSQL),
+ * entries older than the maximum age are always re-fetched.
+ * <p>
+ * This class is thread-safe. Concurrent writers of the same entry do not corrupt it, because entries are written
+ * atomically; the last writer wins.
+ *
+ * @author Chris de Vreeze
+ */
+public final class MetaDataCache {
+
+    /**
+     * Key of a cache entry, where the table name pattern is a SQL LIKE pattern, as in {@link MetaDataEngine}.
+     */
+    public record Key(Optional<String> schemaName, String tableNamePattern) {
+    }
+
+    public record Entry(String changeToken, Instant validatedAt, List<JsonObject> tables, List<JsonObject> columns) {
+
+        public Entry withValidatedAt(Instant newValidatedAt) {
+            return new Entry(changeToken, newValidatedAt, tables, columns);
+        }
+    }
+
+    public record RefreshResult(List<String> unchanged, List<String> refreshed, List<String> removed) {
+    }
+
+    // Above this number of changed tables, a schema refresh fetches the metadata of all tables at once
+    private static final int MAX_CHANGED_TABLES_TO_FETCH_SEPARATELY = 10;
+
+    private static final String ALL_SCHEMAS_DIRECTORY_NAME = "all-schemas";
+    private static final String SCHEMA_DIRECTORY_PREFIX = "schema-";
+    private static final String ENTRY_FILE_PREFIX = "table-";
+    private static final String ENTRY_FILE_SUFFIX = ".json";
+
+    private final Path dataSourceDirectory;
+    private final Duration maxAge;
+    private final JsonProvider jsonProvider;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public MetaDataCache(Path cacheDirectory, String dataSourceName, Duration maxAge) {
+        Preconditions.checkArgument(!maxAge.isNegative(), "Negative maximum age not allowed");
+
+        this.dataSourceDirectory = cacheDirectory.resolve(encode(dataSourceName));
+        this.maxAge = maxAge;
+        this.jsonProvider = JsonProvider.provider();
+    }
+
+    /**
+     * Returns the cache entry for the given key, if it exists and has been validated less than the maximum age ago.
+     * This method never accesses the database.
+     */
+    public Optional<Entry> getFresh(Key key) {
+        Instant now = Instant.now();
+        return get(key).filter(entry -> entry.validatedAt().plus(maxAge).isAfter(now));
+    }
+
+    /**
+     * Returns the cache entry for the given key, validating it first if needed, and fetching the metadata
+     * if there is no valid cache entry.
+     */
+    public Entry getValidated(Key key, MetaDataEngine metaDataEngine) throws SQLException {
+        Optional<Entry> freshEntry = getFresh(key);
+        if (freshEntry.isPresent()) {
+            return freshEntry.get();
+        }
+
+        // Retrieving the change token before the metadata itself, so a concurrent DDL change is detected next time
+        Optional<String> changeToken = metaDataEngine.getChangeTokens(key.schemaName(), key.tableNamePattern())
+                .map(MetaDataCache::combineChangeTokens);
+        Instant now = Instant.now();
+
+        Optional<Entry> validEntry = get(key)
+                .filter(entry -> changeToken.isPresent() && entry.changeToken().equals(changeToken.get()));
+        Entry entry = validEntry.isPresent() ?
+                validEntry.get().withValidatedAt(now) :
+                new Entry(
+                        changeToken.orElse(""),
+                        now,
+                        metaDataEngine.getTables(key.schemaName(), key.tableNamePattern()),
+                        metaDataEngine.getColumns(key.schemaName(), key.tableNamePattern())
+                );
+        put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Refreshes the cache entries of the tables in the given schema (matching the given table name pattern),
+     * keyed by schema name and table name. Only the tables whose change token differs from the cached one are
+     * re-fetched, and entries of tables that no longer exist are removed.
+     */
+    public RefreshResult refreshSchema(String schemaName, String tableNamePattern, MetaDataEngine metaDataEngine)
+            throws SQLException {
+        Optional<List<TableChangeToken>> changeTokensOption =
+                metaDataEngine.getChangeTokens(Optional.of(schemaName), tableNamePattern);
+        // Without change tokens, all tables count as changed
+        List<TableChangeToken> changeTokens = changeTokensOption.isPresent() ?
+                changeTokensOption.get() :
+                metaDataEngine.getTables(Optional.of(schemaName), tableNamePattern).stream()
+                        .map(table -> new TableChangeToken(schemaName, table.getString("tableName"), ""))
+                        .toList();
+        Instant now = Instant.now();
+
+        // Table names used as LIKE pattern may match other tables as well, which must be reflected in the entries
+        SortedMap<String, String> newChangeTokens = new TreeMap<>();
+        for (TableChangeToken changeToken : changeTokens) {
+            Predicate<String> tableNameMatcher = likePatternMatcher(changeToken.tableName());
+            List<TableChangeToken> matchingChangeTokens = changeTokens.stream()
+                    .filter(t -> tableNameMatcher.test(t.tableName()))
+                    .toList();
+            newChangeTokens.put(
+                    changeToken.tableName(),
+                    changeTokensOption.isPresent() ? combineChangeTokens(matchingChangeTokens) : ""
+            );
+        }
+
+        List<String> unchanged = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> newChangeToken : newChangeTokens.entrySet()) {
+            Key key = new Key(Optional.of(schemaName), newChangeToken.getKey());
+            Optional<Entry> cachedEntry = get(key);
+            if (!newChangeToken.getValue().isEmpty() &&
+                    cachedEntry.map(Entry::changeToken).filter(newChangeToken.getValue()::equals).isPresent()) {
+                put(key, cachedEntry.get().withValidatedAt(now));
+                unchanged.add(newChangeToken.getKey());
+            } else {
+                changed.add(newChangeToken.getKey());
+            }
+        }
+
+        if (changed.size() > MAX_CHANGED_TABLES_TO_FETCH_SEPARATELY) {
+            List<JsonObject> tables = metaDataEngine.getTables(Optional.of(schemaName), tableNamePattern);
+            List<JsonObject> columns = metaDataEngine.getColumns(Optional.of(schemaName), tableNamePattern);
+            for (String tableName : changed) {
+                Predicate<String> tableNameMatcher = likePatternMatcher(tableName);
+                put(
+                        new Key(Optional.of(schemaName), tableName),
+                        new Entry(
+                                newChangeTokens.get(tableName),
+                                now,
+                                tables.stream().filter(t -> tableNameMatcher.test(t.getString("tableName"))).toList(),
+                                columns.stream().filter(c -> tableNameMatcher.test(c.getString("tableName"))).toList()
+                        )
+                );
+            }
+        } else {
+            for (String tableName : changed) {
+                put(
+                        new Key(Optional.of(schemaName), tableName),
+                        new Entry(
+                                newChangeTokens.get(tableName),
+                                now,
+                                metaDataEngine.getTables(Optional.of(schemaName), tableName),
+                                metaDataEngine.getColumns(Optional.of(schemaName), tableName)
+                        )
+                );
+            }
+        }
+
+        Predicate<String> tableNamePatternMatcher = likePatternMatcher(tableNamePattern);
+        List<String> removed = getCachedTableNames(schemaName).stream()
+                .filter(tableNamePatternMatcher)
+                .filter(tableName -> !newChangeTokens.containsKey(tableName))
+                .sorted()
+                .toList();
+        removed.forEach(tableName -> remove(new Key(Optional.of(schemaName), tableName)));
+
+        return new RefreshResult(List.copyOf(unchanged), List.copyOf(changed), removed);
+    }
+
+    private Optional<Entry> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+
+        Optional<Entry> entryOption = readEntry(getEntryFile(key));
+        entryOption.ifPresent(e -> entries.putIfAbsent(key, e));
+        return entryOption;
+    }
+
+    private void put(Key key, Entry entry) {
+        entries.put(key, entry);
+        writeEntry(getEntryFile(key), entry);
+    }
+
+    private void remove(Key key) {
+        entries.remove(key);
+        try {
+            Files.deleteIfExists(getEntryFile(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> getCachedTableNames(String schemaName) {
+        Path schemaDirectory = getSchemaDirectory(Optional.of(schemaName));
+        if (!Files.isDirectory(schemaDirectory)) {
+            return List.of();
+        }
+
+        try (Stream<Path> files = Files.list(schemaDirectory)) {
+            return files
+                    .map(file -> file.getFileName().toString())
+                    .filter(fileName -> fileName.startsWith(ENTRY_FILE_PREFIX) && fileName.endsWith(ENTRY_FILE_SUFFIX))
+                    .map(fileName -> decode(fileName.substring(
+                            ENTRY_FILE_PREFIX.length(),
+                            fileName.length() - ENTRY_FILE_SUFFIX.length())))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Optional<Entry> readEntry(Path entryFile) {
+        if (!Files.isRegularFile(entryFile)) {
+            return Optional.empty();
+        }
+
+        try (JsonReader jsonReader = jsonProvider.createReader(Files.newBufferedReader(entryFile))) {
+            JsonObject json = jsonReader.readObject();
+            return Optional.of(new Entry(
+                    json.getString("changeToken"),
+                    Instant.parse(json.getString("validatedAt")),
+                    json.getJsonArray("tables").getValuesAs(JsonObject.class),
+                    json.getJsonArray("columns").getValuesAs(JsonObject.class)
+            ));
+        } catch (JsonException | ClassCastException | NullPointerException | DateTimeParseException e) {
+            // An unreadable cache entry is treated as a missing one, and will be overwritten
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeEntry(Path entryFile, Entry entry) {
+        JsonObject json = jsonProvider.createObjectBuilder()
+                .add("changeToken", entry.changeToken())
+                .add("validatedAt", entry.validatedAt().toString())
+                .add("tables", jsonProvider.createArrayBuilder(entry.tables()))
+                .add("columns", jsonProvider.createArrayBuilder(entry.columns()))
+                .build();
+
+        try {
+            Files.createDirectories(entryFile.getParent());
+            // Writing the entry atomically, using a unique temporary file because of concurrent writers
+            Path tempFile = Files.createTempFile(entryFile.getParent(), ENTRY_FILE_PREFIX, ".tmp");
+            try (JsonWriter jsonWriter = jsonProvider.createWriter(Files.newBufferedWriter(tempFile))) {
+                jsonWriter.writeObject(json);
+            }
+            Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path getSchemaDirectory(Optional<String> schemaName) {
+        return dataSourceDirectory.resolve(
+                schemaName.map(s -> SCHEMA_DIRECTORY_PREFIX + encode(s)).orElse(ALL_SCHEMAS_DIRECTORY_NAME)
+        );
+    }
+
+    private Path getEntryFile(Key key) {
+        return getSchemaDirectory(key.schemaName())
+                .resolve(ENTRY_FILE_PREFIX + encode(key.tableNamePattern()) + ENTRY_FILE_SUFFIX);
+    }
+
+    private static String combineChangeTokens(List<TableChangeToken> changeTokens) {
+        return changeTokens.stream()
+                .map(t -> t.schemaName() + "." + t.tableName() + "=" + t.changeToken())
+                .sorted()
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Returns a matcher for the given SQL LIKE pattern, using the backslash as escape character.
+     */
+    private static Predicate<String> likePatternMatcher(String likePattern) {
+        if (likePattern.chars().noneMatch(c -> c == '%' || c == '_' || c == '\\')) {
+            return likePattern::equals;
+        }
+
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            if (c == '\\' && i + 1 < likePattern.length()) {
+                i++;
+                regex.append(Pattern.quote(String.valueOf(likePattern.charAt(i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL).asMatchPredicate();
+    }
+
+    private static String encode(String name) {
+        return URLEncoder.encode(name, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String name) {
+        return URLDecoder.decode(name, StandardCharsets.UTF_8);
+    }
+}
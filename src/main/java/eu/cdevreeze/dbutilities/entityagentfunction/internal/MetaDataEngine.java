@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import jakarta.json.JsonObject;
+
+/**
+ * Source of table and column metadata, returned as JSON objects in the format of {@link MetaDataJson}.
+ * The table name pattern is a SQL LIKE pattern, as in {@link DatabaseMetaData#getTables}, and an empty schema
+ * name means that the schema is not used to narrow the search.
+ *
+ * @author Chris de Vreeze
+ */
+public interface MetaDataEngine {
+
+    /**
+     * Returns the tables, in the format of {@link MetaDataJson#table}, ordered by table type, schema and table name.
+     */
+    List<JsonObject> getTables(Optional<String> schemaName, String tableNamePattern) throws SQLException;
+
+    /**
+     * Returns the columns, in the format of {@link MetaDataJson#column}, ordered by schema, table name and
+     * ordinal position.
+     */
+    List<JsonObject> getColumns(Optional<String> schemaName, String tableNamePattern) throws SQLException;
+
+    /**
+     * Returns the change tokens of the tables, if this engine supports cheap change checks. The change tokens
+     * are typically taken from the data dictionary of the database.
+     */
+    Optional<List<TableChangeToken>> getChangeTokens(Optional<String> schemaName, String tableNamePattern)
+            throws SQLException;
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import jakarta.json.spi.JsonProvider;
+
+/**
+ * Factory of {@link MetaDataEngine} instances.
+ *
+ * @author Chris de Vreeze
+ */
+public class MetaDataEngines {
+
+    private MetaDataEngines() {
+    }
+
+    /**
+     * Creates a {@link MetaDataEngine} for the given connection. If the vendor dictionary is enabled in the
+     * metadata options, and the database is Oracle, Db2 (LUW) or PostgreSQL, a {@link DictionaryMetaDataEngine}
+     * is returned, and otherwise a {@link JdbcMetaDataEngine}.
+     */
+    public static MetaDataEngine create(Connection connection, MetaDataOptions metaDataOptions, JsonProvider jsonProvider)
+            throws SQLException {
+        if (metaDataOptions.vendorDictionaryEnabled()) {
+            Optional<DictionaryMetaDataEngine.Vendor> vendorOption =
+                    DictionaryMetaDataEngine.Vendor.fromDatabaseProductName(connection.getMetaData().getDatabaseProductName());
+
+            if (vendorOption.isPresent()) {
+                return new DictionaryMetaDataEngine(connection, vendorOption.get(), jsonProvider);
+            }
+        }
+        return new JdbcMetaDataEngine(connection, jsonProvider);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+
+/**
+ * Conversions of rows of {@link DatabaseMetaData} result sets to JSON objects. The conversions only depend on the
+ * JDBC column labels (such as "TABLE_NAME"), so they also work for dictionary queries returning the same columns.
+ *
+ * @author Chris de Vreeze
+ */
+public class MetaDataJson {
+
+    private MetaDataJson() {
+    }
+
+    /**
+     * Converts the current row of a {@link DatabaseMetaData#getTables} result set.
+     */
+    public static JsonObject table(ResultSet rs, JsonProvider jsonProvider) throws SQLException {
+        return jsonProvider.createObjectBuilder()
+                .add("tableCat", optionalString(rs, "TABLE_CAT", jsonProvider))
+                .add("tableSchema", optionalString(rs, "TABLE_SCHEM", jsonProvider))
+                .add("tableName", rs.getString("TABLE_NAME"))
+                .add("tableType", rs.getString("TABLE_TYPE"))
+                .add("remarks", optionalString(rs, "REMARKS", jsonProvider))
+                .add("typeCat", optionalString(rs, "TYPE_CAT", jsonProvider))
+                .add("typeSchema", optionalString(rs, "TYPE_SCHEM", jsonProvider))
+                .add("typeName", optionalString(rs, "TYPE_NAME", jsonProvider))
+                // Left out SELF_REFERENCING_COL_NAME and REF_GENERATION
+                .build();
+    }
+
+    /**
+     * Converts the current row of a {@link DatabaseMetaData#getColumns} result set.
+     */
+    public static JsonObject column(ResultSet rs, JsonProvider jsonProvider) throws SQLException {
+        return jsonProvider.createObjectBuilder()
+                .add("tableCat", optionalString(rs, "TABLE_CAT", jsonProvider))
+                .add("tableSchema", optionalString(rs, "TABLE_SCHEM", jsonProvider))
+                .add("tableName", rs.getString("TABLE_NAME"))
+                .add("columnName", rs.getString("COLUMN_NAME"))
+                .add("dataType", rs.getInt("DATA_TYPE"))
+                .add("typeName", rs.getString("TYPE_NAME"))
+                .add("columnSize", rs.getInt("COLUMN_SIZE"))
+                .add("decimalDigits", optionalInt(rs, "DECIMAL_DIGITS", jsonProvider))
+                .add("numPrecRadix", optionalInt(rs, "NUM_PREC_RADIX", jsonProvider))
+                .add("nullable", optionalInt(rs, "NULLABLE", jsonProvider))
+                .add("remarks", optionalString(rs, "REMARKS", jsonProvider))
+                .add("columnDef", optionalString(rs, "COLUMN_DEF", jsonProvider))
+                .add("charOctetLength", optionalInt(rs, "CHAR_OCTET_LENGTH", jsonProvider))
+                .add("ordinalPosition", optionalInt(rs, "ORDINAL_POSITION", jsonProvider))
+                .add("isNullable", rs.getString("IS_NULLABLE"))
+                .add("isAutoIncrement", rs.getString("IS_AUTOINCREMENT"))
+                .add("isGeneratedColumn", rs.getString("IS_GENERATEDCOLUMN"))
+                .build();
+    }
+
+    /**
+     * Converts the current row of a {@link DatabaseMetaData#getPrimaryKeys} result set.
+     */
+    public static JsonObject primaryKeyColumn(ResultSet rs, JsonProvider jsonProvider) throws SQLException {
+        return jsonProvider.createObjectBuilder()
+                .add("tableName", rs.getString("TABLE_NAME"))
+                .add("columnName", rs.getString("COLUMN_NAME"))
+                .add("keySeq", rs.getInt("KEY_SEQ"))
+                .add("pkName", optionalString(rs, "PK_NAME", jsonProvider))
+                .build();
+    }
+
+    /**
+     * Converts the current row of a {@link DatabaseMetaData#getImportedKeys} result set.
+     */
+    public static JsonObject foreignKeyColumn(ResultSet rs, JsonProvider jsonProvider) throws SQLException {
+        return jsonProvider.createObjectBuilder()
+                .add("pkTableSchema", optionalString(rs, "PKTABLE_SCHEM", jsonProvider))
+                .add("pkTableName", rs.getString("PKTABLE_NAME"))
+                .add("pkColumnName", rs.getString("PKCOLUMN_NAME"))
+                .add("fkTableName", rs.getString("FKTABLE_NAME"))
+                .add("fkColumnName", rs.getString("FKCOLUMN_NAME"))
+                .add("keySeq", rs.getInt("KEY_SEQ"))
+                .add("updateRule", rs.getInt("UPDATE_RULE"))
+                .add("deleteRule", rs.getInt("DELETE_RULE"))
+                .add("fkName", optionalString(rs, "FK_NAME", jsonProvider))
+                .add("pkName", optionalString(rs, "PK_NAME", jsonProvider))
+                .build();
+    }
+
+    /**
+     * Converts the current row of a {@link DatabaseMetaData#getIndexInfo} result set.
+     */
+    public static JsonObject indexColumn(ResultSet rs, JsonProvider jsonProvider) throws SQLException {
+        return jsonProvider.createObjectBuilder()
+                .add("tableName", rs.getString("TABLE_NAME"))
+                .add("nonUnique", rs.getBoolean("NON_UNIQUE"))
+                .add("indexName", optionalString(rs, "INDEX_NAME", jsonProvider))
+                .add("type", rs.getInt("TYPE"))
+                .add("ordinalPosition", rs.getInt("ORDINAL_POSITION"))
+                .add("columnName", optionalString(rs, "COLUMN_NAME", jsonProvider))
+                .add("ascOrDesc", optionalString(rs, "ASC_OR_DESC", jsonProvider))
+                .build();
+    }
+
+    private static JsonValue optionalString(ResultSet rs, String columnLabel, JsonProvider jsonProvider)
+            throws SQLException {
+        return Optional.ofNullable(rs.getString(columnLabel))
+                .map(v -> (JsonValue) jsonProvider.createValue(v))
+                .orElse(JsonValue.NULL);
+    }
+
+    private static JsonValue optionalInt(ResultSet rs, String columnLabel, JsonProvider jsonProvider)
+            throws SQLException {
+        int value = rs.getInt(columnLabel);
+        return rs.wasNull() ? JsonValue.NULL : jsonProvider.createValue(value);
+    }
+}
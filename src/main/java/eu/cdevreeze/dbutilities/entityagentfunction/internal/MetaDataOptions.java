@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+
+/**
+ * Options used when retrieving database metadata.
+ * <p>
+ * If the vendor dictionary is enabled, table and column metadata is queried directly from the data dictionary
+ * of Oracle, Db2 (LUW) and PostgreSQL databases, which is typically much faster than the JDBC
+ * {@link java.sql.DatabaseMetaData} methods. For other databases, JDBC metadata is used anyway.
+ * <p>
+ * If a {@link MetaDataCache} is present, table and column metadata lookups go through that cache.
+ *
+ * @author Chris de Vreeze
+ */
+public record MetaDataOptions(boolean vendorDictionaryEnabled, Optional<MetaDataCache> metaDataCache) {
+
+    public static final MetaDataOptions DEFAULT = new MetaDataOptions(true, Optional.empty());
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * {@link ResultSetWriter} writing newline-delimited JSON (NDJSON), with one compact JSON object per row.
+ * <p>
+ * The JSON is written directly to a buffered {@link Writer}, without any intermediate JSON objects. Column
+ * labels are escaped once per query. Like for the other JSON outputs, numbers and booleans are written as
+ * JSON numbers and booleans, respectively.
+ *
+ * @author Chris de Vreeze
+ */
+public final class NdjsonResultSetWriter implements ResultSetWriter {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    @Override
+    public long write(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        NdjsonColumnValueWriter columnValueWriter = new NdjsonColumnValueWriter(rowEncoder, writer);
+        long rowCount = 0;
+
+        while (rs.next()) {
+            columnValueWriter.startRow();
+            rowEncoder.encodeRow(rs, columnValueWriter);
+            writer.write("}\n");
+            rowCount += 1;
+        }
+        // Not closing the writer, because that would close the output stream
+        writer.flush();
+        return rowCount;
+    }
+
+    /**
+     * Writes the given string as JSON string, including the surrounding double quotes.
+     */
+    public static void writeJsonString(String value, Writer writer) throws IOException {
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                writer.write(value, start, i - start);
+                switch (c) {
+                    case '"' -> writer.write("\\\"");
+                    case '\\' -> writer.write("\\\\");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    case '\t' -> writer.write("\\t");
+                    default -> writer.write(String.format("\\u%04x", (int) c));
+                }
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static final class NdjsonColumnValueWriter implements ColumnValueWriter<IOException> {
+
+        private final String[] memberNamePrefixes;
+        private final Writer writer;
+
+        NdjsonColumnValueWriter(RowEncoder rowEncoder, Writer writer) throws IOException {
+            this.writer = writer;
+            this.memberNamePrefixes = new String[rowEncoder.getColumnCount()];
+            for (int i = 0; i < memberNamePrefixes.length; i++) {
+                StringWriter sw = new StringWriter();
+                sw.write((i == 0) ? "{" : ",");
+                writeJsonString(rowEncoder.getColumnLabel(i), sw);
+                sw.write(':');
+                memberNamePrefixes[i] = sw.toString();
+            }
+        }
+
+        void startRow() throws IOException {
+            if (memberNamePrefixes.length == 0) {
+                writer.write('{');
+            }
+        }
+
+        @Override
+        public void writeNull(int columnIndex) throws IOException {
+            writer.write(memberNamePrefixes[columnIndex]);
+            writer.write("null");
+        }
+
+        @Override
+        public void writeString(int columnIndex, String value) throws IOException {
+            writer.write(memberNamePrefixes[columnIndex]);
+            writeJsonString(value, writer);
+        }
+
+        @Override
+        public void writeBoolean(int columnIndex, boolean value) throws IOException {
+            writer.write(memberNamePrefixes[columnIndex]);
+            writer.write(value ? "true" : "false");
+        }
+
+        @Override
+        public void writeLong(int columnIndex, long value) throws IOException {
+            writer.write(memberNamePrefixes[columnIndex]);
+            writer.write(Long.toString(value));
+        }
+
+        @Override
+        public void writeDouble(int columnIndex, double value) throws IOException {
+            // JSON has no representation of NaN and infinity as numbers
+            if (Double.isFinite(value)) {
+                writer.write(memberNamePrefixes[columnIndex]);
+                writer.write(Double.toString(value));
+            } else {
+                writeString(columnIndex, Double.toString(value));
+            }
+        }
+
+        @Override
+        public void writeDecimal(int columnIndex, BigDecimal value) throws IOException {
+            writer.write(memberNamePrefixes[columnIndex]);
+            writer.write(value.toString());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import com.google.common.base.Preconditions;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+/**
+ * Options used when writing query results in an {@link eu.cdevreeze.dbutilities.function.OutputFormat}
+ * other than JSON or XML.
+ * <p>
+ * The CSV null value is written for SQL nulls in CSV output. By default, it is the empty string. Empty strings
+ * are then written as quoted empty fields, so that they can be told apart from nulls.
+ * <p>
+ * The Arrow batch size is the maximum number of rows per record batch in Arrow output. The Parquet row group
+ * size is the (approximate) size in bytes of a row group in Parquet output, and the Parquet compression codec
+ * is used to compress its pages.
+ *
+ * @author Chris de Vreeze
+ */
+public record OutputOptions(
+        String csvNullValue,
+        int arrowBatchSize,
+        long parquetRowGroupSize,
+        CompressionCodecName parquetCompressionCodec
+) {
+
+    public static final OutputOptions DEFAULT =
+            new OutputOptions("", 10_000, 128L * 1024 * 1024, CompressionCodecName.SNAPPY);
+
+    public OutputOptions {
+        Preconditions.checkArgument(arrowBatchSize > 0, "Arrow batch size must be positive");
+        Preconditions.checkArgument(parquetRowGroupSize > 0, "Parquet row group size must be positive");
+    }
+}
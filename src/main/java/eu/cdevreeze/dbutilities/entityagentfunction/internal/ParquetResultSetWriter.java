@@ -0,0 +1,390 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Types;
+
+/**
+ * {@link ResultSetWriter} writing an Apache Parquet file. The Parquet schema is derived from the result set
+ * metadata, with one optional column per result set column. Rows are passed one at a time to the Parquet writer,
+ * which buffers them per row group of (approximately) the given size in bytes, so the result set is streamed
+ * rather than materialized in memory. Dictionary encoding is enabled, and pages are compressed with the given codec.
+ * <p>
+ * The column types map to Parquet types as follows: booleans to BOOLEAN, integral types to INT64, floating point
+ * types to DOUBLE, decimals to INT64 or BINARY annotated as DECIMAL(precision, scale) (or to strings if the precision
+ * is not known or exceeds 38), dates to INT32 annotated as DATE, times and timestamps to INT64 annotated as
+ * TIME(MICROS) and TIMESTAMP(MICROS) (adjusted to UTC for timestamps with time zone), binary types to BINARY,
+ * and all other types to BINARY annotated as STRING.
+ * <p>
+ * The Parquet file is written sequentially, so the output stream need not be seekable. The footer is written
+ * at the end, so the file is only readable once all rows have been written.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ParquetResultSetWriter implements ResultSetWriter {
+
+    private static final int MAX_DECIMAL_PRECISION = 38;
+    private static final int MAX_INT64_DECIMAL_PRECISION = 18;
+
+    private final long rowGroupSize;
+    private final CompressionCodecName compressionCodecName;
+
+    public ParquetResultSetWriter(long rowGroupSize, CompressionCodecName compressionCodecName) {
+        Preconditions.checkArgument(rowGroupSize > 0, "Row group size must be positive");
+
+        this.rowGroupSize = rowGroupSize;
+        this.compressionCodecName = compressionCodecName;
+    }
+
+    @Override
+    public long write(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+        MessageType schema = createSchema(rowEncoder, rs.getMetaData());
+
+        // The Parquet writer closes the output file, but the output stream is owned by the caller
+        OutputFile outputFile = new StreamOutputFile(new NonClosingOutputStream(out));
+
+        try (ParquetWriter<ResultSet> writer = new Builder(outputFile, new ResultSetWriteSupport(rowEncoder, schema))
+                .withConf(new PlainParquetConfiguration())
+                .withRowGroupSize(rowGroupSize)
+                .withDictionaryEncoding(true)
+                .withCompressionCodec(compressionCodecName)
+                .build()) {
+            long rowCount = 0;
+            while (rs.next()) {
+                try {
+                    writer.write(rs);
+                } catch (RuntimeException e) {
+                    if (e.getCause() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw e;
+                }
+                rowCount += 1;
+            }
+            return rowCount;
+        }
+    }
+
+    private static MessageType createSchema(RowEncoder rowEncoder, ResultSetMetaData metaData) throws SQLException {
+        List<Type> fields = new ArrayList<>();
+        for (int i = 0; i < rowEncoder.getColumnCount(); i++) {
+            String name = rowEncoder.getColumnLabel(i);
+            Type field = switch (rowEncoder.getColumnType(i)) {
+                case BOOLEAN -> Types.optional(PrimitiveType.PrimitiveTypeName.BOOLEAN).named(name);
+                case LONG -> Types.optional(PrimitiveType.PrimitiveTypeName.INT64).named(name);
+                case DOUBLE -> Types.optional(PrimitiveType.PrimitiveTypeName.DOUBLE).named(name);
+                case DECIMAL -> decimalField(name, metaData.getPrecision(i + 1), metaData.getScale(i + 1));
+                case DATE -> Types.optional(PrimitiveType.PrimitiveTypeName.INT32)
+                        .as(LogicalTypeAnnotation.dateType())
+                        .named(name);
+                case TIME -> Types.optional(PrimitiveType.PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.timeType(false, LogicalTypeAnnotation.TimeUnit.MICROS))
+                        .named(name);
+                case TIMESTAMP -> Types.optional(PrimitiveType.PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.timestampType(false, LogicalTypeAnnotation.TimeUnit.MICROS))
+                        .named(name);
+                case TIMESTAMP_WITH_TIME_ZONE -> Types.optional(PrimitiveType.PrimitiveTypeName.INT64)
+                        .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MICROS))
+                        .named(name);
+                case BINARY -> Types.optional(PrimitiveType.PrimitiveTypeName.BINARY).named(name);
+                case STRING -> stringField(name);
+            };
+            fields.add(field);
+        }
+        return new MessageType("row", fields);
+    }
+
+    private static Type decimalField(String name, int precision, int scale) {
+        if (precision < 1 || precision > MAX_DECIMAL_PRECISION || scale < 0 || scale > precision) {
+            // Unconstrained numbers (e.g. Oracle NUMBER without precision) cannot be represented losslessly
+            return stringField(name);
+        }
+        PrimitiveType.PrimitiveTypeName physicalType = (precision <= MAX_INT64_DECIMAL_PRECISION) ?
+                PrimitiveType.PrimitiveTypeName.INT64 :
+                PrimitiveType.PrimitiveTypeName.BINARY;
+        return Types.optional(physicalType)
+                .as(LogicalTypeAnnotation.decimalType(scale, precision))
+                .named(name);
+    }
+
+    private static Type stringField(String name) {
+        return Types.optional(PrimitiveType.PrimitiveTypeName.BINARY)
+                .as(LogicalTypeAnnotation.stringType())
+                .named(name);
+    }
+
+    private static long toEpochMicros(long epochSecond, int nano) {
+        return Math.addExact(Math.multiplyExact(epochSecond, 1_000_000L), nano / 1_000);
+    }
+
+    private static final class Builder extends ParquetWriter.Builder<ResultSet, Builder> {
+
+        private final ResultSetWriteSupport writeSupport;
+
+        Builder(OutputFile outputFile, ResultSetWriteSupport writeSupport) {
+            super(outputFile);
+            this.writeSupport = writeSupport;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<ResultSet> getWriteSupport(Configuration conf) {
+            return writeSupport;
+        }
+
+        @Override
+        protected WriteSupport<ResultSet> getWriteSupport(ParquetConfiguration conf) {
+            return writeSupport;
+        }
+    }
+
+    /**
+     * {@link WriteSupport} writing the current row of the result set passed to method "write".
+     */
+    private static final class ResultSetWriteSupport extends WriteSupport<ResultSet> {
+
+        private final RowEncoder rowEncoder;
+        private final MessageType schema;
+        private RecordConsumer recordConsumer;
+        private RecordConsumerColumnValueWriter columnValueWriter;
+
+        ResultSetWriteSupport(RowEncoder rowEncoder, MessageType schema) {
+            this.rowEncoder = rowEncoder;
+            this.schema = schema;
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(schema, Map.of());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.recordConsumer = recordConsumer;
+            this.columnValueWriter = new RecordConsumerColumnValueWriter(recordConsumer, schema);
+        }
+
+        @Override
+        public void write(ResultSet rs) {
+            recordConsumer.startMessage();
+            try {
+                rowEncoder.encodeRow(rs, columnValueWriter);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            recordConsumer.endMessage();
+        }
+    }
+
+    /**
+     * {@link ColumnValueWriter} passing the column values to a {@link RecordConsumer}. Nulls are written
+     * by leaving out the field.
+     */
+    private static final class RecordConsumerColumnValueWriter implements ColumnValueWriter<RuntimeException> {
+
+        private final RecordConsumer recordConsumer;
+        private final List<PrimitiveType> fields;
+
+        RecordConsumerColumnValueWriter(RecordConsumer recordConsumer, MessageType schema) {
+            this.recordConsumer = recordConsumer;
+            this.fields = schema.getFields().stream().map(Type::asPrimitiveType).toList();
+        }
+
+        private void startField(int columnIndex) {
+            recordConsumer.startField(fields.get(columnIndex).getName(), columnIndex);
+        }
+
+        private void endField(int columnIndex) {
+            recordConsumer.endField(fields.get(columnIndex).getName(), columnIndex);
+        }
+
+        @Override
+        public void writeNull(int columnIndex) {
+            // Nothing to do for optional fields
+        }
+
+        @Override
+        public void writeString(int columnIndex, String value) {
+            startField(columnIndex);
+            recordConsumer.addBinary(Binary.fromString(value));
+            endField(columnIndex);
+        }
+
+        @Override
+        public void writeBoolean(int columnIndex, boolean value) {
+            startField(columnIndex);
+            recordConsumer.addBoolean(value);
+            endField(columnIndex);
+        }
+
+        @Override
+        public void writeLong(int columnIndex, long value) {
+            startField(columnIndex);
+            recordConsumer.addLong(value);
+            endField(columnIndex);
+        }
+
+        @Override
+        public void writeDouble(int columnIndex, double value) {
+            startField(columnIndex);
+            recordConsumer.addDouble(value);
+            endField(columnIndex);
+        }
+
+        @Override
+        public void writeDecimal(int columnIndex, BigDecimal value) {
+            PrimitiveType field = fields.get(columnIndex);
+            if (field.getLogicalTypeAnnotation() instanceof LogicalTypeAnnotation.DecimalLogicalTypeAnnotation decimalType) {
+                BigInteger unscaledValue = value.setScale(decimalType.getScale(), RoundingMode.HALF_UP).unscaledValue();
+                startField(columnIndex);
+                if (field.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT64) {
+                    recordConsumer.addLong(unscaledValue.longValueExact());
+                } else {
+                    recordConsumer.addBinary(Binary.fromConstantByteArray(unscaledValue.toByteArray()));
+                }
+                endField(columnIndex);
+            } else {
+                writeString(columnIndex, value.toPlainString());
+            }
+        }
+
+        @Override
+        public void writeDate(int columnIndex, LocalDate value) {
+            startField(columnIndex);
+            recordConsumer.addInteger(Math.toIntExact(value.toEpochDay()));
+            endField(columnIndex);
+        }
+
+        @Override
+        public void writeTime(int columnIndex, LocalTime value) {
+            writeLong(columnIndex, value.toNanoOfDay() / 1_000);
+        }
+
+        @Override
+        public void writeTimestamp(int columnIndex, LocalDateTime value) {
+            writeLong(columnIndex, toEpochMicros(value.toEpochSecond(ZoneOffset.UTC), value.getNano()));
+        }
+
+        @Override
+        public void writeTimestampWithTimeZone(int columnIndex, OffsetDateTime value) {
+            writeLong(columnIndex, toEpochMicros(value.toEpochSecond(), value.getNano()));
+        }
+
+        @Override
+        public void writeBytes(int columnIndex, byte[] value) {
+            startField(columnIndex);
+            recordConsumer.addBinary(Binary.fromConstantByteArray(value));
+            endField(columnIndex);
+        }
+    }
+
+    /**
+     * {@link OutputFile} writing sequentially to an output stream, keeping track of the position.
+     */
+    private static final class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new CountingPositionOutputStream(out);
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return 0;
+        }
+    }
+
+    private static final class CountingPositionOutputStream extends PositionOutputStream {
+
+        private final OutputStream out;
+        private long position;
+
+        CountingPositionOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public long getPos() {
+            return position;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            position += 1;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            position += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
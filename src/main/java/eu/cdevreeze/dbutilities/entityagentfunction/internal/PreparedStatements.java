@@ -20,7 +20,7 @@ import module java.base;
 import module java.sql;
 
 /**
- * Support for setting parameters on a {@link java.sql.PreparedStatement}.
+ * Support for creating a {@link java.sql.PreparedStatement} for a query, and for setting parameters on it.
  * <p>
  * This support for setting query parameters is far from complete, but should work in most
  * rather straightforward cases.
@@ -32,6 +32,25 @@ public class PreparedStatements {
     private PreparedStatements() {
     }
 
+    /**
+     * Creates a {@link PreparedStatement} for a query whose result set is read once, from start to end.
+     * That is, the result set is forward-only and read-only. The fetch size of the query options
+     * is set on the statement, unless it is 0.
+     */
+    public static PreparedStatement prepareQuery(Connection connection, String sql, QueryOptions queryOptions)
+            throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            if (queryOptions.fetchSize() > 0) {
+                ps.setFetchSize(queryOptions.fetchSize());
+            }
+            return ps;
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+    }
+
     public static void setParameter(PreparedStatement ps, int parameterIndex, QueryParameter parameter) {
         try {
             // The overloaded variant passing a SQLType is not always implemented
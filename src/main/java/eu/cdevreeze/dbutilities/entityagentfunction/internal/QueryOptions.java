@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Options used when executing queries.
+ * <p>
+ * The fetch size is passed as hint to the JDBC driver. It is the number of rows retrieved per round trip
+ * to the database. A fetch size of 0 means that the JDBC driver default is used. Note that the PostgreSQL
+ * driver by default retrieves the entire result set at once, and that the Oracle driver by default
+ * retrieves only 10 rows per round trip.
+ *
+ * @author Chris de Vreeze
+ */
+public record QueryOptions(int fetchSize) {
+
+    public static final QueryOptions DEFAULT = new QueryOptions(0);
+
+    public QueryOptions {
+        Preconditions.checkArgument(fetchSize >= 0, "Negative fetch size not allowed");
+    }
+}
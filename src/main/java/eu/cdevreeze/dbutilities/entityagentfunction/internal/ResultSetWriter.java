@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * Writer of all (remaining) rows of a {@link ResultSet} to an {@link OutputStream}, in some output format.
+ * The output stream is flushed, but not closed.
+ *
+ * @author Chris de Vreeze
+ */
+@FunctionalInterface
+public interface ResultSetWriter {
+
+    /**
+     * Writes the rows of the result set to the output stream, and returns the number of rows written.
+     */
+    long write(ResultSet rs, OutputStream out) throws SQLException, IOException;
+}
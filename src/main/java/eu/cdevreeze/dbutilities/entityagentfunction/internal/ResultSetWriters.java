@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import eu.cdevreeze.dbutilities.function.OutputFormat;
+
+/**
+ * Factory of {@link ResultSetWriter} instances, one per {@link OutputFormat}.
+ *
+ * @author Chris de Vreeze
+ */
+public class ResultSetWriters {
+
+    private ResultSetWriters() {
+    }
+
+    public static ResultSetWriter create(OutputFormat outputFormat, OutputOptions outputOptions) {
+        return switch (outputFormat) {
+            case NDJSON -> new NdjsonResultSetWriter();
+            case CSV -> new CsvResultSetWriter(outputOptions.csvNullValue());
+            case ARROW -> new ArrowResultSetWriter(false, outputOptions.arrowBatchSize());
+            case ARROW_FILE -> new ArrowResultSetWriter(true, outputOptions.arrowBatchSize());
+            case PARQUET -> new ParquetResultSetWriter(
+                    outputOptions.parquetRowGroupSize(),
+                    outputOptions.parquetCompressionCodec()
+            );
+            case CBOR -> new CborResultSetWriter();
+        };
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+import java.time.Duration;
+
+/**
+ * Support for counting the rows of a table, either exactly or by estimating the row count from the optimizer
+ * statistics in the data dictionary of the database.
+ *
+ * @author Chris de Vreeze
+ */
+public class RowCounts {
+
+    /**
+     * Row count estimate, along with the time the statistics were last gathered, if known.
+     */
+    public record RowCountEstimate(long rowCount, Optional<String> statisticsTime) {
+    }
+
+    private RowCounts() {
+    }
+
+    /**
+     * Runs "select count(*)" against the given table, which is typically a full table scan.
+     */
+    public static long selectRowCount(Connection connection, String tableName) throws SQLException {
+        return selectRowCount(connection, tableName, Duration.ZERO);
+    }
+
+    /**
+     * Like {@link #selectRowCount(Connection, String)}, but cancelling the query after the given timeout
+     * (rounded up to whole seconds), unless the timeout is zero.
+     */
+    public static long selectRowCount(Connection connection, String tableName, Duration queryTimeout)
+            throws SQLException {
+        String sql = "select count(*) from " + checkTableNameWrtSqlInjection(tableName);
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, QueryOptions.DEFAULT)) {
+            if (queryTimeout.isPositive()) {
+                ps.setQueryTimeout(Math.toIntExact(queryTimeout.plusMillis(999).toSeconds()));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                } else {
+                    throw new RuntimeException("Missing result row");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the row count estimate of the given table from the optimizer statistics, if any. These are
+     * pg_class.reltuples on PostgreSQL, ALL_TABLES.NUM_ROWS on Oracle, and SYSCAT.TABLES.CARD on Db2 (LUW).
+     * An empty result is returned if the table has no statistics, or if the database is not supported.
+     * <p>
+     * The table name may be qualified by a schema name. Otherwise, the current schema is used. On Oracle and Db2,
+     * unquoted names are converted to upper case, like the database does.
+     */
+    public static Optional<RowCountEstimate> estimateRowCount(Connection connection, String tableName)
+            throws SQLException {
+        Optional<DictionaryMetaDataEngine.Vendor> vendorOption =
+                DictionaryMetaDataEngine.Vendor.fromDatabaseProductName(connection.getMetaData().getDatabaseProductName());
+        if (vendorOption.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return switch (vendorOption.get()) {
+            case POSTGRESQL -> estimatePostgresqlRowCount(connection, tableName);
+            case ORACLE -> estimateRowCount(
+                    connection,
+                    """
+                            select t.num_rows, t.last_analyzed
+                              from all_tables t
+                             where t.owner = coalesce(?, sys_context('USERENV', 'CURRENT_SCHEMA')) and t.table_name = ?
+                            """,
+                    tableName
+            );
+            case DB2 -> estimateRowCount(
+                    connection,
+                    """
+                            select t.card, t.stats_time
+                              from syscat.tables t
+                             where t.tabschema = coalesce(?, current schema) and t.tabname = ?
+                            """,
+                    tableName
+            );
+        };
+    }
+
+    public static String checkTableNameWrtSqlInjection(String tableName) {
+        if (tableName.chars().anyMatch(Character::isWhitespace)) {
+            throw new RuntimeException("Table name with whitespace not allowed (to prevent SQL injection)");
+        } else {
+            return tableName;
+        }
+    }
+
+    private static Optional<RowCountEstimate> estimatePostgresqlRowCount(Connection connection, String tableName)
+            throws SQLException {
+        // Function to_regclass resolves (optionally qualified and quoted) names the way PostgreSQL itself does
+        String sql = """
+                select cast(c.reltuples as bigint), greatest(s.last_analyze, s.last_autoanalyze)
+                  from pg_catalog.pg_class c
+                  left join pg_catalog.pg_stat_all_tables s on s.relid = c.oid
+                 where c.oid = to_regclass(?)
+                """;
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, QueryOptions.DEFAULT)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                long rowCount = rs.getLong(1);
+                Optional<String> statisticsTime = Optional.ofNullable(rs.getObject(2, OffsetDateTime.class))
+                        .map(OffsetDateTime::toString);
+                // Since PostgreSQL 14, reltuples is -1 for tables that have never been analyzed or vacuumed
+                return rowCount < 0 || (rowCount == 0 && statisticsTime.isEmpty()) ?
+                        Optional.empty() :
+                        Optional.of(new RowCountEstimate(rowCount, statisticsTime));
+            }
+        }
+    }
+
+    private static Optional<RowCountEstimate> estimateRowCount(Connection connection, String sql, String tableName)
+            throws SQLException {
+        List<String> nameParts = splitQualifiedName(tableName);
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, QueryOptions.DEFAULT)) {
+            ps.setString(1, nameParts.size() >= 2 ? nameParts.get(nameParts.size() - 2) : null);
+            ps.setString(2, nameParts.getLast());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                long rowCount = rs.getLong(1);
+                // Without statistics, Oracle returns null and Db2 returns -1
+                if (rs.wasNull() || rowCount < 0) {
+                    return Optional.empty();
+                }
+                // Reading a LocalDateTime, so that the time is not shifted by the JVM's default time zone
+                Optional<String> statisticsTime = Optional.ofNullable(rs.getObject(2, LocalDateTime.class))
+                        .map(LocalDateTime::toString);
+                return Optional.of(new RowCountEstimate(rowCount, statisticsTime));
+            }
+        }
+    }
+
+    /**
+     * Splits a possibly qualified name into its parts, removing the quotes of quoted parts, and converting
+     * unquoted parts to upper case.
+     */
+    private static List<String> splitQualifiedName(String name) {
+        List<String> result = new ArrayList<>();
+        StringBuilder currentPart = new StringBuilder();
+        boolean quoted = false;
+        boolean partWasQuoted = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < name.length() && name.charAt(i + 1) == '"') {
+                    currentPart.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                    partWasQuoted = true;
+                }
+            } else if (c == '.' && !quoted) {
+                result.add(partWasQuoted ? currentPart.toString() : currentPart.toString().toUpperCase(Locale.ROOT));
+                currentPart.setLength(0);
+                partWasQuoted = false;
+            } else {
+                currentPart.append(c);
+            }
+        }
+        result.add(partWasQuoted ? currentPart.toString() : currentPart.toString().toUpperCase(Locale.ROOT));
+        return List.copyOf(result);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * Encoder of result set rows, created once per query from the {@link ResultSetMetaData}.
+ * <p>
+ * Column labels and {@link ColumnType column types} are resolved once, when creating the row encoder.
+ * Per row, each column value is then read with the typed {@link ResultSet} getter for its column type
+ * (checking {@link ResultSet#wasNull()} for primitives), and passed to a {@link ColumnValueWriter}.
+ * Apart from the column values themselves, that does not allocate any objects per row or per cell.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RowEncoder {
+
+    private final String[] columnLabels;
+    private final ColumnType[] columnTypes;
+
+    private RowEncoder(String[] columnLabels, ColumnType[] columnTypes) {
+        this.columnLabels = columnLabels;
+        this.columnTypes = columnTypes;
+    }
+
+    public static RowEncoder from(ResultSetMetaData rsMetaData) throws SQLException {
+        int columnCount = rsMetaData.getColumnCount();
+        String[] columnLabels = new String[columnCount];
+        ColumnType[] columnTypes = new ColumnType[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            // In JDBC, columns are 1-based
+            columnLabels[i] = rsMetaData.getColumnLabel(i + 1);
+            columnTypes[i] = ColumnType.from(rsMetaData, i + 1);
+        }
+        return new RowEncoder(columnLabels, columnTypes);
+    }
+
+    public int getColumnCount() {
+        return columnLabels.length;
+    }
+
+    /**
+     * Returns the label of the given 0-based column.
+     */
+    public String getColumnLabel(int columnIndex) {
+        return columnLabels[columnIndex];
+    }
+
+    /**
+     * Returns the column type of the given 0-based column.
+     */
+    public ColumnType getColumnType(int columnIndex) {
+        return columnTypes[columnIndex];
+    }
+
+    public List<String> getColumnLabels() {
+        return List.of(columnLabels);
+    }
+
+    /**
+     * Passes all column values of the current row of the result set to the given column value writer.
+     */
+    public <E extends Exception> void encodeRow(ResultSet rs, ColumnValueWriter<E> columnValueWriter)
+            throws SQLException, E {
+        for (int i = 0; i < columnTypes.length; i++) {
+            encodeColumn(rs, i, columnValueWriter);
+        }
+    }
+
+    private <E extends Exception> void encodeColumn(ResultSet rs, int columnIndex, ColumnValueWriter<E> columnValueWriter)
+            throws SQLException, E {
+        int column = columnIndex + 1;
+        switch (columnTypes[columnIndex]) {
+            case BOOLEAN -> {
+                boolean value = rs.getBoolean(column);
+                if (rs.wasNull()) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeBoolean(columnIndex, value);
+                }
+            }
+            case LONG -> {
+                long value = rs.getLong(column);
+                if (rs.wasNull()) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeLong(columnIndex, value);
+                }
+            }
+            case DOUBLE -> {
+                double value = rs.getDouble(column);
+                if (rs.wasNull()) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeDouble(columnIndex, value);
+                }
+            }
+            case DECIMAL -> {
+                BigDecimal value = rs.getBigDecimal(column);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeDecimal(columnIndex, value);
+                }
+            }
+            case DATE -> {
+                LocalDate value = rs.getObject(column, LocalDate.class);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeDate(columnIndex, value);
+                }
+            }
+            case TIME -> {
+                LocalTime value = rs.getObject(column, LocalTime.class);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeTime(columnIndex, value);
+                }
+            }
+            case TIMESTAMP -> {
+                LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeTimestamp(columnIndex, value);
+                }
+            }
+            case TIMESTAMP_WITH_TIME_ZONE -> {
+                OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeTimestampWithTimeZone(columnIndex, value);
+                }
+            }
+            case BINARY -> {
+                byte[] value = rs.getBytes(column);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeBytes(columnIndex, value);
+                }
+            }
+            case STRING -> {
+                String value = rs.getString(column);
+                if (value == null) {
+                    columnValueWriter.writeNull(columnIndex);
+                } else {
+                    columnValueWriter.writeString(columnIndex, value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+/**
+ * Change token of a table, such as the time of the last DDL change of the table. If the change token of a
+ * table is unchanged, its metadata is unchanged too.
+ *
+ * @author Chris de Vreeze
+ */
+public record TableChangeToken(String schemaName, String tableName, String changeToken) {
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import module java.xml;
+
+/**
+ * {@link ColumnValueWriter} that writes each column value as child element of the current element
+ * to a {@link XMLStreamWriter}. The element name is the column label. SQL nulls are written as empty
+ * elements with attribute "null" set to "true".
+ *
+ * @author Chris de Vreeze
+ */
+public final class XmlStreamColumnValueWriter implements ColumnValueWriter<XMLStreamException> {
+
+    private final RowEncoder rowEncoder;
+    private final XMLStreamWriter xmlStreamWriter;
+
+    public XmlStreamColumnValueWriter(RowEncoder rowEncoder, XMLStreamWriter xmlStreamWriter) {
+        this.rowEncoder = rowEncoder;
+        this.xmlStreamWriter = xmlStreamWriter;
+    }
+
+    @Override
+    public void writeNull(int columnIndex) throws XMLStreamException {
+        xmlStreamWriter.writeEmptyElement(rowEncoder.getColumnLabel(columnIndex));
+        xmlStreamWriter.writeAttribute("null", "true");
+    }
+
+    @Override
+    public void writeString(int columnIndex, String value) throws XMLStreamException {
+        xmlStreamWriter.writeStartElement(rowEncoder.getColumnLabel(columnIndex));
+        xmlStreamWriter.writeCharacters(value);
+        xmlStreamWriter.writeEndElement();
+    }
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import module java.xml;
+import java.time.Duration;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ColumnType;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.JsonGeneratorColumnValueWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.PreparedStatements;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowEncoder;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.XmlStreamColumnValueWriter;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PartitioningOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PrimaryKeys;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that exports all data of one (large) table to one file,
+ * scanning the table concurrently in key ranges. Each key range is queried in its own transaction on its
+ * own database connection, in a virtual thread, and written to its own part file. Once all key ranges have
+ * been written, the part files are concatenated into the output file, in key range order.
+ * <p>
+ * The key column is the given column, or else the (first) primary key column, as found in the database
+ * metadata. The key range boundaries are computed according to the {@link PartitioningOptions}. The output has
+ * the same format as the output of {@link ExportTables}. If the output is ordered, the rows are ordered by
+ * the key column. Rows with a null key value (only possible if the key column is not a primary key column)
+ * are part of the first key range. Boundaries of date and timestamp key columns are {@link LocalDate} and
+ * {@link LocalDateTime} values, independent of the JVM default time zone.
+ * <p>
+ * Since each key range is exported in its own transaction, the export is not a consistent snapshot of the table
+ * if the table is modified during the export.
+ * <p>
+ * The returned JSON object summarizes the export, including the key ranges and their row counts.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTablePartitioned implements EntityManagerFactoryToJsonObjectFunction {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final String tableName;
+    private final Path outputFile;
+    private final Optional<String> keyColumnOption;
+    private final ExportFormat exportFormat;
+    private final QueryOptions queryOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final PartitioningOptions partitioningOptions;
+
+    public ExportTablePartitioned(
+            String tableName,
+            Path outputFile,
+            Optional<String> keyColumnOption,
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            ConcurrencyOptions concurrencyOptions,
+            PartitioningOptions partitioningOptions
+    ) {
+        this.tableName = checkNameWrtSqlInjection(tableName);
+        this.outputFile = outputFile;
+        this.keyColumnOption = keyColumnOption.map(ExportTablePartitioned::checkNameWrtSqlInjection);
+        this.exportFormat = exportFormat;
+        this.queryOptions = queryOptions;
+        this.concurrencyOptions = concurrencyOptions;
+        this.partitioningOptions = partitioningOptions;
+    }
+
+    private record KeyRange(Optional<Object> lowerBound, Optional<Object> upperBound, boolean includesNullKeys) {
+    }
+
+    private record PartitionPlan(String keyColumn, List<KeyRange> keyRanges) {
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        int partitionCount = (partitioningOptions.partitionCount() > 0) ?
+                partitioningOptions.partitionCount() :
+                concurrencyOptions.maxConcurrency();
+
+        PartitionPlan partitionPlan = emf.callInTransaction(
+                EntityAgent.class,
+                entityAgent -> entityAgent.callWithConnection((Connection conn) -> planPartitions(conn, partitionCount))
+        );
+        List<KeyRange> keyRanges = partitionPlan.keyRanges();
+
+        List<Path> partFiles = IntStream.range(0, keyRanges.size())
+                .mapToObj(i -> outputFile.resolveSibling(outputFile.getFileName() + ".part" + i))
+                .toList();
+
+        List<Long> rowCounts;
+        long fileSize;
+        try {
+            Path parentDirectory = outputFile.toAbsolutePath().getParent();
+            if (parentDirectory != null) {
+                Files.createDirectories(parentDirectory);
+            }
+
+            rowCounts = ConcurrentTasks.invokeAll(
+                    IntStream.range(0, keyRanges.size())
+                            .mapToObj(i -> (Callable<Long>) () -> exportKeyRange(
+                                    emf, partitionPlan.keyColumn(), keyRanges.get(i), partFiles.get(i)))
+                            .toList(),
+                    concurrencyOptions.maxConcurrency()
+            );
+
+            mergePartFiles(partFiles);
+            fileSize = Files.size(outputFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            partFiles.forEach(ExportTablePartitioned::deletePartFile);
+        }
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+        JsonArrayBuilder keyRangesJsonArr = jsonProvider.createArrayBuilder();
+        for (int i = 0; i < keyRanges.size(); i++) {
+            KeyRange keyRange = keyRanges.get(i);
+            keyRangesJsonArr.add(
+                    jsonProvider.createObjectBuilder()
+                            .add("lowerBound", keyRange.lowerBound().map(String::valueOf).orElse("-"))
+                            .add("upperBound", keyRange.upperBound().map(String::valueOf).orElse("-"))
+                            .add("rowCount", rowCounts.get(i))
+            );
+        }
+
+        return jsonProvider.createObjectBuilder()
+                .add("tableName", tableName)
+                .add("keyColumn", partitionPlan.keyColumn())
+                .add("file", outputFile.toString())
+                .add("fileSize", fileSize)
+                .add("exportFormat", exportFormat.name())
+                .add("ordered", partitioningOptions.ordered())
+                .add("maxConcurrency", concurrencyOptions.maxConcurrency())
+                .add("rowCount", rowCounts.stream().mapToLong(Long::longValue).sum())
+                .add("keyRanges", keyRangesJsonArr)
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .build();
+    }
+
+    private PartitionPlan planPartitions(Connection connection, int partitionCount) throws SQLException {
+        String keyColumn = keyColumnOption.isPresent() ?
+                keyColumnOption.get() :
+                findPrimaryKeyColumn(connection.getMetaData());
+
+        List<Object> boundaries = switch (partitioningOptions.boundaryStrategy()) {
+            case MIN_MAX -> findMinMaxBoundaries(connection, keyColumn, partitionCount);
+            case NTILE -> findNtileBoundaries(connection, keyColumn, partitionCount);
+        };
+
+        List<KeyRange> keyRanges = new ArrayList<>();
+        for (int i = 0; i <= boundaries.size(); i++) {
+            keyRanges.add(
+                    new KeyRange(
+                            (i == 0) ? Optional.empty() : Optional.of(boundaries.get(i - 1)),
+                            (i == boundaries.size()) ? Optional.empty() : Optional.of(boundaries.get(i)),
+                            i == 0
+                    )
+            );
+        }
+        return new PartitionPlan(keyColumn, List.copyOf(keyRanges));
+    }
+
+    private String findPrimaryKeyColumn(DatabaseMetaData metaData) throws SQLException {
+        return PrimaryKeys.findPrimaryKeyColumns(metaData, tableName).stream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("No primary key found for table '%s'", tableName)));
+    }
+
+    private List<Object> findMinMaxBoundaries(Connection connection, String keyColumn, int partitionCount)
+            throws SQLException {
+        String sql = String.format("select min(%s), max(%s) from %s", keyColumn, keyColumn, tableName);
+
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, QueryOptions.DEFAULT);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            ColumnType columnType = ColumnType.from(rs.getMetaData(), 1);
+
+            Stream<Object> boundaries = switch (columnType) {
+                case LONG, DECIMAL -> {
+                    BigDecimal min = rs.getBigDecimal(1);
+                    BigDecimal max = rs.getBigDecimal(2);
+                    if (min == null || max == null) {
+                        yield Stream.empty();
+                    }
+                    BigDecimal width = max.subtract(min);
+                    Stream<BigDecimal> decimals = IntStream.range(1, partitionCount)
+                            .mapToObj(i -> min.add(
+                                    width.multiply(BigDecimal.valueOf(i))
+                                            .divide(BigDecimal.valueOf(partitionCount), width.scale(), RoundingMode.FLOOR)));
+                    yield (columnType == ColumnType.LONG) ? decimals.map(BigDecimal::longValueExact) : decimals.map(v -> v);
+                }
+                // Using java.time values, so that the boundaries are not shifted by the JVM's default time zone
+                case DATE -> {
+                    LocalDate min = rs.getObject(1, LocalDate.class);
+                    LocalDate max = rs.getObject(2, LocalDate.class);
+                    if (min == null || max == null) {
+                        yield Stream.empty();
+                    }
+                    long days = ChronoUnit.DAYS.between(min, max);
+                    yield IntStream.range(1, partitionCount).mapToObj(i -> min.plusDays(days * i / partitionCount));
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime min = rs.getObject(1, LocalDateTime.class);
+                    LocalDateTime max = rs.getObject(2, LocalDateTime.class);
+                    if (min == null || max == null) {
+                        yield Stream.empty();
+                    }
+                    Duration width = Duration.between(min, max);
+                    yield IntStream.range(1, partitionCount)
+                            .mapToObj(i -> min.plus(width.multipliedBy(i).dividedBy(partitionCount)));
+                }
+                default -> throw new IllegalArgumentException(String.format(
+                        "Key column '%s' is not numeric or temporal. Use boundary strategy 'ntile' instead",
+                        keyColumn));
+            };
+            // Narrow key ranges may lead to duplicate boundaries
+            return boundaries.distinct().toList();
+        }
+    }
+
+    private List<Object> findNtileBoundaries(Connection connection, String keyColumn, int partitionCount)
+            throws SQLException {
+        String sql = String.format(
+                "select min(%s) from (select %s, ntile(%d) over (order by %s) as bucket from %s) t group by bucket order by 1",
+                keyColumn, keyColumn, partitionCount, keyColumn, tableName);
+
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, QueryOptions.DEFAULT);
+             ResultSet rs = ps.executeQuery()) {
+            List<Object> lowerBounds = new ArrayList<>();
+            while (rs.next()) {
+                Object value = rs.getObject(1);
+                if (value != null) {
+                    lowerBounds.add(value);
+                }
+            }
+            // The lower bound of the first bucket is the minimum key value, which is no boundary
+            return lowerBounds.stream().skip(1).distinct().toList();
+        }
+    }
+
+    private long exportKeyRange(EntityManagerFactory emf, String keyColumn, KeyRange keyRange, Path partFile) {
+        return emf.callInTransaction(
+                EntityAgent.class,
+                entityAgent -> entityAgent.callWithConnection(
+                        (Connection conn) -> Connections.callWithoutAutoCommit(
+                                conn,
+                                c -> exportKeyRange(c, keyColumn, keyRange, partFile)))
+        );
+    }
+
+    private long exportKeyRange(Connection connection, String keyColumn, KeyRange keyRange, Path partFile)
+            throws SQLException, IOException, XMLStreamException {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        keyRange.lowerBound().ifPresent(bound -> {
+            conditions.add(keyColumn + " >= ?");
+            parameters.add(bound);
+        });
+        keyRange.upperBound().ifPresent(bound -> {
+            conditions.add(keyColumn + " < ?");
+            parameters.add(bound);
+        });
+
+        String whereClause = "";
+        if (!conditions.isEmpty()) {
+            String condition = String.join(" and ", conditions);
+            whereClause = keyRange.includesNullKeys() ?
+                    String.format(" where (%s or %s is null)", condition, keyColumn) :
+                    " where " + condition;
+        }
+        String sql = "select * from " + tableName + whereClause +
+                (partitioningOptions.ordered() ? " order by " + keyColumn : "");
+
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, queryOptions)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+
+            try (ResultSet rs = ps.executeQuery();
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(partFile), OUTPUT_BUFFER_SIZE)) {
+                RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+
+                return switch (exportFormat) {
+                    case JSON -> writeJsonArray(rs, rowEncoder, out);
+                    case XML -> writeXmlRowElements(rs, rowEncoder, out);
+                };
+            }
+        }
+    }
+
+    private static long writeJsonArray(ResultSet rs, RowEncoder rowEncoder, OutputStream out) throws SQLException {
+        // Not closing the JsonGenerator, because that would close the output stream
+        JsonGenerator jsonGenerator = JsonProvider.provider().createGenerator(out);
+        JsonGeneratorColumnValueWriter columnValueWriter = new JsonGeneratorColumnValueWriter(rowEncoder, jsonGenerator);
+        long rowCount = 0;
+
+        jsonGenerator.writeStartArray();
+        while (rs.next()) {
+            jsonGenerator.writeStartObject();
+            rowEncoder.encodeRow(rs, columnValueWriter);
+            jsonGenerator.writeEnd();
+            rowCount += 1;
+        }
+        jsonGenerator.writeEnd();
+        jsonGenerator.flush();
+        return rowCount;
+    }
+
+    private static long writeXmlRowElements(ResultSet rs, RowEncoder rowEncoder, OutputStream out)
+            throws SQLException, XMLStreamException {
+        // Writing an XML fragment, without document element
+        XMLStreamWriter xmlStreamWriter = XMLOutputFactory.newFactory().createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        XmlStreamColumnValueWriter columnValueWriter = new XmlStreamColumnValueWriter(rowEncoder, xmlStreamWriter);
+        long rowCount = 0;
+
+        while (rs.next()) {
+            xmlStreamWriter.writeStartElement("row");
+            rowEncoder.encodeRow(rs, columnValueWriter);
+            xmlStreamWriter.writeEndElement();
+            rowCount += 1;
+        }
+        // Closing the XMLStreamWriter does not close the underlying output stream
+        xmlStreamWriter.close();
+        return rowCount;
+    }
+
+    private void mergePartFiles(List<Path> partFiles) throws IOException {
+        String header = switch (exportFormat) {
+            case JSON -> "{\"rows\":[";
+            case XML -> "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rows>";
+        };
+        String footer = switch (exportFormat) {
+            case JSON -> "]}";
+            case XML -> "</rows>";
+        };
+
+        try (FileChannel outChannel = FileChannel.open(
+                outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(outChannel, header);
+            boolean isFirstNonEmptyPart = true;
+
+            for (Path partFile : partFiles) {
+                try (FileChannel inChannel = FileChannel.open(partFile, StandardOpenOption.READ)) {
+                    // For JSON, each part file contains one array, whose brackets are skipped
+                    long skippedPrefixLength = (exportFormat == ExportFormat.JSON) ? 1 : 0;
+                    long contentLength = inChannel.size() - 2 * skippedPrefixLength;
+
+                    if (contentLength > 0) {
+                        if (exportFormat == ExportFormat.JSON && !isFirstNonEmptyPart) {
+                            writeFully(outChannel, ",");
+                        }
+                        transferFully(inChannel, skippedPrefixLength, contentLength, outChannel);
+                        isFirstNonEmptyPart = false;
+                    }
+                }
+            }
+
+            writeFully(outChannel, footer);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void transferFully(FileChannel inChannel, long position, long count, FileChannel outChannel)
+            throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            transferred += inChannel.transferTo(position + transferred, count - transferred, outChannel);
+        }
+    }
+
+    private static void deletePartFile(Path partFile) {
+        try {
+            Files.deleteIfExists(partFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String checkNameWrtSqlInjection(String name) {
+        if (name.chars().anyMatch(Character::isWhitespace)) {
+            throw new RuntimeException("Name with whitespace not allowed (to prevent SQL injection)");
+        } else {
+            return name;
+        }
+    }
+}
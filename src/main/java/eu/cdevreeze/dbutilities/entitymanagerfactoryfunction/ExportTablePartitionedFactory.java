@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PartitioningOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link ExportTablePartitioned} objects. The arguments are the table name, the output file,
+ * and optionally the key column.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTablePartitionedFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final ExportFormat exportFormat;
+    private final QueryOptions queryOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final PartitioningOptions partitioningOptions;
+
+    public ExportTablePartitionedFactory(
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            ConcurrencyOptions concurrencyOptions,
+            PartitioningOptions partitioningOptions
+    ) {
+        this.exportFormat = exportFormat;
+        this.queryOptions = queryOptions;
+        this.concurrencyOptions = concurrencyOptions;
+        this.partitioningOptions = partitioningOptions;
+    }
+
+    public ExportTablePartitionedFactory() {
+        this(ExportFormat.JSON, QueryOptions.DEFAULT, ConcurrencyOptions.DEFAULT, PartitioningOptions.DEFAULT);
+    }
+
+    @Override
+    public ExportTablePartitioned apply(List<String> args) {
+        Objects.checkIndex(1, args.size());
+        String tableName = Objects.requireNonNull(args.get(0));
+        Path outputFile = FunctionArguments.toPath(args.get(1));
+        Optional<String> keyColumnOption = args.stream().skip(2).findFirst();
+        return new ExportTablePartitioned(
+                tableName,
+                outputFile,
+                keyColumnOption,
+                exportFormat,
+                queryOptions,
+                concurrencyOptions,
+                partitioningOptions
+        );
+    }
+}
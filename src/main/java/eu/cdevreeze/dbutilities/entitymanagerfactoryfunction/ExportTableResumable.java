@@ -0,0 +1,403 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import module java.xml;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ColumnType;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.JsonGeneratorColumnValueWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.PreparedStatements;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowEncoder;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.XmlStreamColumnValueWriter;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PaginationOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PrimaryKeys;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonWriter;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that exports all data of one table to one file, using
+ * keyset pagination. That is, the table is read page by page, ordered by a unique key column, each page
+ * starting after the last key of the previous page. Each page is retrieved in its own short transaction,
+ * so no long-running snapshot is held in the database.
+ * <p>
+ * After each page has been appended to the output file, a checkpoint file (the output file name followed by
+ * ".checkpoint") is written, containing the last key and the output file size. If the export fails, running
+ * it again resumes from the checkpoint, after truncating the output file to the checkpointed size. When the
+ * export is complete, the checkpoint file is removed.
+ * <p>
+ * The key column is the given column, or else the primary key column, which must be a single column.
+ * A given key column must be unique and not null. Supported key column types are integral and decimal
+ * numbers, dates, timestamps and strings. The output has the same format as the output of {@link ExportTables}.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTableResumable implements EntityManagerFactoryToJsonObjectFunction {
+
+    private final String tableName;
+    private final Path outputFile;
+    private final Optional<String> keyColumnOption;
+    private final ExportFormat exportFormat;
+    private final QueryOptions queryOptions;
+    private final PaginationOptions paginationOptions;
+
+    public ExportTableResumable(
+            String tableName,
+            Path outputFile,
+            Optional<String> keyColumnOption,
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            PaginationOptions paginationOptions
+    ) {
+        this.tableName = checkNameWrtSqlInjection(tableName);
+        this.outputFile = outputFile;
+        this.keyColumnOption = keyColumnOption.map(ExportTableResumable::checkNameWrtSqlInjection);
+        this.exportFormat = exportFormat;
+        this.queryOptions = queryOptions;
+        this.paginationOptions = paginationOptions;
+    }
+
+    /**
+     * The state of the export after writing a page. The last key is absent if no row has been exported yet.
+     */
+    private record Checkpoint(String keyColumn, Optional<Object> lastKey, long rowCount, long fileSize) {
+    }
+
+    private record Page(byte[] content, long rowCount, Optional<Object> lastKey) {
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+        Path checkpointFile = outputFile.resolveSibling(outputFile.getFileName() + ".checkpoint");
+
+        try {
+            Optional<Checkpoint> savedCheckpoint = Files.exists(checkpointFile) ?
+                    Optional.of(readCheckpoint(checkpointFile)) :
+                    Optional.empty();
+
+            String keyColumn = savedCheckpoint.isPresent() ?
+                    savedCheckpoint.get().keyColumn() :
+                    findKeyColumn(emf);
+
+            Checkpoint checkpoint;
+            long resumedRowCount = savedCheckpoint.map(Checkpoint::rowCount).orElse(0L);
+            int pageCount = 0;
+
+            try (FileChannel outChannel = openOutputFile(savedCheckpoint)) {
+                checkpoint = savedCheckpoint.orElse(
+                        new Checkpoint(keyColumn, Optional.empty(), 0, writeFully(outChannel, getHeader()))
+                );
+
+                while (true) {
+                    Checkpoint currentCheckpoint = checkpoint;
+                    Page page = emf.callInTransaction(
+                            EntityAgent.class,
+                            entityAgent -> entityAgent.callWithConnection(
+                                    (Connection conn) -> Connections.callWithoutAutoCommit(
+                                            conn,
+                                            c -> fetchPage(c, keyColumn, currentCheckpoint.lastKey())))
+                    );
+
+                    if (page.rowCount() == 0) {
+                        break;
+                    }
+
+                    if (exportFormat == ExportFormat.JSON && checkpoint.rowCount() > 0) {
+                        writeFully(outChannel, ",".getBytes(StandardCharsets.UTF_8));
+                    }
+                    writeFully(outChannel, page.content());
+                    // The checkpoint must never be ahead of the data in the output file
+                    outChannel.force(false);
+
+                    checkpoint = new Checkpoint(
+                            keyColumn,
+                            page.lastKey(),
+                            checkpoint.rowCount() + page.rowCount(),
+                            outChannel.position()
+                    );
+                    writeCheckpoint(checkpoint, checkpointFile);
+                    pageCount += 1;
+
+                    if (page.rowCount() < paginationOptions.pageSize()) {
+                        break;
+                    }
+                }
+
+                writeFully(outChannel, getFooter());
+                outChannel.force(false);
+            }
+
+            Files.deleteIfExists(checkpointFile);
+
+            return JsonProvider.provider().createObjectBuilder()
+                    .add("tableName", tableName)
+                    .add("keyColumn", keyColumn)
+                    .add("file", outputFile.toString())
+                    .add("fileSize", Files.size(outputFile))
+                    .add("exportFormat", exportFormat.name())
+                    .add("pageSize", paginationOptions.pageSize())
+                    .add("resumed", savedCheckpoint.isPresent())
+                    .add("resumedAfterRowCount", resumedRowCount)
+                    .add("pageCount", pageCount)
+                    .add("rowCount", checkpoint.rowCount())
+                    .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String findKeyColumn(EntityManagerFactory emf) {
+        if (keyColumnOption.isPresent()) {
+            return keyColumnOption.get();
+        }
+
+        List<String> primaryKeyColumns = emf.callInTransaction(
+                EntityAgent.class,
+                entityAgent -> entityAgent.callWithConnection(
+                        (Connection conn) -> PrimaryKeys.findPrimaryKeyColumns(conn.getMetaData(), tableName))
+        );
+
+        if (primaryKeyColumns.size() != 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Table '%s' has no single-column primary key. Pass the key column explicitly", tableName));
+        }
+        return primaryKeyColumns.getFirst();
+    }
+
+    private FileChannel openOutputFile(Optional<Checkpoint> savedCheckpoint) throws IOException {
+        Path parentDirectory = outputFile.toAbsolutePath().getParent();
+        if (parentDirectory != null) {
+            Files.createDirectories(parentDirectory);
+        }
+
+        if (savedCheckpoint.isPresent()) {
+            if (!Files.exists(outputFile) || Files.size(outputFile) < savedCheckpoint.get().fileSize()) {
+                throw new IllegalStateException(String.format(
+                        "Output file '%s' does not match the checkpoint. Remove the checkpoint to start all over",
+                        outputFile));
+            }
+            FileChannel channel = FileChannel.open(outputFile, StandardOpenOption.WRITE);
+            // Discarding anything written after the last checkpoint
+            channel.truncate(savedCheckpoint.get().fileSize());
+            channel.position(savedCheckpoint.get().fileSize());
+            return channel;
+        } else {
+            return FileChannel.open(
+                    outputFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+    }
+
+    private Page fetchPage(Connection connection, String keyColumn, Optional<Object> lastKey)
+            throws SQLException, XMLStreamException {
+        String sql = "select * from " + tableName +
+                (lastKey.isPresent() ? " where " + keyColumn + " > ?" : "") +
+                " order by " + keyColumn +
+                " fetch first " + paginationOptions.pageSize() + " rows only";
+
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, queryOptions)) {
+            if (lastKey.isPresent()) {
+                setKeyParameter(ps, lastKey.get());
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                RowEncoder rowEncoder = RowEncoder.from(rs.getMetaData());
+                int keyColumnIndex = findColumnIndex(rowEncoder, keyColumn);
+                ColumnType keyColumnType = rowEncoder.getColumnType(keyColumnIndex);
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                long rowCount = 0;
+                Optional<Object> currentKey = Optional.empty();
+
+                switch (exportFormat) {
+                    case JSON -> {
+                        JsonGenerator jsonGenerator = JsonProvider.provider().createGenerator(out);
+                        JsonGeneratorColumnValueWriter columnValueWriter =
+                                new JsonGeneratorColumnValueWriter(rowEncoder, jsonGenerator);
+
+                        jsonGenerator.writeStartArray();
+                        while (rs.next()) {
+                            jsonGenerator.writeStartObject();
+                            rowEncoder.encodeRow(rs, columnValueWriter);
+                            jsonGenerator.writeEnd();
+                            currentKey = Optional.of(getKey(rs, keyColumnIndex, keyColumnType));
+                            rowCount += 1;
+                        }
+                        jsonGenerator.writeEnd();
+                        jsonGenerator.close();
+                    }
+                    case XML -> {
+                        // Writing an XML fragment, without document element
+                        XMLStreamWriter xmlStreamWriter =
+                                XMLOutputFactory.newFactory().createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+                        XmlStreamColumnValueWriter columnValueWriter =
+                                new XmlStreamColumnValueWriter(rowEncoder, xmlStreamWriter);
+
+                        while (rs.next()) {
+                            xmlStreamWriter.writeStartElement("row");
+                            rowEncoder.encodeRow(rs, columnValueWriter);
+                            xmlStreamWriter.writeEndElement();
+                            currentKey = Optional.of(getKey(rs, keyColumnIndex, keyColumnType));
+                            rowCount += 1;
+                        }
+                        xmlStreamWriter.close();
+                    }
+                }
+
+                byte[] bytes = out.toByteArray();
+                // For JSON, the page is one array, whose brackets are skipped
+                byte[] content = (exportFormat == ExportFormat.JSON) ?
+                        Arrays.copyOfRange(bytes, 1, bytes.length - 1) :
+                        bytes;
+                return new Page(content, rowCount, currentKey);
+            }
+        }
+    }
+
+    private static int findColumnIndex(RowEncoder rowEncoder, String columnName) {
+        for (int i = 0; i < rowEncoder.getColumnCount(); i++) {
+            if (rowEncoder.getColumnLabel(i).equalsIgnoreCase(columnName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Key column '%s' not found in query result", columnName));
+    }
+
+    /**
+     * Returns the key value of the current row, as Long, BigDecimal, LocalDate, LocalDateTime or String.
+     */
+    private static Object getKey(ResultSet rs, int keyColumnIndex, ColumnType keyColumnType) throws SQLException {
+        int column = keyColumnIndex + 1;
+        return switch (keyColumnType) {
+            case LONG -> rs.getLong(column);
+            case DECIMAL -> rs.getBigDecimal(column);
+            // Not going through java.sql.Date and Timestamp, which depend on the JVM default time zone
+            case DATE -> rs.getObject(column, LocalDate.class);
+            case TIMESTAMP -> rs.getObject(column, LocalDateTime.class);
+            case STRING -> rs.getString(column);
+            default -> throw new IllegalArgumentException("Unsupported key column type: " + keyColumnType);
+        };
+    }
+
+    private static void setKeyParameter(PreparedStatement ps, Object key) throws SQLException {
+        switch (key) {
+            case Long v -> ps.setLong(1, v);
+            case BigDecimal v -> ps.setBigDecimal(1, v);
+            case LocalDate v -> ps.setObject(1, v);
+            case LocalDateTime v -> ps.setObject(1, v);
+            case String v -> ps.setString(1, v);
+            default -> throw new IllegalArgumentException("Unsupported key type: " + key.getClass());
+        }
+    }
+
+    private static Object parseKey(String keyType, String key) {
+        return switch (keyType) {
+            case "Long" -> Long.parseLong(key);
+            case "BigDecimal" -> new BigDecimal(key);
+            case "LocalDate" -> LocalDate.parse(key);
+            case "LocalDateTime" -> LocalDateTime.parse(key);
+            case "String" -> key;
+            default -> throw new IllegalArgumentException("Unsupported key type: " + keyType);
+        };
+    }
+
+    private Checkpoint readCheckpoint(Path checkpointFile) throws IOException {
+        try (JsonReader jsonReader = JsonProvider.provider().createReader(Files.newBufferedReader(checkpointFile))) {
+            JsonObject json = jsonReader.readObject();
+
+            if (!json.getString("tableName").equals(tableName) ||
+                    !json.getString("exportFormat").equals(exportFormat.name())) {
+                throw new IllegalStateException(String.format(
+                        "Checkpoint '%s' belongs to another export. Remove the checkpoint to start all over",
+                        checkpointFile));
+            }
+
+            return new Checkpoint(
+                    json.getString("keyColumn"),
+                    json.containsKey("lastKey") ?
+                            Optional.of(parseKey(json.getString("lastKeyType"), json.getString("lastKey"))) :
+                            Optional.empty(),
+                    json.getJsonNumber("rowCount").longValue(),
+                    json.getJsonNumber("fileSize").longValue()
+            );
+        }
+    }
+
+    private void writeCheckpoint(Checkpoint checkpoint, Path checkpointFile) throws IOException {
+        var jsonBuilder = JsonProvider.provider().createObjectBuilder()
+                .add("tableName", tableName)
+                .add("exportFormat", exportFormat.name())
+                .add("keyColumn", checkpoint.keyColumn())
+                .add("rowCount", checkpoint.rowCount())
+                .add("fileSize", checkpoint.fileSize());
+        checkpoint.lastKey().ifPresent(key -> jsonBuilder
+                .add("lastKeyType", key.getClass().getSimpleName())
+                .add("lastKey", key.toString()));
+
+        // Writing the checkpoint atomically, so a crash never leaves a partial checkpoint behind
+        Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (JsonWriter jsonWriter = JsonProvider.provider().createWriter(Files.newBufferedWriter(tempFile))) {
+            jsonWriter.writeObject(jsonBuilder.build());
+        }
+        Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private byte[] getHeader() {
+        return switch (exportFormat) {
+            case JSON -> "{\"rows\":[".getBytes(StandardCharsets.UTF_8);
+            case XML -> "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rows>".getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    private byte[] getFooter() {
+        return switch (exportFormat) {
+            case JSON -> "]}".getBytes(StandardCharsets.UTF_8);
+            case XML -> "</rows>".getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    /**
+     * Writes the bytes to the file channel, and returns the resulting position in the file.
+     */
+    private static long writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return channel.position();
+    }
+
+    private static String checkNameWrtSqlInjection(String name) {
+        if (name.chars().anyMatch(Character::isWhitespace)) {
+            throw new RuntimeException("Name with whitespace not allowed (to prevent SQL injection)");
+        } else {
+            return name;
+        }
+    }
+}
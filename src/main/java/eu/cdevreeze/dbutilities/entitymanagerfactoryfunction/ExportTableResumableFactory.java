@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.PaginationOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link ExportTableResumable} objects. The arguments are the table name, the output file,
+ * and optionally the key column.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTableResumableFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final ExportFormat exportFormat;
+    private final QueryOptions queryOptions;
+    private final PaginationOptions paginationOptions;
+
+    public ExportTableResumableFactory(
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            PaginationOptions paginationOptions
+    ) {
+        this.exportFormat = exportFormat;
+        this.queryOptions = queryOptions;
+        this.paginationOptions = paginationOptions;
+    }
+
+    public ExportTableResumableFactory() {
+        this(ExportFormat.JSON, QueryOptions.DEFAULT, PaginationOptions.DEFAULT);
+    }
+
+    @Override
+    public ExportTableResumable apply(List<String> args) {
+        Objects.checkIndex(1, args.size());
+        String tableName = Objects.requireNonNull(args.get(0));
+        Path outputFile = FunctionArguments.toPath(args.get(1));
+        Optional<String> keyColumnOption = args.stream().skip(2).findFirst();
+        return new ExportTableResumable(
+                tableName,
+                outputFile,
+                keyColumnOption,
+                exportFormat,
+                queryOptions,
+                paginationOptions
+        );
+    }
+}
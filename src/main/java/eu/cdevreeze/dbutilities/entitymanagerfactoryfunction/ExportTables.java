@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import module java.xml;
+import eu.cdevreeze.dbutilities.entityagentfunction.SelectAllFromTable;
+import eu.cdevreeze.dbutilities.entityagentfunction.SelectAllFromTableAsXml;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.TableNames;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that exports all data of the given tables concurrently,
+ * writing one output file per table. Each table is exported in its own transaction on its own database
+ * connection, in a virtual thread. The maximum number of tables exported at the same time is taken from
+ * the {@link ConcurrencyOptions}.
+ * <p>
+ * Table names containing a "%" are treated as (optionally schema-qualified) table name patterns, which are
+ * resolved against the database metadata. For example, "HR.%" stands for all tables in schema HR.
+ * <p>
+ * The returned JSON object summarizes the export. A table whose export failed is reported with the error,
+ * without affecting the export of the other tables.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTables implements EntityManagerFactoryToJsonObjectFunction {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final List<String> tableNamesOrPatterns;
+    private final Path outputDirectory;
+    private final ExportFormat exportFormat;
+    private final QueryOptions queryOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+
+    public ExportTables(
+            List<String> tableNamesOrPatterns,
+            Path outputDirectory,
+            ExportFormat exportFormat,
+            QueryOptions queryOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        this.tableNamesOrPatterns = List.copyOf(tableNamesOrPatterns);
+        this.outputDirectory = outputDirectory;
+        this.exportFormat = exportFormat;
+        this.queryOptions = queryOptions;
+        this.concurrencyOptions = concurrencyOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        List<String> tableNames = emf.callInTransaction(EntityAgent.class, this::resolveTableNames);
+
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        List<JsonObject> tableResults = ConcurrentTasks.invokeAll(
+                tableNames.stream()
+                        .map(tableName -> (Callable<JsonObject>) () -> exportTable(emf, tableName, jsonProvider))
+                        .toList(),
+                concurrencyOptions.maxConcurrency()
+        );
+
+        JsonArrayBuilder tablesJsonArr = jsonProvider.createArrayBuilder();
+        tableResults.forEach(tablesJsonArr::add);
+
+        return jsonProvider.createObjectBuilder()
+                .add("outputDirectory", outputDirectory.toString())
+                .add("exportFormat", exportFormat.name())
+                .add("maxConcurrency", concurrencyOptions.maxConcurrency())
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .add("tables", tablesJsonArr)
+                .build();
+    }
+
+    private JsonObject exportTable(EntityManagerFactory emf, String tableName, JsonProvider jsonProvider) {
+        long startTime = System.nanoTime();
+        Path file = outputDirectory.resolve(tableName + "." + exportFormat.getFileExtension());
+
+        JsonObjectBuilder result = jsonProvider.createObjectBuilder()
+                .add("tableName", tableName)
+                .add("file", file.toString());
+
+        try {
+            emf.runInTransaction(EntityAgent.class, entityAgent -> exportTable(entityAgent, tableName, file, jsonProvider));
+
+            result.add("fileSize", Files.size(file));
+        } catch (Exception e) {
+            result.add("error", String.valueOf(e));
+        }
+
+        return result
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .build();
+    }
+
+    private void exportTable(EntityAgent entityAgent, String tableName, Path file, JsonProvider jsonProvider) {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), OUTPUT_BUFFER_SIZE)) {
+            switch (exportFormat) {
+                case JSON -> {
+                    JsonGenerator jsonGenerator = jsonProvider.createGenerator(out);
+                    new SelectAllFromTable(tableName, queryOptions).writeTo(entityAgent, jsonGenerator);
+                    jsonGenerator.flush();
+                }
+                case XML -> {
+                    XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newFactory();
+                    // Closing the XMLStreamWriter does not close the underlying output stream
+                    XMLStreamWriter xmlStreamWriter = xmlOutputFactory.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+                    xmlStreamWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+                    new SelectAllFromTableAsXml(tableName, queryOptions).writeTo(entityAgent, xmlStreamWriter);
+                    xmlStreamWriter.writeEndDocument();
+                    xmlStreamWriter.close();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (XMLStreamException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<String> resolveTableNames(EntityAgent entityAgent) {
+        return entityAgent.callWithConnection((Connection conn) ->
+                TableNames.resolveTableNames(conn.getMetaData(), tableNamesOrPatterns));
+    }
+}
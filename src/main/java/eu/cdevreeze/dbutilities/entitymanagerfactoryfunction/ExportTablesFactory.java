@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ExportFormat;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link ExportTables} objects. The first argument is the output directory, and the remaining
+ * arguments are the table names or table name patterns.
+ *
+ * @author Chris de Vreeze
+ */
+public final class ExportTablesFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final ExportFormat exportFormat;
+    private final QueryOptions queryOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+
+    public ExportTablesFactory(ExportFormat exportFormat, QueryOptions queryOptions, ConcurrencyOptions concurrencyOptions) {
+        this.exportFormat = exportFormat;
+        this.queryOptions = queryOptions;
+        this.concurrencyOptions = concurrencyOptions;
+    }
+
+    public ExportTablesFactory() {
+        this(ExportFormat.JSON, QueryOptions.DEFAULT, ConcurrencyOptions.DEFAULT);
+    }
+
+    @Override
+    public ExportTables apply(List<String> args) {
+        Objects.checkIndex(1, args.size());
+        Path outputDirectory = FunctionArguments.toPath(args.getFirst());
+        List<String> tableNamesOrPatterns = args.subList(1, args.size());
+        return new ExportTables(tableNamesOrPatterns, outputDirectory, exportFormat, queryOptions, concurrencyOptions);
+    }
+}
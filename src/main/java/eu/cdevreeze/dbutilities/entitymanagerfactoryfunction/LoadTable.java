@@ -0,0 +1,374 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.GetTableColumnsMetaData;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ColumnType;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.ColumnValueWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.InputFormat;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.InputRecordReader;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowCounts;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.LoadOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that loads the records of an NDJSON or CSV file (see
+ * {@link InputRecordReader}) into a table, for example to reload a test database from exports created by this
+ * project.
+ * <p>
+ * The fields of the first record (or the CSV header) are mapped to the table's columns, as returned by
+ * {@link GetTableColumnsMetaData}, by exact column name, or otherwise case-insensitively. Generated columns are
+ * skipped, and fields without matching column make the function fail. Field values are parsed according to the
+ * column type, in the formats written by {@link ColumnValueWriter} (so binary values in Base64, for example).
+ * Boolean values must be "true", "false", "1" or "0". Missing and null fields are inserted as SQL null.
+ * <p>
+ * The rows are inserted with JDBC batches (see {@link LoadOptions}), which the Oracle driver sends as array DML,
+ * and which the PostgreSQL driver rewrites to multi-row inserts if config property
+ * "postgresql.reWriteBatchedInserts" is true. The input is read once, in batches, by at most the maximum
+ * concurrency (see {@link ConcurrencyOptions}) of writer connections. Each writer commits after (at least) the
+ * commit interval of rows, so a failed load leaves the rows committed so far in the table.
+ * <p>
+ * The returned JSON object summarizes the load. If an insert fails, the function fails.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class LoadTable implements EntityManagerFactoryToJsonObjectFunction {
+
+    /**
+     * Input record field mapped to a table column.
+     */
+    private record TargetColumn(String fieldName, String columnName, int jdbcType, ColumnType columnType) {
+    }
+
+    private final String tableName;
+    private final Optional<String> schemaName;
+    private final Path inputFile;
+    private final MetaDataOptions metaDataOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final LoadOptions loadOptions;
+
+    public LoadTable(
+            String tableName,
+            Optional<String> schemaName,
+            Path inputFile,
+            MetaDataOptions metaDataOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions,
+            LoadOptions loadOptions
+    ) {
+        this.tableName = RowCounts.checkTableNameWrtSqlInjection(tableName);
+        this.schemaName = schemaName.map(RowCounts::checkTableNameWrtSqlInjection);
+        this.inputFile = inputFile;
+        this.metaDataOptions = metaDataOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+        this.loadOptions = loadOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        GetTableColumnsMetaData getTableColumnsMetaData =
+                new GetTableColumnsMetaData(tableName, schemaName, metaDataOptions);
+        JsonObject tableColumnsMetaData = emf.callInTransaction(EntityAgent.class, getTableColumnsMetaData::apply);
+        List<JsonObject> columns = findColumns(tableColumnsMetaData);
+
+        try (InputRecordReader reader = InputRecordReader.open(
+                inputFile,
+                InputFormat.fromFileName(inputFile.getFileName().toString()),
+                outputOptions.csvNullValue())) {
+            RecordSource recordSource = new RecordSource(reader);
+
+            List<TargetColumn> targetColumns = recordSource.peek()
+                    .map(firstRecord -> mapFields(firstRecord.keySet(), columns))
+                    .orElse(List.of());
+
+            int connectionCount = concurrencyOptions.maxConcurrency();
+            AtomicInteger transactionCount = new AtomicInteger();
+
+            List<Long> rowCounts = targetColumns.isEmpty() ?
+                    List.of() :
+                    ConcurrentTasks.invokeAll(
+                            IntStream.range(0, connectionCount)
+                                    .mapToObj(_ -> (Callable<Long>) () ->
+                                            loadRecords(emf, recordSource, targetColumns, transactionCount))
+                                    .toList(),
+                            connectionCount
+                    );
+
+            JsonObjectBuilder resultBuilder = jsonProvider.createObjectBuilder().add("tableName", tableName);
+            schemaName.ifPresent(schema -> resultBuilder.add("schemaName", schema));
+            return resultBuilder
+                    .add("inputFile", inputFile.toString())
+                    .add("columns", jsonProvider.createArrayBuilder(
+                            targetColumns.stream().map(TargetColumn::columnName).toList()))
+                    .add("rowCount", rowCounts.stream().mapToLong(Long::longValue).sum())
+                    .add("transactionCount", transactionCount.get())
+                    .add("connectionCount", rowCounts.size())
+                    .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the columns of the table itself, leaving out columns of other tables matching the table name
+     * (as LIKE pattern).
+     */
+    private List<JsonObject> findColumns(JsonObject tableColumnsMetaData) {
+        List<JsonObject> columns = tableColumnsMetaData.getJsonArray("columns").getValuesAs(JsonObject.class).stream()
+                .filter(column -> column.getString("tableName").equalsIgnoreCase(tableName))
+                .toList();
+
+        if (columns.isEmpty()) {
+            throw new RuntimeException(String.format("No columns found for table %s", tableName));
+        }
+        long schemaCount = columns.stream()
+                .map(column -> column.get("tableSchema").toString())
+                .distinct()
+                .count();
+        if (schemaCount > 1) {
+            throw new RuntimeException(String.format("Table %s found in more than one schema; pass the schema name", tableName));
+        }
+        return columns;
+    }
+
+    private List<TargetColumn> mapFields(Set<String> fieldNames, List<JsonObject> columns) {
+        Map<String, JsonObject> columnsByName = columns.stream()
+                .collect(Collectors.toMap(column -> column.getString("columnName"), column -> column));
+        Map<String, JsonObject> columnsByUpperCaseName = columns.stream()
+                .collect(Collectors.toMap(
+                        column -> column.getString("columnName").toUpperCase(Locale.ROOT),
+                        column -> column,
+                        (column1, _) -> column1));
+
+        List<String> unmappedFieldNames = fieldNames.stream()
+                .filter(fieldName -> !columnsByName.containsKey(fieldName) &&
+                        !columnsByUpperCaseName.containsKey(fieldName.toUpperCase(Locale.ROOT)))
+                .toList();
+        if (!unmappedFieldNames.isEmpty()) {
+            throw new RuntimeException(String.format(
+                    "Fields without matching column in table %s: %s", tableName, unmappedFieldNames));
+        }
+
+        return fieldNames.stream()
+                .map(fieldName -> Map.entry(
+                        fieldName,
+                        Optional.ofNullable(columnsByName.get(fieldName))
+                                .orElseGet(() -> columnsByUpperCaseName.get(fieldName.toUpperCase(Locale.ROOT)))))
+                .filter(fieldAndColumn -> !fieldAndColumn.getValue().getString("isGeneratedColumn").equals("YES"))
+                .map(fieldAndColumn -> toTargetColumn(fieldAndColumn.getKey(), fieldAndColumn.getValue()))
+                .toList();
+    }
+
+    private static TargetColumn toTargetColumn(String fieldName, JsonObject column) {
+        int jdbcType = column.getInt("dataType");
+        int scale = column.isNull("decimalDigits") ? 0 : column.getInt("decimalDigits");
+        return new TargetColumn(
+                fieldName,
+                column.getString("columnName"),
+                jdbcType,
+                ColumnType.from(jdbcType, column.getInt("columnSize"), scale)
+        );
+    }
+
+    /**
+     * Loads records, taken from the shared record source, in one transaction per commit interval, until all
+     * records are done, returning the number of rows inserted.
+     */
+    private long loadRecords(
+            EntityManagerFactory emf,
+            RecordSource recordSource,
+            List<TargetColumn> targetColumns,
+            AtomicInteger transactionCount
+    ) {
+        long rowCount = 0;
+        long transactionRowCount;
+        do {
+            transactionRowCount = emf.callInTransaction(
+                    EntityAgent.class,
+                    entityAgent -> entityAgent.callWithConnection((Connection conn) ->
+                            Connections.callWithoutAutoCommit(conn, c -> insertRecords(c, recordSource, targetColumns)))
+            );
+            if (transactionRowCount > 0) {
+                transactionCount.incrementAndGet();
+            }
+            rowCount += transactionRowCount;
+        } while (transactionRowCount > 0);
+        return rowCount;
+    }
+
+    private long insertRecords(Connection connection, RecordSource recordSource, List<TargetColumn> targetColumns)
+            throws SQLException, IOException {
+        long rowCount = 0;
+
+        try (PreparedStatement ps = connection.prepareStatement(insertSql(connection, targetColumns))) {
+            while (rowCount < loadOptions.commitInterval()) {
+                List<JsonObject> batch = recordSource.nextBatch(loadOptions.batchSize());
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                for (JsonObject record : batch) {
+                    bindRecord(ps, record, targetColumns);
+                    ps.addBatch();
+                }
+                // The update counts are not used, because Oracle returns SUCCESS_NO_INFO for batched inserts
+                ps.executeBatch();
+                rowCount += batch.size();
+            }
+        }
+        return rowCount;
+    }
+
+    private String insertSql(Connection connection, List<TargetColumn> targetColumns) throws SQLException {
+        String quote = connection.getMetaData().getIdentifierQuoteString().strip();
+        String qualifiedTableName = schemaName.map(schema -> schema + "." + tableName).orElse(tableName);
+
+        return String.format(
+                "insert into %s (%s) values (%s)",
+                qualifiedTableName,
+                targetColumns.stream()
+                        .map(column -> quote + column.columnName().replace(quote, quote + quote) + quote)
+                        .collect(Collectors.joining(", ")),
+                String.join(", ", Collections.nCopies(targetColumns.size(), "?"))
+        );
+    }
+
+    private void bindRecord(PreparedStatement ps, JsonObject record, List<TargetColumn> targetColumns)
+            throws SQLException {
+        for (int idx = 0; idx < targetColumns.size(); idx++) {
+            TargetColumn column = targetColumns.get(idx);
+            Optional<String> valueOption =
+                    Optional.ofNullable(record.get(column.fieldName())).flatMap(InputRecordReader::toParameterValue);
+
+            // In JDBC, parameters are 1-based
+            if (valueOption.isEmpty()) {
+                ps.setNull(idx + 1, column.jdbcType());
+            } else {
+                try {
+                    setValue(ps, idx + 1, valueOption.get(), column);
+                } catch (DateTimeException | IllegalArgumentException e) {
+                    throw new RuntimeException(String.format(
+                            "Could not parse value of field %s in record %s", column.fieldName(), record), e);
+                }
+            }
+        }
+    }
+
+    private static void setValue(PreparedStatement ps, int parameterIndex, String value, TargetColumn column)
+            throws SQLException {
+        switch (column.columnType()) {
+            case BOOLEAN -> ps.setBoolean(parameterIndex, parseBoolean(value));
+            case LONG -> ps.setLong(parameterIndex, Long.parseLong(value));
+            case DOUBLE -> ps.setDouble(parameterIndex, Double.parseDouble(value));
+            case DECIMAL -> ps.setBigDecimal(parameterIndex, new BigDecimal(value));
+            // Binding java.time values, so that they are not shifted by the JVM's default time zone
+            case DATE -> ps.setObject(parameterIndex, LocalDate.parse(value));
+            case TIME -> ps.setObject(parameterIndex, LocalTime.parse(value));
+            case TIMESTAMP -> ps.setObject(parameterIndex, LocalDateTime.parse(value));
+            case TIMESTAMP_WITH_TIME_ZONE -> ps.setObject(parameterIndex, OffsetDateTime.parse(value));
+            case BINARY -> ps.setBytes(parameterIndex, Base64.getDecoder().decode(value));
+            case STRING -> {
+                if (column.jdbcType() == Types.OTHER) {
+                    // Lets PostgreSQL convert the string to the column type, such as uuid or jsonb
+                    ps.setObject(parameterIndex, value, Types.OTHER);
+                } else {
+                    ps.setString(parameterIndex, value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses "true", "false" (ignoring case), "1" or "0". Other values are rejected rather than loaded as false.
+     */
+    private static boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true") || value.equals("1")) {
+            return true;
+        } else if (value.equalsIgnoreCase("false") || value.equals("0")) {
+            return false;
+        } else {
+            throw new IllegalArgumentException(String.format("Not a boolean: '%s'", value));
+        }
+    }
+
+    /**
+     * Source of input records, shared by the writers. Batches of records are read while holding a lock.
+     */
+    private static final class RecordSource {
+
+        private final InputRecordReader reader;
+        private final Lock lock = new ReentrantLock();
+        private Optional<JsonObject> peekedRecord = Optional.empty();
+
+        RecordSource(InputRecordReader reader) {
+            this.reader = reader;
+        }
+
+        Optional<JsonObject> peek() throws IOException {
+            lock.lock();
+            try {
+                if (peekedRecord.isEmpty()) {
+                    peekedRecord = reader.read();
+                }
+                return peekedRecord;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<JsonObject> nextBatch(int batchSize) throws IOException {
+            lock.lock();
+            try {
+                List<JsonObject> batch = new ArrayList<>(batchSize);
+                peekedRecord.ifPresent(batch::add);
+                peekedRecord = Optional.empty();
+
+                while (batch.size() < batchSize) {
+                    Optional<JsonObject> recordOption = reader.read();
+                    if (recordOption.isEmpty()) {
+                        break;
+                    }
+                    batch.add(recordOption.get());
+                }
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
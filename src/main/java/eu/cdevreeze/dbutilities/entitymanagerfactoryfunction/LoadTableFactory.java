@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.MetaDataOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.LoadOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link LoadTable} objects. The arguments are the table name, the input file (NDJSON, or CSV if the
+ * file name ends with ".csv") and, optionally, the schema name.
+ *
+ * @author Chris de Vreeze
+ */
+public final class LoadTableFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final MetaDataOptions metaDataOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final LoadOptions loadOptions;
+
+    public LoadTableFactory(
+            MetaDataOptions metaDataOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions,
+            LoadOptions loadOptions
+    ) {
+        this.metaDataOptions = metaDataOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+        this.loadOptions = loadOptions;
+    }
+
+    public LoadTableFactory() {
+        this(MetaDataOptions.DEFAULT, OutputOptions.DEFAULT, ConcurrencyOptions.DEFAULT, LoadOptions.DEFAULT);
+    }
+
+    @Override
+    public LoadTable apply(List<String> args) {
+        Objects.checkIndex(1, args.size());
+        String tableName = args.get(0);
+        Path inputFile = FunctionArguments.toPath(args.get(1));
+        Optional<String> schemaName = args.size() >= 3 ? Optional.of(args.get(2)) : Optional.empty();
+        return new LoadTable(
+                tableName,
+                schemaName,
+                inputFile,
+                metaDataOptions,
+                outputOptions,
+                concurrencyOptions,
+                loadOptions
+        );
+    }
+}
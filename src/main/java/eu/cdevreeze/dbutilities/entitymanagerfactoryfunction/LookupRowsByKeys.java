@@ -0,0 +1,360 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.DictionaryMetaDataEngine;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.InputFormat;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.InputRecordReader;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.NdjsonResultSetWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.PreparedStatements;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowCounts;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.KeyLookupOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+import oracle.jdbc.OracleConnection;
+import oracle.jdbc.OracleTypes;
+import java.sql.Array;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that looks up the rows of a table for many keys of one
+ * (key) column, read from an NDJSON or CSV file (see {@link InputRecordReader}). The first value of each input
+ * record is the key. Null keys are skipped, and duplicate keys are looked up only once.
+ * <p>
+ * Instead of running one query per key, the keys are split into chunks (see {@link KeyLookupOptions}), and each
+ * chunk is looked up with one query execution. How the keys of a chunk are bound depends on the database and
+ * the key type:
+ * <ul>
+ *     <li>On PostgreSQL, as one array parameter, created with {@link Connection#createArrayOf(String, Object[])}
+ *     and queried with "= any(?)"</li>
+ *     <li>On Oracle, as one collection parameter (of type SYS.ODCINUMBERLIST, SYS.ODCIDATELIST or
+ *     SYS.ODCIVARCHAR2LIST), queried with "in (select column_value from table(?))"</li>
+ *     <li>On Oracle, for CHAR keys, as IN-list parameters bound as fixed-length CHAR values, with at most
+ *     {@link KeyLookupOptions#MAX_IN_LIST_SIZE} keys per chunk. After all, Oracle compares a CHAR column with
+ *     a VARCHAR2 value (such as a collection element) without blank-padding, so keys would never match the
+ *     blank-padded column values</li>
+ *     <li>Otherwise, such as on Db2, or for key types without array support, as IN-list parameters, with at most
+ *     {@link KeyLookupOptions#MAX_IN_LIST_SIZE} keys per chunk</li>
+ * </ul>
+ * The statement is prepared once per database connection. Chunks are spread over at most the maximum
+ * concurrency (see {@link ConcurrencyOptions}) of connections, each used in its own transaction and virtual
+ * thread. The matched rows are written to the output file as NDJSON. With more than one connection, the rows of
+ * different chunks may be interleaved in any order, but the rows of one chunk stay together.
+ * <p>
+ * The returned JSON object summarizes the lookup. If a query execution fails, the function fails.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class LookupRowsByKeys implements EntityManagerFactoryToJsonObjectFunction {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    // The Oracle ODCI collection types are VARRAYs of at most 32767 elements
+    private static final int MAX_ORACLE_COLLECTION_SIZE = 32767;
+
+    private enum KeyBinding {
+        ARRAY, ORACLE_COLLECTION, IN_LIST, ORACLE_FIXED_CHAR_IN_LIST
+    }
+
+    private final String tableName;
+    private final String keyColumn;
+    private final JDBCType keyType;
+    private final Path keysFile;
+    private final Path outputFile;
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final KeyLookupOptions keyLookupOptions;
+
+    public LookupRowsByKeys(
+            String tableName,
+            String keyColumn,
+            JDBCType keyType,
+            Path keysFile,
+            Path outputFile,
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions,
+            KeyLookupOptions keyLookupOptions
+    ) {
+        this.tableName = RowCounts.checkTableNameWrtSqlInjection(tableName);
+        Preconditions.checkArgument(
+                keyColumn.chars().noneMatch(Character::isWhitespace),
+                "Column name with whitespace not allowed (to prevent SQL injection)");
+        this.keyColumn = keyColumn;
+        this.keyType = keyType;
+        this.keysFile = keysFile;
+        this.outputFile = outputFile;
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+        this.keyLookupOptions = keyLookupOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        try {
+            List<String> keys = readKeys();
+
+            KeyBinding keyBinding = emf.callInTransaction(
+                    EntityAgent.class,
+                    entityAgent -> entityAgent.callWithConnection((Connection conn) ->
+                            chooseKeyBinding(conn.getMetaData().getDatabaseProductName()))
+            );
+            List<List<String>> chunks = Lists.partition(keys, chunkSize(keyBinding));
+
+            Path parentDirectory = outputFile.toAbsolutePath().getParent();
+            Files.createDirectories(parentDirectory);
+
+            int connectionCount = Math.max(1, Math.min(concurrencyOptions.maxConcurrency(), chunks.size()));
+            AtomicInteger nextChunkIndex = new AtomicInteger();
+            Lock outputLock = new ReentrantLock();
+
+            List<Long> rowCounts;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(outputFile), OUTPUT_BUFFER_SIZE)) {
+                rowCounts = ConcurrentTasks.invokeAll(
+                        IntStream.range(0, connectionCount)
+                                .mapToObj(_ -> (Callable<Long>) () -> emf.callInTransaction(
+                                        EntityAgent.class,
+                                        entityAgent -> entityAgent.callWithConnection((Connection conn) ->
+                                                Connections.callWithoutAutoCommit(conn, c ->
+                                                        lookUpChunks(c, keyBinding, chunks, nextChunkIndex, out, outputLock)))
+                                ))
+                                .toList(),
+                        connectionCount
+                );
+            }
+
+            return jsonProvider.createObjectBuilder()
+                    .add("tableName", tableName)
+                    .add("keyColumn", keyColumn)
+                    .add("keysFile", keysFile.toString())
+                    .add("outputFile", outputFile.toString())
+                    .add("keyBinding", keyBinding.name())
+                    .add("keyCount", keys.size())
+                    .add("chunkCount", chunks.size())
+                    .add("rowCount", rowCounts.stream().mapToLong(Long::longValue).sum())
+                    .add("connectionCount", connectionCount)
+                    .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> readKeys() throws IOException {
+        Set<String> keys = new LinkedHashSet<>();
+        try (InputRecordReader reader = InputRecordReader.open(
+                keysFile,
+                InputFormat.fromFileName(keysFile.getFileName().toString()),
+                outputOptions.csvNullValue())) {
+            Optional<JsonObject> recordOption = reader.read();
+            while (recordOption.isPresent()) {
+                recordOption.get().values().stream()
+                        .findFirst()
+                        .flatMap(InputRecordReader::toParameterValue)
+                        .ifPresent(keys::add);
+                recordOption = reader.read();
+            }
+        }
+        return List.copyOf(keys);
+    }
+
+    private KeyBinding chooseKeyBinding(String databaseProductName) {
+        Optional<DictionaryMetaDataEngine.Vendor> vendorOption =
+                DictionaryMetaDataEngine.Vendor.fromDatabaseProductName(databaseProductName);
+        boolean arrayKeyType = switch (keyType) {
+            case SMALLINT, INTEGER, BIGINT, NUMERIC, DECIMAL, CHAR, VARCHAR, DATE -> true;
+            default -> false;
+        };
+        boolean oracle = vendorOption.equals(Optional.of(DictionaryMetaDataEngine.Vendor.ORACLE));
+
+        if (arrayKeyType && vendorOption.equals(Optional.of(DictionaryMetaDataEngine.Vendor.POSTGRESQL))) {
+            return KeyBinding.ARRAY;
+        } else if (oracle && keyType == JDBCType.CHAR) {
+            return KeyBinding.ORACLE_FIXED_CHAR_IN_LIST;
+        } else if (arrayKeyType && oracle) {
+            return KeyBinding.ORACLE_COLLECTION;
+        } else {
+            return KeyBinding.IN_LIST;
+        }
+    }
+
+    private int chunkSize(KeyBinding keyBinding) {
+        return switch (keyBinding) {
+            case ARRAY -> keyLookupOptions.chunkSize();
+            case ORACLE_COLLECTION -> Math.min(keyLookupOptions.chunkSize(), MAX_ORACLE_COLLECTION_SIZE);
+            case IN_LIST, ORACLE_FIXED_CHAR_IN_LIST ->
+                    Math.min(keyLookupOptions.chunkSize(), KeyLookupOptions.MAX_IN_LIST_SIZE);
+        };
+    }
+
+    private String lookupSql(KeyBinding keyBinding, int chunkSize) {
+        return switch (keyBinding) {
+            case ARRAY -> String.format("select * from %s where %s = any(?)", tableName, keyColumn);
+            case ORACLE_COLLECTION -> String.format(
+                    "select t.* from %s t where t.%s in (select column_value from table(?))", tableName, keyColumn);
+            case IN_LIST, ORACLE_FIXED_CHAR_IN_LIST -> String.format(
+                    "select * from %s where %s in (%s)",
+                    tableName,
+                    keyColumn,
+                    String.join(", ", Collections.nCopies(chunkSize, "?")));
+        };
+    }
+
+    /**
+     * Looks up the rows of chunks taken from the shared chunk index until all chunks are done, returning the
+     * number of rows written.
+     */
+    private long lookUpChunks(
+            Connection connection,
+            KeyBinding keyBinding,
+            List<List<String>> chunks,
+            AtomicInteger nextChunkIndex,
+            OutputStream out,
+            Lock outputLock
+    ) throws SQLException, IOException {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+
+        long rowCount = 0;
+        // All chunks but the last one have the same size
+        int chunkSize = chunks.getFirst().size();
+        NdjsonResultSetWriter resultSetWriter = new NdjsonResultSetWriter();
+
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, lookupSql(keyBinding, chunkSize), queryOptions)) {
+            int chunkIndex = nextChunkIndex.getAndIncrement();
+            while (chunkIndex < chunks.size()) {
+                List<String> chunk = chunks.get(chunkIndex);
+                ps.clearParameters();
+                Optional<Array> arrayOption = bindKeys(connection, ps, keyBinding, chunk, chunkSize);
+
+                ByteArrayOutputStream chunkOut = new ByteArrayOutputStream();
+                try (ResultSet rs = ps.executeQuery()) {
+                    rowCount += resultSetWriter.write(rs, chunkOut);
+                } finally {
+                    if (arrayOption.isPresent()) {
+                        arrayOption.get().free();
+                    }
+                }
+
+                outputLock.lock();
+                try {
+                    chunkOut.writeTo(out);
+                } finally {
+                    outputLock.unlock();
+                }
+
+                chunkIndex = nextChunkIndex.getAndIncrement();
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * Binds the keys of the chunk, returning the bound array, if any, to be freed after query execution.
+     */
+    private Optional<Array> bindKeys(
+            Connection connection,
+            PreparedStatement ps,
+            KeyBinding keyBinding,
+            List<String> chunk,
+            int chunkSize
+    ) throws SQLException {
+        return switch (keyBinding) {
+            case ARRAY -> {
+                Array array = connection.createArrayOf(postgresqlTypeName(), toArrayElements(chunk));
+                ps.setArray(1, array);
+                yield Optional.of(array);
+            }
+            case ORACLE_COLLECTION -> {
+                Array array = connection.unwrap(OracleConnection.class)
+                        .createOracleArray(oracleCollectionTypeName(), toArrayElements(chunk));
+                ps.setArray(1, array);
+                yield Optional.of(array);
+            }
+            case IN_LIST -> {
+                // A shorter (last) chunk is padded by repeating its last key, so the same statement can be used
+                for (int idx = 0; idx < chunkSize; idx++) {
+                    String key = chunk.get(Math.min(idx, chunk.size() - 1));
+                    PreparedStatements.setParameter(ps, idx + 1, new QueryParameter(key, keyType));
+                }
+                yield Optional.empty();
+            }
+            case ORACLE_FIXED_CHAR_IN_LIST -> {
+                for (int idx = 0; idx < chunkSize; idx++) {
+                    String key = chunk.get(Math.min(idx, chunk.size() - 1));
+                    // Unlike a VARCHAR2 value, a fixed-length CHAR value is compared with blank-padding
+                    ps.setObject(idx + 1, key, OracleTypes.FIXED_CHAR);
+                }
+                yield Optional.empty();
+            }
+        };
+    }
+
+    private Object[] toArrayElements(List<String> chunk) {
+        return chunk.stream()
+                .map(key -> switch (keyType) {
+                    case SMALLINT, INTEGER -> Integer.valueOf(key);
+                    case BIGINT -> Long.valueOf(key);
+                    case NUMERIC, DECIMAL -> new BigDecimal(key);
+                    case DATE -> java.sql.Date.valueOf(key);
+                    default -> key;
+                })
+                .toArray();
+    }
+
+    private String postgresqlTypeName() {
+        return switch (keyType) {
+            case SMALLINT -> "int2";
+            case INTEGER -> "int4";
+            case BIGINT -> "int8";
+            case NUMERIC, DECIMAL -> "numeric";
+            case DATE -> "date";
+            case CHAR -> "bpchar";
+            default -> "varchar";
+        };
+    }
+
+    private String oracleCollectionTypeName() {
+        return switch (keyType) {
+            case SMALLINT, INTEGER, BIGINT, NUMERIC, DECIMAL -> "SYS.ODCINUMBERLIST";
+            case DATE -> "SYS.ODCIDATELIST";
+            default -> "SYS.ODCIVARCHAR2LIST";
+        };
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.KeyLookupOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link LookupRowsByKeys} objects. The arguments are the table name, the key column name, the JDBC
+ * type of the key column (such as VARCHAR, INTEGER or NUMERIC), the keys file (NDJSON, or CSV if the file name
+ * ends with ".csv") and the output file.
+ *
+ * @author Chris de Vreeze
+ */
+public final class LookupRowsByKeysFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final KeyLookupOptions keyLookupOptions;
+
+    public LookupRowsByKeysFactory(
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions,
+            KeyLookupOptions keyLookupOptions
+    ) {
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+        this.keyLookupOptions = keyLookupOptions;
+    }
+
+    public LookupRowsByKeysFactory() {
+        this(QueryOptions.DEFAULT, OutputOptions.DEFAULT, ConcurrencyOptions.DEFAULT, KeyLookupOptions.DEFAULT);
+    }
+
+    @Override
+    public LookupRowsByKeys apply(List<String> args) {
+        Objects.checkIndex(4, args.size());
+        return new LookupRowsByKeys(
+                args.get(0),
+                args.get(1),
+                JDBCType.valueOf(args.get(2).toUpperCase(Locale.ROOT)),
+                FunctionArguments.toPath(args.get(3)),
+                FunctionArguments.toPath(args.get(4)),
+                queryOptions,
+                outputOptions,
+                concurrencyOptions,
+                keyLookupOptions
+        );
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.GetQueryResults;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.Connections;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.InputFormat;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.InputRecordReader;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.JsonObjectBuilderColumnValueWriter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.PreparedStatements;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowEncoder;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that runs one query for many parameter tuples, read from an
+ * NDJSON or CSV file (see {@link InputRecordReader}). The values of each tuple are bound, in order, as query
+ * parameters of the given JDBC types, like the parameters of {@link GetQueryResults}.
+ * <p>
+ * The statement is prepared once per database connection, and re-executed for each tuple. The {@link RowEncoder}
+ * is created once per connection as well. The result rows are written to the output file as NDJSON, each line
+ * containing the input "tuple" and the result "row". Tuples are spread over at most the maximum concurrency
+ * (see {@link ConcurrencyOptions}) of connections, each used in its own transaction and virtual thread. With more
+ * than one connection, the output lines of different tuples may be interleaved in any order, but the lines of
+ * one tuple stay together.
+ * <p>
+ * The returned JSON object summarizes the sweep. If a query execution fails, the function fails.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RunParameterSweep implements EntityManagerFactoryToJsonObjectFunction {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final Path queryFile;
+    private final Path tuplesFile;
+    private final Path outputFile;
+    private final List<SQLType> parameterTypes;
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+
+    public RunParameterSweep(
+            Path queryFile,
+            Path tuplesFile,
+            Path outputFile,
+            List<SQLType> parameterTypes,
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        this.queryFile = queryFile;
+        this.tuplesFile = tuplesFile;
+        this.outputFile = outputFile;
+        this.parameterTypes = List.copyOf(parameterTypes);
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        try {
+            String sql = Files.readString(queryFile).strip();
+
+            List<JsonObject> tuples;
+            try (InputRecordReader reader = InputRecordReader.open(
+                    tuplesFile,
+                    InputFormat.fromFileName(tuplesFile.getFileName().toString()),
+                    outputOptions.csvNullValue())) {
+                tuples = reader.readAll();
+            }
+
+            Path parentDirectory = outputFile.toAbsolutePath().getParent();
+            Files.createDirectories(parentDirectory);
+
+            int connectionCount = Math.max(1, Math.min(concurrencyOptions.maxConcurrency(), tuples.size()));
+            AtomicInteger nextTupleIndex = new AtomicInteger();
+            Lock outputLock = new ReentrantLock();
+
+            List<Long> rowCounts;
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(Files.newOutputStream(outputFile), StandardCharsets.UTF_8),
+                    OUTPUT_BUFFER_SIZE)) {
+                rowCounts = ConcurrentTasks.invokeAll(
+                        IntStream.range(0, connectionCount)
+                                .mapToObj(_ -> (Callable<Long>) () -> emf.callInTransaction(
+                                        EntityAgent.class,
+                                        entityAgent -> entityAgent.callWithConnection((Connection conn) ->
+                                                Connections.callWithoutAutoCommit(conn, c ->
+                                                        runTuples(c, sql, tuples, nextTupleIndex, writer, outputLock, jsonProvider)))
+                                ))
+                                .toList(),
+                        connectionCount
+                );
+            }
+
+            return jsonProvider.createObjectBuilder()
+                    .add("queryFile", queryFile.toString())
+                    .add("tuplesFile", tuplesFile.toString())
+                    .add("outputFile", outputFile.toString())
+                    .add("tupleCount", tuples.size())
+                    .add("rowCount", rowCounts.stream().mapToLong(Long::longValue).sum())
+                    .add("connectionCount", connectionCount)
+                    .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs the query for tuples taken from the shared tuple index until all tuples are done, returning the
+     * number of result rows written.
+     */
+    private long runTuples(
+            Connection connection,
+            String sql,
+            List<JsonObject> tuples,
+            AtomicInteger nextTupleIndex,
+            Writer writer,
+            Lock outputLock,
+            JsonProvider jsonProvider
+    ) throws SQLException, IOException {
+        long rowCount = 0;
+        Optional<RowEncoder> rowEncoderOption = Optional.empty();
+
+        try (PreparedStatement ps = PreparedStatements.prepareQuery(connection, sql, queryOptions)) {
+            int tupleIndex = nextTupleIndex.getAndIncrement();
+            while (tupleIndex < tuples.size()) {
+                JsonObject tuple = tuples.get(tupleIndex);
+                ps.clearParameters();
+                PreparedStatements.setParameters(ps, toQueryParameters(tuple));
+
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rowEncoderOption.isEmpty()) {
+                        // The result set metadata is the same for each execution of the statement
+                        rowEncoderOption = Optional.of(RowEncoder.from(rs.getMetaData()));
+                    }
+                    RowEncoder rowEncoder = rowEncoderOption.get();
+
+                    while (rs.next()) {
+                        JsonObjectBuilder row = jsonProvider.createObjectBuilder();
+                        rowEncoder.encodeRow(rs, new JsonObjectBuilderColumnValueWriter(rowEncoder, row));
+                        JsonObject line = jsonProvider.createObjectBuilder()
+                                .add("tuple", tuple)
+                                .add("row", row)
+                                .build();
+                        lines.append(line).append('\n');
+                        rowCount += 1;
+                    }
+                }
+
+                outputLock.lock();
+                try {
+                    writer.write(lines.toString());
+                } finally {
+                    outputLock.unlock();
+                }
+
+                tupleIndex = nextTupleIndex.getAndIncrement();
+            }
+        }
+        return rowCount;
+    }
+
+    private List<QueryParameter> toQueryParameters(JsonObject tuple) {
+        List<JsonValue> values = List.copyOf(tuple.values());
+        if (values.size() != parameterTypes.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Expected %d parameter values, but got tuple %s", parameterTypes.size(), tuple));
+        }
+
+        return IntStream.range(0, values.size())
+                .mapToObj(i -> new QueryParameter(
+                        InputRecordReader.toParameterValue(values.get(i)).orElse(null),
+                        parameterTypes.get(i)))
+                .toList();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link RunParameterSweep} objects. The first three arguments are the query file, the tuples file
+ * (NDJSON, or CSV if the file name ends with ".csv") and the output file, and the remaining arguments are the JDBC
+ * types of the query parameters (such as VARCHAR, INTEGER or NUMERIC).
+ *
+ * @author Chris de Vreeze
+ */
+public final class RunParameterSweepFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+
+    public RunParameterSweepFactory(
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+    }
+
+    public RunParameterSweepFactory() {
+        this(QueryOptions.DEFAULT, OutputOptions.DEFAULT, ConcurrencyOptions.DEFAULT);
+    }
+
+    @Override
+    public RunParameterSweep apply(List<String> args) {
+        Objects.checkIndex(2, args.size());
+        Path queryFile = FunctionArguments.toPath(args.get(0));
+        Path tuplesFile = FunctionArguments.toPath(args.get(1));
+        Path outputFile = FunctionArguments.toPath(args.get(2));
+        List<SQLType> parameterTypes = args.subList(3, args.size()).stream()
+                .map(type -> (SQLType) JDBCType.valueOf(type.toUpperCase(Locale.ROOT)))
+                .toList();
+        return new RunParameterSweep(
+                queryFile,
+                tuplesFile,
+                outputFile,
+                parameterTypes,
+                queryOptions,
+                outputOptions,
+                concurrencyOptions
+        );
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.GetQueryResults;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryParameter;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import eu.cdevreeze.dbutilities.function.OutputFormat;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that runs a batch of queries, listed in a JSON manifest file,
+ * concurrently against one {@link EntityManagerFactory}. Each query is run as {@link GetQueryResults} in its own
+ * transaction on its own database connection, in a virtual thread, and writes its results to its own output file.
+ * The maximum number of queries running at the same time is taken from the {@link ConcurrencyOptions}.
+ * <p>
+ * The manifest is a JSON object with a "queries" array. Each query has a "queryFile", an "outputFile", optional
+ * "parameters" (an array of pairs of parameter value and JDBC type, like the program arguments of
+ * {@link GetQueryResults}) and an optional "outputFormat". The latter is "json" (one JSON object with all rows)
+ * or an {@link OutputFormat} such as "ndjson" or "csv". The default output format can be set at the top level
+ * of the manifest, and is "json" otherwise. Relative paths are resolved against the directory of the manifest.
+ * The output files must be distinct, or else the function fails before running any query.
+ * For example:
+ * <pre>
+ * {
+ *   "outputFormat": "ndjson",
+ *   "queries": [
+ *     { "queryFile": "sample-queries/get_actor_with_most_films.sql", "outputFile": "out/actor.ndjson" },
+ *     { "queryFile": "sample-queries/get_film.sql", "parameters": ["1", "INTEGER"], "outputFile": "out/film-1.csv", "outputFormat": "csv" }
+ *   ]
+ * }
+ * </pre>
+ * <p>
+ * The returned JSON object summarizes the batch. A query that failed is reported with the error, without
+ * affecting the other queries.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RunQueryBatch implements EntityManagerFactoryToJsonObjectFunction {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Query in the manifest, where an empty output format means JSON.
+     */
+    private record BatchQuery(
+            Path queryFile,
+            List<QueryParameter> queryParameters,
+            Path outputFile,
+            Optional<OutputFormat> outputFormat
+    ) {
+    }
+
+    private final Path manifestFile;
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+
+    public RunQueryBatch(
+            Path manifestFile,
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        this.manifestFile = manifestFile;
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        List<BatchQuery> batchQueries = readManifest(jsonProvider);
+
+        List<JsonObject> queryResults = ConcurrentTasks.invokeAll(
+                batchQueries.stream()
+                        .map(batchQuery -> (Callable<JsonObject>) () -> runQuery(emf, batchQuery, jsonProvider))
+                        .toList(),
+                concurrencyOptions.maxConcurrency()
+        );
+
+        JsonArrayBuilder queriesJsonArr = jsonProvider.createArrayBuilder();
+        queryResults.forEach(queriesJsonArr::add);
+
+        return jsonProvider.createObjectBuilder()
+                .add("manifest", manifestFile.toString())
+                .add("maxConcurrency", concurrencyOptions.maxConcurrency())
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .add("queries", queriesJsonArr)
+                .build();
+    }
+
+    private JsonObject runQuery(EntityManagerFactory emf, BatchQuery batchQuery, JsonProvider jsonProvider) {
+        long startTime = System.nanoTime();
+
+        JsonObjectBuilder result = jsonProvider.createObjectBuilder()
+                .add("queryFile", batchQuery.queryFile().toString())
+                .add("outputFile", batchQuery.outputFile().toString())
+                .add("outputFormat", batchQuery.outputFormat().map(OutputFormat::name).orElse("JSON"));
+
+        try {
+            Path parentDirectory = batchQuery.outputFile().toAbsolutePath().getParent();
+            Files.createDirectories(parentDirectory);
+
+            GetQueryResults getQueryResults = new GetQueryResults(
+                    batchQuery.queryFile(),
+                    batchQuery.queryParameters(),
+                    queryOptions,
+                    outputOptions
+            );
+            emf.runInTransaction(EntityAgent.class, entityAgent -> {
+                try (OutputStream out = new BufferedOutputStream(
+                        Files.newOutputStream(batchQuery.outputFile()), OUTPUT_BUFFER_SIZE)) {
+                    if (batchQuery.outputFormat().isPresent()) {
+                        getQueryResults.writeTo(entityAgent, batchQuery.outputFormat().get(), out);
+                    } else {
+                        JsonGenerator jsonGenerator = jsonProvider.createGenerator(out);
+                        getQueryResults.writeTo(entityAgent, jsonGenerator);
+                        jsonGenerator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            result.add("fileSize", Files.size(batchQuery.outputFile()));
+        } catch (Exception e) {
+            result.add("error", String.valueOf(e));
+        }
+
+        return result
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .build();
+    }
+
+    private List<BatchQuery> readManifest(JsonProvider jsonProvider) {
+        Path baseDirectory = manifestFile.toAbsolutePath().getParent();
+
+        try (JsonReader jsonReader = jsonProvider.createReader(Files.newBufferedReader(manifestFile))) {
+            JsonObject manifest = jsonReader.readObject();
+            Optional<OutputFormat> defaultOutputFormat = parseOutputFormat(manifest.getString("outputFormat", "json"));
+
+            List<BatchQuery> batchQueries = manifest.getJsonArray("queries").getValuesAs(JsonObject.class).stream()
+                    .map(query -> new BatchQuery(
+                            baseDirectory.resolve(query.getString("queryFile")),
+                            QueryParameter.parseParameters(
+                                    query.getJsonArray("parameters") == null ?
+                                            List.of() :
+                                            query.getJsonArray("parameters").stream().map(RunQueryBatch::toParameterArg).toList()
+                            ),
+                            baseDirectory.resolve(query.getString("outputFile")),
+                            query.containsKey("outputFormat") ?
+                                    parseOutputFormat(query.getString("outputFormat")) :
+                                    defaultOutputFormat
+                    ))
+                    .toList();
+
+            // Queries run concurrently, so queries writing to the same file would corrupt it
+            Set<Path> outputFiles = new HashSet<>();
+            for (BatchQuery batchQuery : batchQueries) {
+                if (!outputFiles.add(batchQuery.outputFile().normalize())) {
+                    throw new IllegalArgumentException(String.format(
+                            "Output file %s occurs more than once in manifest %s", batchQuery.outputFile(), manifestFile));
+                }
+            }
+            return batchQueries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Optional<OutputFormat> parseOutputFormat(String name) {
+        return name.equalsIgnoreCase("json") ? Optional.empty() : Optional.of(OutputFormat.parse(name));
+    }
+
+    private static String toParameterArg(JsonValue jsonValue) {
+        return switch (jsonValue) {
+            case JsonString jsonString -> jsonString.getString();
+            default -> jsonValue.toString();
+        };
+    }
+}
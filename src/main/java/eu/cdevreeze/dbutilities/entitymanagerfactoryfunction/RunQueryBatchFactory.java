@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.OutputOptions;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.QueryOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+
+/**
+ * Factory of {@link RunQueryBatch} objects. The only argument is the manifest file.
+ *
+ * @author Chris de Vreeze
+ */
+public final class RunQueryBatchFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final QueryOptions queryOptions;
+    private final OutputOptions outputOptions;
+    private final ConcurrencyOptions concurrencyOptions;
+
+    public RunQueryBatchFactory(
+            QueryOptions queryOptions,
+            OutputOptions outputOptions,
+            ConcurrencyOptions concurrencyOptions
+    ) {
+        this.queryOptions = queryOptions;
+        this.outputOptions = outputOptions;
+        this.concurrencyOptions = concurrencyOptions;
+    }
+
+    public RunQueryBatchFactory() {
+        this(QueryOptions.DEFAULT, OutputOptions.DEFAULT, ConcurrencyOptions.DEFAULT);
+    }
+
+    @Override
+    public RunQueryBatch apply(List<String> args) {
+        Objects.checkIndex(0, args.size());
+        Path manifestFile = FunctionArguments.toPath(Objects.requireNonNull(args.getFirst()));
+        return new RunQueryBatch(manifestFile, queryOptions, outputOptions, concurrencyOptions);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import module java.sql;
+import eu.cdevreeze.dbutilities.entityagentfunction.SelectRowCountFromTable;
+import eu.cdevreeze.dbutilities.entityagentfunction.internal.RowCounts;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrentTasks;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.RowCountOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.TableNames;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunction;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.spi.JsonProvider;
+import jakarta.persistence.EntityAgent;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link EntityManagerFactoryToJsonObjectFunction} that selects the exact row counts of the given tables
+ * concurrently, like {@link SelectRowCountFromTable} does for one table. Each table is counted in its own
+ * transaction on its own database connection, in a virtual thread. The maximum number of tables counted at the
+ * same time is taken from the {@link ConcurrencyOptions}, and the timeout per table from the {@link RowCountOptions}.
+ * <p>
+ * Table names containing a "%" are treated as (optionally schema-qualified) table name patterns, which are
+ * resolved against the database metadata. For example, "HR.%" stands for all tables in schema HR.
+ * <p>
+ * The returned JSON object contains the row count and elapsed time per table. A table whose count failed
+ * (e.g. because of the timeout) is reported with the error, without affecting the counts of the other tables.
+ * <p>
+ * Instances are created by a dedicated factory object, and not by CDI injection.
+ *
+ * @author Chris de Vreeze
+ */
+public final class SelectRowCountsFromTables implements EntityManagerFactoryToJsonObjectFunction {
+
+    private final List<String> tableNamesOrPatterns;
+    private final ConcurrencyOptions concurrencyOptions;
+    private final RowCountOptions rowCountOptions;
+
+    public SelectRowCountsFromTables(
+            List<String> tableNamesOrPatterns,
+            ConcurrencyOptions concurrencyOptions,
+            RowCountOptions rowCountOptions
+    ) {
+        this.tableNamesOrPatterns = List.copyOf(tableNamesOrPatterns);
+        this.concurrencyOptions = concurrencyOptions;
+        this.rowCountOptions = rowCountOptions;
+    }
+
+    @Override
+    public JsonObject apply(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+
+        List<String> tableNames = emf.callInTransaction(
+                EntityAgent.class,
+                entityAgent -> entityAgent.callWithConnection((Connection conn) ->
+                        TableNames.resolveTableNames(conn.getMetaData(), tableNamesOrPatterns))
+        );
+
+        JsonProvider jsonProvider = JsonProvider.provider();
+
+        List<JsonObject> tableResults = ConcurrentTasks.invokeAll(
+                tableNames.stream()
+                        .map(tableName -> (Callable<JsonObject>) () -> countRows(emf, tableName, jsonProvider))
+                        .toList(),
+                concurrencyOptions.maxConcurrency()
+        );
+
+        JsonArrayBuilder tablesJsonArr = jsonProvider.createArrayBuilder();
+        tableResults.forEach(tablesJsonArr::add);
+
+        return jsonProvider.createObjectBuilder()
+                .add("maxConcurrency", concurrencyOptions.maxConcurrency())
+                .add("tableTimeout", rowCountOptions.tableTimeout().toString())
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .add("tables", tablesJsonArr)
+                .build();
+    }
+
+    private JsonObject countRows(EntityManagerFactory emf, String tableName, JsonProvider jsonProvider) {
+        long startTime = System.nanoTime();
+
+        JsonObjectBuilder result = jsonProvider.createObjectBuilder()
+                .add("tableName", tableName);
+
+        try {
+            long rowCount = emf.callInTransaction(
+                    EntityAgent.class,
+                    entityAgent -> entityAgent.callWithConnection((Connection conn) ->
+                            RowCounts.selectRowCount(conn, tableName, rowCountOptions.tableTimeout()))
+            );
+
+            result.add("rowCount", rowCount);
+        } catch (Exception e) {
+            result.add("error", String.valueOf(e));
+        }
+
+        return result
+                .add("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.ConcurrencyOptions;
+import eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal.RowCountOptions;
+import eu.cdevreeze.dbutilities.function.EntityManagerFactoryToJsonObjectFunctionFactory;
+
+/**
+ * Factory of {@link SelectRowCountsFromTables} objects. The arguments are the table names or table name patterns.
+ *
+ * @author Chris de Vreeze
+ */
+public final class SelectRowCountsFromTablesFactory implements EntityManagerFactoryToJsonObjectFunctionFactory {
+
+    private final ConcurrencyOptions concurrencyOptions;
+    private final RowCountOptions rowCountOptions;
+
+    public SelectRowCountsFromTablesFactory(ConcurrencyOptions concurrencyOptions, RowCountOptions rowCountOptions) {
+        this.concurrencyOptions = concurrencyOptions;
+        this.rowCountOptions = rowCountOptions;
+    }
+
+    public SelectRowCountsFromTablesFactory() {
+        this(ConcurrencyOptions.DEFAULT, RowCountOptions.DEFAULT);
+    }
+
+    @Override
+    public SelectRowCountsFromTables apply(List<String> args) {
+        Objects.checkIndex(0, args.size());
+        return new SelectRowCountsFromTables(args, concurrencyOptions, rowCountOptions);
+    }
+}
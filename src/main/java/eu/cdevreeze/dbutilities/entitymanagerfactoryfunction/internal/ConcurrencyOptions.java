@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Options for running work concurrently against one data source.
+ * <p>
+ * The maximum concurrency is the maximum number of tasks running at the same time, each in its own
+ * transaction on its own database connection. With a connection pool, it should not exceed the maximum
+ * pool size.
+ *
+ * @author Chris de Vreeze
+ */
+public record ConcurrencyOptions(int maxConcurrency) {
+
+    public static final ConcurrencyOptions DEFAULT = new ConcurrencyOptions(4);
+
+    public ConcurrencyOptions {
+        Preconditions.checkArgument(maxConcurrency > 0, "Maximum concurrency must be positive");
+    }
+}
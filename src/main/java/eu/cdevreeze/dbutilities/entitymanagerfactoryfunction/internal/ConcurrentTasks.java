@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import module java.base;
+
+/**
+ * Support for running tasks concurrently, each in its own virtual thread, while bounding the number
+ * of tasks that run at the same time. The latter typically bounds the number of database connections in use.
+ *
+ * @author Chris de Vreeze
+ */
+public class ConcurrentTasks {
+
+    private ConcurrentTasks() {
+    }
+
+    /**
+     * Runs the given tasks concurrently, with at most the given number of tasks running at the same time,
+     * and returns their results in the order of the tasks. If a task fails, the exception is rethrown
+     * (wrapped in a RuntimeException) after all tasks have ended.
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks, int maxConcurrency) {
+        Semaphore semaphore = new Semaphore(maxConcurrency);
+        List<Future<T>> futures;
+
+        // Closing the executor waits for all tasks to end
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            futures = tasks.stream()
+                    .map(task -> executor.submit(() -> {
+                        semaphore.acquire();
+                        try {
+                            return task.call();
+                        } finally {
+                            semaphore.release();
+                        }
+                    }))
+                    .toList();
+        }
+
+        return futures.stream().map(ConcurrentTasks::getResult).toList();
+    }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
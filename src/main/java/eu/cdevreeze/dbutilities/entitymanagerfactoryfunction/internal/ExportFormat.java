@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import module java.base;
+
+/**
+ * Output format of table exports.
+ *
+ * @author Chris de Vreeze
+ */
+public enum ExportFormat {
+
+    /**
+     * JSON, in the same format as the output of {@link eu.cdevreeze.dbutilities.entityagentfunction.SelectAllFromTable}.
+     */
+    JSON("json"),
+
+    /**
+     * XML, in the same format as the output of {@link eu.cdevreeze.dbutilities.entityagentfunction.SelectAllFromTableAsXml}.
+     */
+    XML("xml");
+
+    private final String fileExtension;
+
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Returns the export format with the given name, ignoring case.
+     */
+    public static ExportFormat parse(String name) {
+        return ExportFormat.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
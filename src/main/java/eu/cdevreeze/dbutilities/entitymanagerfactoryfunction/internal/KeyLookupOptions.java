@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Options for looking up rows by many keys. The chunk size is the number of keys bound in one query execution.
+ * Where keys are bound as IN-list parameters instead of one array, the chunk size is capped at
+ * {@link #MAX_IN_LIST_SIZE}.
+ *
+ * @author Chris de Vreeze
+ */
+public record KeyLookupOptions(int chunkSize) {
+
+    public static final int MAX_IN_LIST_SIZE = 1000;
+
+    public static final KeyLookupOptions DEFAULT = new KeyLookupOptions(5000);
+
+    public KeyLookupOptions {
+        Preconditions.checkArgument(chunkSize > 0, "Chunk size must be positive");
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Options for loading rows into a table. The batch size is the number of rows sent to the database in one JDBC
+ * batch. The commit interval is the (minimum) number of rows inserted in one transaction; a transaction is
+ * committed after the first batch reaching it.
+ *
+ * @author Chris de Vreeze
+ */
+public record LoadOptions(int batchSize, int commitInterval) {
+
+    public static final LoadOptions DEFAULT = new LoadOptions(1000, 50_000);
+
+    public LoadOptions {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+        Preconditions.checkArgument(commitInterval > 0, "Commit interval must be positive");
+    }
+}
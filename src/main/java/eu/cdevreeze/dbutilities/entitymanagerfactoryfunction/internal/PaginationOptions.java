@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Options for keyset pagination, where each page is retrieved in its own short transaction.
+ *
+ * @author Chris de Vreeze
+ */
+public record PaginationOptions(int pageSize) {
+
+    public static final PaginationOptions DEFAULT = new PaginationOptions(10_000);
+
+    public PaginationOptions {
+        Preconditions.checkArgument(pageSize > 0, "Page size must be positive");
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import module java.base;
+import com.google.common.base.Preconditions;
+
+/**
+ * Options for partitioning the scan of one table into key ranges that are queried concurrently.
+ * <p>
+ * A partition count of 0 means that the number of partitions equals the maximum concurrency. If the output
+ * is ordered, the rows are ordered by the key column, at the cost of sorting each partition in the database.
+ *
+ * @author Chris de Vreeze
+ */
+public record PartitioningOptions(int partitionCount, BoundaryStrategy boundaryStrategy, boolean ordered) {
+
+    public static final PartitioningOptions DEFAULT = new PartitioningOptions(0, BoundaryStrategy.MIN_MAX, true);
+
+    public PartitioningOptions {
+        Preconditions.checkArgument(partitionCount >= 0, "Negative partition count not allowed");
+    }
+
+    /**
+     * Strategy for computing the key range boundaries.
+     */
+    public enum BoundaryStrategy {
+
+        /**
+         * Splits the range between the minimum and maximum key value into equally wide key ranges.
+         * This is cheap, but only works for numeric and temporal keys, and the partitions may be skewed.
+         */
+        MIN_MAX,
+
+        /**
+         * Splits the keys into key ranges of (almost) the same number of rows, using the NTILE window function.
+         * This works for any key type, but costs an extra full scan and sort of the key column.
+         */
+        NTILE;
+
+        public static BoundaryStrategy parse(String name) {
+            return switch (name.toLowerCase(Locale.ROOT)) {
+                case "minmax", "min_max" -> MIN_MAX;
+                case "ntile", "quantiles" -> NTILE;
+                default -> throw new IllegalArgumentException("Unknown boundary strategy: " + name);
+            };
+        }
+    }
+}
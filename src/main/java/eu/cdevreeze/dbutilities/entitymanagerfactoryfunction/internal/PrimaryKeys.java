@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * Support for finding the primary key columns of a table in the {@link DatabaseMetaData}.
+ *
+ * @author Chris de Vreeze
+ */
+public class PrimaryKeys {
+
+    private PrimaryKeys() {
+    }
+
+    /**
+     * Returns the primary key column names of the given (optionally schema-qualified) table, in key sequence
+     * order. If the table has no primary key, an empty list is returned.
+     * <p>
+     * Depending on the database, unquoted identifiers are stored in upper case or lower case. Therefore,
+     * the table name is looked up as given, in upper case and in lower case, in that order.
+     */
+    public static List<String> findPrimaryKeyColumns(DatabaseMetaData metaData, String tableName) throws SQLException {
+        int dotIndex = tableName.indexOf('.');
+        String schema = (dotIndex < 0) ? null : tableName.substring(0, dotIndex);
+        String table = tableName.substring(dotIndex + 1);
+
+        List<Function<String, String>> caseConversions = List.of(
+                Function.identity(),
+                s -> s.toUpperCase(Locale.ROOT),
+                s -> s.toLowerCase(Locale.ROOT)
+        );
+        for (Function<String, String> caseConversion : caseConversions) {
+            SortedMap<Integer, String> columnsByKeySeq = new TreeMap<>();
+            try (ResultSet rs = metaData.getPrimaryKeys(
+                    null,
+                    (schema == null) ? null : caseConversion.apply(schema),
+                    caseConversion.apply(table))) {
+                while (rs.next()) {
+                    columnsByKeySeq.put(rs.getInt("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+                }
+            }
+            if (!columnsByKeySeq.isEmpty()) {
+                return List.copyOf(columnsByKeySeq.values());
+            }
+        }
+        return List.of();
+    }
+}
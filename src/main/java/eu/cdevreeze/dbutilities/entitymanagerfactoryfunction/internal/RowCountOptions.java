@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import module java.base;
+import com.google.common.base.Preconditions;
+
+/**
+ * Options for counting the rows of many tables. The table timeout is the maximum duration of the row count query
+ * of one table, where zero means no timeout.
+ *
+ * @author Chris de Vreeze
+ */
+public record RowCountOptions(Duration tableTimeout) {
+
+    public static final RowCountOptions DEFAULT = new RowCountOptions(Duration.ZERO);
+
+    public RowCountOptions {
+        Preconditions.checkArgument(!tableTimeout.isNegative(), "Negative table timeout not allowed");
+    }
+}
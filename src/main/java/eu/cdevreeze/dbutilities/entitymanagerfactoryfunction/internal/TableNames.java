@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entitymanagerfactoryfunction.internal;
+
+import module java.base;
+import module java.sql;
+
+/**
+ * Support for resolving table names and table name patterns against the {@link DatabaseMetaData}.
+ *
+ * @author Chris de Vreeze
+ */
+public class TableNames {
+
+    private TableNames() {
+    }
+
+    /**
+     * Resolves the given table names and table name patterns, without duplicates. Table names containing a "%"
+     * are treated as (optionally schema-qualified) table name patterns, which are resolved against the database
+     * metadata. For example, "HR.%" stands for all tables in schema HR. Other table names are returned as-is.
+     */
+    public static List<String> resolveTableNames(DatabaseMetaData metaData, List<String> tableNamesOrPatterns)
+            throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        for (String tableNameOrPattern : tableNamesOrPatterns) {
+            if (tableNameOrPattern.contains("%")) {
+                tableNames.addAll(findTableNames(metaData, tableNameOrPattern));
+            } else {
+                tableNames.add(tableNameOrPattern);
+            }
+        }
+        return tableNames.stream().distinct().toList();
+    }
+
+    private static List<String> findTableNames(DatabaseMetaData metaData, String tableNamePattern) throws SQLException {
+        int dotIndex = tableNamePattern.indexOf('.');
+        String schemaPattern = (dotIndex < 0) ? null : tableNamePattern.substring(0, dotIndex);
+        String namePattern = tableNamePattern.substring(dotIndex + 1);
+
+        List<String> tableNames = new ArrayList<>();
+        try (ResultSet rs = metaData.getTables(null, schemaPattern, namePattern, new String[]{"TABLE"})) {
+            while (rs.next()) {
+                String schema = rs.getString("TABLE_SCHEM");
+                String tableName = rs.getString("TABLE_NAME");
+                tableNames.add((schema == null) ? tableName : schema + "." + tableName);
+            }
+        }
+        return tableNames;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.function;
+
+import jakarta.json.stream.JsonGenerator;
+import jakarta.persistence.EntityAgent;
+
+/**
+ * Function taking a {@link EntityAgent}, and writing its JSON result to a {@link JsonGenerator}
+ * instead of returning it as a {@link jakarta.json.JsonObject}.
+ * <p>
+ * Unlike an {@link EntityAgentToJsonObjectFunction}, this function does not need to keep its entire
+ * result in memory. That makes it suitable for very large query results.
+ *
+ * @author Chris de Vreeze
+ */
+@FunctionalInterface
+public interface EntityAgentToJsonStreamFunction {
+
+    void writeTo(EntityAgent entityAgent, JsonGenerator jsonGenerator);
+
+    /**
+     * Returns an {@link EntityAgentFunction} that writes to the given {@link JsonGenerator}, and that
+     * returns that same {@link JsonGenerator}. It can be passed to method
+     * {@link jakarta.persistence.EntityManagerFactory#callInTransaction(Class, java.util.function.Function)}.
+     */
+    default EntityAgentFunction<JsonGenerator> writingTo(JsonGenerator jsonGenerator) {
+        return entityAgent -> {
+            writeTo(entityAgent, jsonGenerator);
+            return jsonGenerator;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.function;
+
+import module java.base;
+import jakarta.persistence.EntityAgent;
+
+/**
+ * Function taking a {@link EntityAgent}, and writing its result in the given {@link OutputFormat} to
+ * an {@link OutputStream}, while the result is being computed (typically while a result set is being read).
+ * <p>
+ * The output stream is not closed, but it is flushed. Implementations throw an {@link IllegalArgumentException}
+ * if they do not support the given output format.
+ *
+ * @author Chris de Vreeze
+ */
+@FunctionalInterface
+public interface EntityAgentToOutputStreamFunction {
+
+    void writeTo(EntityAgent entityAgent, OutputFormat outputFormat, OutputStream outputStream);
+
+    /**
+     * Returns an {@link EntityAgentFunction} that writes to the given {@link OutputStream}, and that
+     * returns that same {@link OutputStream}. It can be passed to method
+     * {@link jakarta.persistence.EntityManagerFactory#callInTransaction(Class, java.util.function.Function)}.
+     */
+    default EntityAgentFunction<OutputStream> writingTo(OutputFormat outputFormat, OutputStream outputStream) {
+        return entityAgent -> {
+            writeTo(entityAgent, outputFormat, outputStream);
+            return outputStream;
+        };
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.function;
+
+import module java.base;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * {@link java.util.function.Function} taking a {@link jakarta.persistence.EntityManagerFactory}.
+ * <p>
+ * Unlike an {@link EntityAgentFunction}, which runs within one transaction on one database connection,
+ * such a function can run several {@link EntityAgentFunction} instances, for example concurrently, each
+ * in its own transaction on its own database connection.
+ *
+ * @author Chris de Vreeze
+ */
+@FunctionalInterface
+public interface EntityManagerFactoryFunction<T> extends Function<EntityManagerFactory, T> {
+}
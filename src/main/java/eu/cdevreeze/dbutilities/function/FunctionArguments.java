@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.function;
+
+import module java.base;
+
+/**
+ * Helpers for interpreting the (string) arguments passed to function factories.
+ *
+ * @author Chris de Vreeze
+ */
+public final class FunctionArguments {
+
+    /**
+     * The working directory against which relative path arguments are resolved, if bound. A long-running process
+     * serving requests of other processes (such as the daemon in the "console" package) binds it to the working
+     * directory of the requesting process. If unbound, relative paths are left as they are, so they are resolved
+     * against the working directory of the current process.
+     */
+    public static final ScopedValue<Path> WORKING_DIRECTORY = ScopedValue.newInstance();
+
+    private FunctionArguments() {
+    }
+
+    /**
+     * Converts the given path argument to a {@link Path}, resolving it against {@link #WORKING_DIRECTORY} if
+     * the path is relative and that working directory is bound.
+     */
+    public static Path toPath(String pathArgument) {
+        Path path = Path.of(pathArgument);
+        return WORKING_DIRECTORY.isBound() ? WORKING_DIRECTORY.get().resolve(path) : path;
+    }
+}
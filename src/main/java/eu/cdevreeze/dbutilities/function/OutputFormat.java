@@ -0,0 +1,64 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.function;
+
+import module java.base;
+
+/**
+ * Output format of a {@link EntityAgentToOutputStreamFunction}.
+ *
+ * @author Chris de Vreeze
+ */
+public enum OutputFormat {
+
+    /**
+     * Newline-delimited JSON, with one compact JSON object per line.
+     */
+    NDJSON,
+
+    /**
+     * CSV according to RFC 4180, with a header containing the column labels.
+     */
+    CSV,
+
+    /**
+     * Apache Arrow IPC streaming format, with typed columns in record batches.
+     */
+    ARROW,
+
+    /**
+     * Apache Arrow IPC file format, with typed columns in record batches and a footer allowing random access.
+     */
+    ARROW_FILE,
+
+    /**
+     * Apache Parquet file format, with typed, compressed columns in row groups.
+     */
+    PARQUET,
+
+    /**
+     * CBOR (RFC 8949), with the same structure as the JSON output, but with native numbers, decimals and timestamps.
+     */
+    CBOR;
+
+    /**
+     * Returns the output format with the given name, ignoring case.
+     */
+    public static OutputFormat parse(String name) {
+        return OutputFormat.valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
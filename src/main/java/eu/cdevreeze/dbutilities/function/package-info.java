@@ -18,6 +18,10 @@
  * Core abstractions, in particular {@link eu.cdevreeze.dbutilities.function.EntityAgentFunction},
  * which is a {@link java.util.function.Function} taking a JPA {@link jakarta.persistence.EntityAgent}.
  * <p>
+ * Work that needs more than one transaction or database connection, such as concurrent exports,
+ * is modelled as {@link eu.cdevreeze.dbutilities.function.EntityManagerFactoryFunction} instead, taking
+ * a JPA {@link jakarta.persistence.EntityManagerFactory}.
+ * <p>
  * This package has no dependencies on other packages in this project.
  *
  * @author Chris de Vreeze
@@ -16,6 +16,7 @@
 
 package eu.cdevreeze.dbutilities.persistenceconfigs;
 
+import module java.sql;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.PersistenceConfiguration;
 import jakarta.persistence.PersistenceUnitTransactionType;
@@ -25,6 +26,9 @@ import static jakarta.persistence.Persistence.ConnectionProperties.*;
 
 /**
  * Db2 {@link PersistenceConfiguration} factory.
+ * <p>
+ * The persistence configuration either lets Hibernate connect through a JDBC URL, or it uses a given
+ * {@link DataSource}, typically a connection pool.
  *
  * @author Chris de Vreeze
  */
@@ -52,4 +56,17 @@ public class Db2PersistenceConfigurations {
                 .property(JDBC_PASSWORD, config.getValue("db2.password", String.class))
                 .property("hibernate.default_schema", config.getValue("db2.currentSchema", String.class));
     }
+
+    /**
+     * Returns a persistence configuration using the given {@link DataSource}, instead of a JDBC URL.
+     * The {@link DataSource} is expected to hand out connections with auto-commit off.
+     */
+    public static PersistenceConfiguration getPersistenceConfiguration(Config config, DataSource dataSource) {
+        return new PersistenceConfiguration("db2")
+                .transactionType(PersistenceUnitTransactionType.RESOURCE_LOCAL)
+                .defaultToOneFetchType(FetchType.LAZY) // Just in case we use Entities
+                .property(JDBC_DATASOURCE, dataSource)
+                .property("hibernate.connection.provider_disables_autocommit", "true")
+                .property("hibernate.default_schema", config.getValue("db2.currentSchema", String.class));
+    }
 }
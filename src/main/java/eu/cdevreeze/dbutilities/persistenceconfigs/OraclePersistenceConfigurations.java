@@ -16,6 +16,7 @@
 
 package eu.cdevreeze.dbutilities.persistenceconfigs;
 
+import module java.sql;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.PersistenceConfiguration;
 import jakarta.persistence.PersistenceUnitTransactionType;
@@ -25,6 +26,9 @@ import static jakarta.persistence.Persistence.ConnectionProperties.*;
 
 /**
  * Oracle {@link PersistenceConfiguration} factory.
+ * <p>
+ * The persistence configuration either lets Hibernate connect through a JDBC URL, or it uses a given
+ * {@link DataSource}, typically a connection pool.
  *
  * @author Chris de Vreeze
  */
@@ -49,4 +53,16 @@ public class OraclePersistenceConfigurations {
                 .property(JDBC_USER, config.getValue("oracle.user", String.class))
                 .property(JDBC_PASSWORD, config.getValue("oracle.password", String.class));
     }
+
+    /**
+     * Returns a persistence configuration using the given {@link DataSource}, instead of a JDBC URL.
+     * The {@link DataSource} is expected to hand out connections with auto-commit off.
+     */
+    public static PersistenceConfiguration getPersistenceConfiguration(Config config, DataSource dataSource) {
+        return new PersistenceConfiguration("oracle")
+                .transactionType(PersistenceUnitTransactionType.RESOURCE_LOCAL)
+                .defaultToOneFetchType(FetchType.LAZY) // Just in case we use Entities
+                .property(JDBC_DATASOURCE, dataSource)
+                .property("hibernate.connection.provider_disables_autocommit", "true");
+    }
 }
@@ -16,6 +16,7 @@
 
 package eu.cdevreeze.dbutilities.persistenceconfigs;
 
+import module java.sql;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.PersistenceConfiguration;
 import jakarta.persistence.PersistenceUnitTransactionType;
@@ -25,6 +26,9 @@ import static jakarta.persistence.Persistence.ConnectionProperties.*;
 
 /**
  * PostgreSQL {@link PersistenceConfiguration} factory.
+ * <p>
+ * The persistence configuration either lets Hibernate connect through a JDBC URL, or it uses a given
+ * {@link DataSource}, typically a connection pool.
  *
  * @author Chris de Vreeze
  */
@@ -50,4 +54,16 @@ public class PostgresqlPersistenceConfigurations {
                 .property(JDBC_PASSWORD, config.getValue("postgresql.password", String.class))
                 .property("hibernate.connection.useSSL", "false");
     }
+
+    /**
+     * Returns a persistence configuration using the given {@link DataSource}, instead of a JDBC URL.
+     * The {@link DataSource} is expected to hand out connections with auto-commit off.
+     */
+    public static PersistenceConfiguration getPersistenceConfiguration(Config config, DataSource dataSource) {
+        return new PersistenceConfiguration("postgresql")
+                .transactionType(PersistenceUnitTransactionType.RESOURCE_LOCAL)
+                .defaultToOneFetchType(FetchType.LAZY) // Just in case we use Entities
+                .property(JDBC_DATASOURCE, dataSource)
+                .property("hibernate.connection.provider_disables_autocommit", "true");
+    }
 }
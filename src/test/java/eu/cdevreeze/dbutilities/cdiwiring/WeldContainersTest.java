@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.cdiwiring;
+
+import module java.base;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.spi.Bean;
+import org.jboss.weld.environment.se.WeldContainer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of {@link WeldContainers}, in particular that {@link WeldContainers#BEAN_CLASSES} is in sync with the
+ * bean classes found by bean discovery. Otherwise, fast startup mode would only fail at runtime.
+ *
+ * @author Chris de Vreeze
+ */
+class WeldContainersTest {
+
+    @Test
+    void beanClassesAreTheDiscoveredBeanClasses() {
+        try (WeldContainer weldContainer = WeldContainers.initialize(false)) {
+            assertEquals(Set.copyOf(WeldContainers.BEAN_CLASSES), getProjectBeanClasses(weldContainer));
+        }
+    }
+
+    @Test
+    void fastStartupRegistersTheSameBeanClasses() {
+        // Initialization also validates that all injection points can be satisfied
+        try (WeldContainer weldContainer = WeldContainers.initialize(true)) {
+            assertEquals(Set.copyOf(WeldContainers.BEAN_CLASSES), getProjectBeanClasses(weldContainer));
+        }
+    }
+
+    private static Set<Class<?>> getProjectBeanClasses(WeldContainer weldContainer) {
+        String projectPackagePrefix = WeldContainers.class.getPackageName().replaceFirst("\\.cdiwiring$", "") + ".";
+        return weldContainer.getBeanManager().getBeans(Object.class, Any.Literal.INSTANCE).stream()
+                .map(Bean::getBeanClass)
+                .filter(beanClass -> beanClass.getPackageName().startsWith(projectPackagePrefix))
+                .collect(Collectors.toSet());
+    }
+}
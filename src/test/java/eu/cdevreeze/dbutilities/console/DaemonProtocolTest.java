@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import eu.cdevreeze.dbutilities.function.FunctionArguments;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of {@link DaemonProtocol}.
+ *
+ * @author Chris de Vreeze
+ */
+class DaemonProtocolTest {
+
+    @TempDir
+    Path clientWorkingDirectory;
+
+    @Test
+    void resolvesRelativeQueryFileAgainstWorkingDirectoryOfClient() throws IOException {
+        Path queryFile = Files.createDirectories(clientWorkingDirectory.resolve("queries")).resolve("query.sql");
+        Files.writeString(queryFile, "select 1");
+
+        JsonObject request = sendAndReceive(createRequest(List.of("queries/query.sql", "1")));
+        List<String> args = request.getJsonArray("args").getValuesAs(JsonString::getString);
+
+        Path resolvedQueryFile = resolveInDaemon(request, args.getFirst());
+
+        assertEquals(queryFile, resolvedQueryFile);
+        assertEquals("select 1", Files.readString(resolvedQueryFile));
+    }
+
+    @Test
+    void leavesAbsolutePathArgumentsAsTheyAre() throws IOException {
+        Path absoluteFile = Path.of(System.getProperty("java.io.tmpdir"), "query.sql").toAbsolutePath();
+
+        JsonObject request = sendAndReceive(createRequest(List.of(absoluteFile.toString())));
+
+        assertEquals(absoluteFile, resolveInDaemon(request, absoluteFile.toString()));
+    }
+
+    @Test
+    void leavesPathArgumentsAsTheyAreOutsideTheDaemon() {
+        assertEquals(Path.of("queries/query.sql"), FunctionArguments.toPath("queries/query.sql"));
+    }
+
+    @Test
+    void sendsRequestPropertiesAndDataSourceName() throws IOException {
+        JsonObject request = sendAndReceive(createRequest(List.of()));
+
+        assertEquals(
+                Map.of("fetchSize", "500", "csvNullValue", "NULL", "dataSourceName", "postgresql"),
+                DaemonProtocol.getRequestProperties(request));
+    }
+
+    @Test
+    void rejectsRelativeWorkingDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> DaemonProtocol.createRequest(
+                "postgresql",
+                "GetQueryResults",
+                List.of("query.sql"),
+                Path.of("relative"),
+                false,
+                Optional.empty(),
+                Map.of()));
+    }
+
+    private JsonObject createRequest(List<String> args) {
+        return DaemonProtocol.createRequest(
+                "postgresql",
+                "GetQueryResults",
+                args,
+                clientWorkingDirectory,
+                false,
+                Optional.of("ndjson"),
+                Map.of("fetchSize", "500", "csvNullValue", "NULL"));
+    }
+
+    private static JsonObject sendAndReceive(JsonObject request) throws IOException {
+        var bos = new ByteArrayOutputStream();
+        DaemonProtocol.writeRequest(request, new DataOutputStream(bos));
+        return DaemonProtocol.readRequest(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    }
+
+    /**
+     * Resolves the given path argument the way function factories do when called by the daemon.
+     */
+    private static Path resolveInDaemon(JsonObject request, String pathArgument) {
+        var result = new AtomicReference<Path>();
+        ScopedValue.where(FunctionArguments.WORKING_DIRECTORY, DaemonProtocol.getWorkingDirectory(request))
+                .run(() -> result.set(FunctionArguments.toPath(pathArgument)));
+        return result.get();
+    }
+}
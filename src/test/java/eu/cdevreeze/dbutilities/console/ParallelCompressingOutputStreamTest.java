@@ -0,0 +1,123 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.console;
+
+import module java.base;
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round-trip tests of {@link ParallelCompressingOutputStream}, decompressing its output with standard decoders.
+ *
+ * @author Chris de Vreeze
+ */
+class ParallelCompressingOutputStreamTest {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    @Test
+    void gzipOutputOfManyBlocksIsReadableAsOneGzipStream() throws IOException {
+        byte[] data = createData(10 * BLOCK_SIZE + 123);
+
+        byte[] compressed = compress(OutputCompression.GZIP, data, false);
+
+        assertArrayEquals(data, gunzip(compressed));
+        assertTrue(compressed.length < data.length);
+    }
+
+    @Test
+    void gzipOutputIsReadableWhenFlushedBetweenBlocks() throws IOException {
+        byte[] data = createData(5 * BLOCK_SIZE + 17);
+
+        byte[] compressed = compress(OutputCompression.GZIP, data, true);
+
+        assertArrayEquals(data, gunzip(compressed));
+    }
+
+    @Test
+    void gzipOutputOfNoDataIsReadable() throws IOException {
+        byte[] compressed = compress(OutputCompression.GZIP, new byte[0], false);
+
+        assertArrayEquals(new byte[0], gunzip(compressed));
+    }
+
+    @Test
+    void zstdOutputOfManyFramesIsReadableAsOneZstdStream() throws IOException {
+        byte[] data = createData(10 * BLOCK_SIZE + 123);
+
+        byte[] compressed = compress(OutputCompression.ZSTD, data, false);
+
+        assertArrayEquals(data, unzstd(compressed));
+        assertTrue(compressed.length < data.length);
+    }
+
+    @Test
+    void zstdOutputIsReadableWhenFlushedBetweenBlocks() throws IOException {
+        byte[] data = createData(5 * BLOCK_SIZE + 17);
+
+        byte[] compressed = compress(OutputCompression.ZSTD, data, true);
+
+        assertArrayEquals(data, unzstd(compressed));
+    }
+
+    /**
+     * Compresses the given data, written in chunks that do not line up with the blocks, optionally flushing
+     * after each chunk.
+     */
+    private static byte[] compress(OutputCompression compression, byte[] data, boolean flushAfterEachChunk)
+            throws IOException {
+        var bos = new ByteArrayOutputStream();
+        var options = new CompressionOptions(compression, compression.getDefaultLevel(), 4, BLOCK_SIZE);
+        try (var out = ParallelCompressingOutputStream.create(bos, options)) {
+            int chunkSize = BLOCK_SIZE / 3 + 1;
+            for (int offset = 0; offset < data.length; offset += chunkSize) {
+                out.write(data, offset, Math.min(chunkSize, data.length - offset));
+                if (flushAfterEachChunk) {
+                    out.flush();
+                }
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] unzstd(byte[] compressed) throws IOException {
+        try (var in = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Creates compressible but not trivially repetitive data.
+     */
+    private static byte[] createData(int size) {
+        var random = new Random(42);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests of {@link CborEncoder}, against the examples of RFC 8949 (appendix A). Doubles that are lossless in half
+ * precision are written in single precision by the encoder, so for those the single precision examples are used.
+ *
+ * @author Chris de Vreeze
+ */
+class CborEncoderTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 00",
+            "1, 01",
+            "10, 0a",
+            "23, 17",
+            "24, 1818",
+            "25, 1819",
+            "100, 1864",
+            "1000, 1903e8",
+            "1000000, 1a000f4240",
+            "1000000000000, 1b000000e8d4a51000",
+            "-1, 20",
+            "-10, 29",
+            "-100, 3863",
+            "-1000, 3903e7",
+            "9223372036854775807, 1b7fffffffffffffff",
+            "-9223372036854775808, 3b7fffffffffffffff"
+    })
+    void encodesLongs(long value, String expectedHex) throws IOException {
+        assertEquals(expectedHex, encode(encoder -> encoder.writeLong(value)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 00",
+            "-1000, 3903e7",
+            "9223372036854775808, 1b8000000000000000",
+            "18446744073709551615, 1bffffffffffffffff",
+            "18446744073709551616, c249010000000000000000",
+            "-9223372036854775809, 3b8000000000000000",
+            "-18446744073709551616, 3bffffffffffffffff",
+            "-18446744073709551617, c349010000000000000000"
+    })
+    void encodesBigIntegers(String value, String expectedHex) throws IOException {
+        assertEquals(expectedHex, encode(encoder -> encoder.writeBigInteger(new BigInteger(value))));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.0, fa00000000",
+            "1.5, fa3fc00000",
+            "100000.0, fa47c35000",
+            "3.4028234663852886e+38, fa7f7fffff",
+            "1.1, fb3ff199999999999a",
+            "1.0e+300, fb7e37e43c8800759c",
+            "-4.1, fbc010666666666666",
+            "Infinity, fa7f800000",
+            "-Infinity, faff800000",
+            "NaN, fa7fc00000"
+    })
+    void encodesDoubles(double value, String expectedHex) throws IOException {
+        assertEquals(expectedHex, encode(encoder -> encoder.writeDouble(value)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'', 60",
+            "a, 6161",
+            "IETF, 6449455446",
+            "'\"\\', 62225c",
+            "ü, 62c3bc",
+            "水, 63e6b0b4",
+            "𐅑, 64f0908591"
+    })
+    void encodesStrings(String value, String expectedHex) throws IOException {
+        assertEquals(expectedHex, encode(encoder -> encoder.writeString(value)));
+        assertEquals(expectedHex, HexFormat.of().formatHex(CborEncoder.encodeString(value)));
+    }
+
+    @Test
+    void encodesSimpleValues() throws IOException {
+        assertEquals("f4", encode(encoder -> encoder.writeBoolean(false)));
+        assertEquals("f5", encode(encoder -> encoder.writeBoolean(true)));
+        assertEquals("f6", encode(CborEncoder::writeNull));
+    }
+
+    @Test
+    void encodesByteStrings() throws IOException {
+        assertEquals("40", encode(encoder -> encoder.writeBytes(new byte[0])));
+        assertEquals("4401020304", encode(encoder -> encoder.writeBytes(new byte[]{1, 2, 3, 4})));
+    }
+
+    @Test
+    void encodesTaggedValues() throws IOException {
+        assertEquals("c11a514b67b0", encode(encoder -> encoder.writeInstant(Instant.ofEpochSecond(1363896240))));
+        assertEquals(
+                "c1fb41d452d9ec200000",
+                encode(encoder -> encoder.writeInstant(Instant.ofEpochSecond(1363896240, 500_000_000))));
+        // Example of RFC 8949 section 3.4.4
+        assertEquals("c48221196ab3", encode(encoder -> encoder.writeDecimal(new BigDecimal("273.15"))));
+        // Example of RFC 8943
+        assertEquals(
+                "d903ec6a313934302d31302d3039",
+                encode(encoder -> encoder.writeDate(LocalDate.of(1940, 10, 9))));
+    }
+
+    @Test
+    void encodesIndefiniteLengthArraysAndMaps() throws IOException {
+        assertEquals("9f018202039f0405ffff", encode(encoder -> {
+            encoder.writeIndefiniteArrayStart();
+            encoder.writeLong(1);
+            encoder.writeArrayStart(2);
+            encoder.writeLong(2);
+            encoder.writeLong(3);
+            encoder.writeIndefiniteArrayStart();
+            encoder.writeLong(4);
+            encoder.writeLong(5);
+            encoder.writeBreak();
+            encoder.writeBreak();
+        }));
+        assertEquals("bf61610161629f0203ffff", encode(encoder -> {
+            encoder.writeIndefiniteMapStart();
+            encoder.writeString("a");
+            encoder.writeLong(1);
+            encoder.writeString("b");
+            encoder.writeIndefiniteArrayStart();
+            encoder.writeLong(2);
+            encoder.writeLong(3);
+            encoder.writeBreak();
+            encoder.writeBreak();
+        }));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "[] | 80",
+            "[1, 2, 3] | 83010203",
+            "[1, [2, 3], [4, 5]] | 8301820203820405",
+            "{} | a0",
+            "{\"a\": 1, \"b\": [2, 3]} | a26161016162820203",
+            "[\"a\", {\"b\": \"c\"}] | 826161a161626163",
+            "[true, false, null] | 83f5f4f6",
+            "[18446744073709551616, -18446744073709551617] | 82c249010000000000000000c349010000000000000000",
+            "[273.15] | 81c48221196ab3"
+    })
+    void encodesJsonValues(String json, String expectedHex) throws IOException {
+        JsonValue jsonValue;
+        try (var jsonReader = JsonProvider.provider().createReader(new StringReader(json))) {
+            jsonValue = jsonReader.readValue();
+        }
+        assertEquals(expectedHex, encode(encoder -> encoder.writeJsonValue(jsonValue)));
+    }
+
+    private static String encode(EncoderAction action) throws IOException {
+        var bos = new ByteArrayOutputStream();
+        action.run(new CborEncoder(bos));
+        return HexFormat.of().formatHex(bos.toByteArray());
+    }
+
+    @FunctionalInterface
+    private interface EncoderAction {
+
+        void run(CborEncoder encoder) throws IOException;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025-2025 Chris de Vreeze
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package eu.cdevreeze.dbutilities.entityagentfunction.internal;
+
+import module java.base;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of {@link InputRecordReader}.
+ *
+ * @author Chris de Vreeze
+ */
+class InputRecordReaderTest {
+
+    private static final String NULL_VALUE = "";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsQuotedCsvFieldsContainingCommasQuotesAndLineBreaks() throws IOException {
+        List<JsonObject> records = readAll(
+                InputFormat.CSV,
+                "id,name\r\n1,\"Doe, John\"\r\n2,\"say \"\"hi\"\"\"\r\n3,\"two\r\nlines\"\r\n4,\"one\nmore\"\r\n");
+
+        assertEquals(
+                List.of(
+                        json("{\"id\": \"1\", \"name\": \"Doe, John\"}"),
+                        json("{\"id\": \"2\", \"name\": \"say \\\"hi\\\"\"}"),
+                        json("{\"id\": \"3\", \"name\": \"two\\r\\nlines\"}"),
+                        json("{\"id\": \"4\", \"name\": \"one\\nmore\"}")
+                ),
+                records);
+    }
+
+    @Test
+    void readsCsvRecordsSeparatedByLf() throws IOException {
+        List<JsonObject> records = readAll(InputFormat.CSV, "id,name\n1,a\n2,b");
+
+        assertEquals(
+                List.of(json("{\"id\": \"1\", \"name\": \"a\"}"), json("{\"id\": \"2\", \"name\": \"b\"}")),
+                records);
+    }
+
+    @Test
+    void readsOnlyUnquotedCsvFieldsEqualToNullValueAsNull() throws IOException {
+        List<JsonObject> records = readAll(InputFormat.CSV, "a,b,c\r\n,\"\",x\r\n");
+
+        assertEquals(List.of(json("{\"a\": null, \"b\": \"\", \"c\": \"x\"}")), records);
+    }
+
+    @Test
+    void readsQuotedCsvFieldsEqualToNonEmptyNullValueAsString() throws IOException {
+        Path file = write("a,b\r\nNULL,\"NULL\"\r\n");
+
+        try (InputRecordReader reader = InputRecordReader.open(file, InputFormat.CSV, "NULL")) {
+            assertEquals(List.of(json("{\"a\": null, \"b\": \"NULL\"}")), reader.readAll());
+        }
+    }
+
+    @Test
+    void readsNoRecordsFromHeaderOnlyCsv() throws IOException {
+        assertEquals(List.of(), readAll(InputFormat.CSV, "id,name\r\n"));
+        assertEquals(List.of(), readAll(InputFormat.CSV, "id,name"));
+        assertEquals(List.of(), readAll(InputFormat.CSV, ""));
+    }
+
+    @Test
+    void readsEmptyLinesOfSingleColumnCsvAsNullRecords() throws IOException {
+        List<JsonObject> records = readAll(InputFormat.CSV, "id\r\n1\r\n\r\n2\r\n\r\n");
+
+        assertEquals(
+                List.of(
+                        json("{\"id\": \"1\"}"),
+                        json("{\"id\": null}"),
+                        json("{\"id\": \"2\"}"),
+                        json("{\"id\": null}")
+                ),
+                records);
+    }
+
+    @Test
+    void skipsTrailingEmptyLineOfMultiColumnCsv() throws IOException {
+        List<JsonObject> records = readAll(InputFormat.CSV, "id,name\r\n1,a\r\n\r\n");
+
+        assertEquals(List.of(json("{\"id\": \"1\", \"name\": \"a\"}")), records);
+    }
+
+    @Test
+    void rejectsCsvRecordsWithWrongFieldCount() {
+        assertThrows(IllegalArgumentException.class, () -> readAll(InputFormat.CSV, "id,name\r\n1\r\n"));
+        assertThrows(IllegalArgumentException.class, () -> readAll(InputFormat.CSV, "id,name\r\n\r\n1,a\r\n"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuotedCsvField() {
+        assertThrows(EOFException.class, () -> readAll(InputFormat.CSV, "id,name\r\n1,\"a\r\n"));
+    }
+
+    @Test
+    void readsNdjsonObjectsAndArrays() throws IOException {
+        List<JsonObject> records = readAll(
+                InputFormat.NDJSON,
+                "{\"id\": 1, \"name\": \"a\"}\n\n[2, \"b\", null]\r\n[]\n");
+
+        assertEquals(
+                List.of(
+                        json("{\"id\": 1, \"name\": \"a\"}"),
+                        json("{\"1\": 2, \"2\": \"b\", \"3\": null}"),
+                        json("{}")
+                ),
+                records);
+        assertEquals(List.of("1", "2", "3"), List.copyOf(records.get(1).keySet()));
+    }
+
+    @Test
+    void rejectsNdjsonScalars() {
+        assertThrows(IllegalArgumentException.class, () -> readAll(InputFormat.NDJSON, "42\n"));
+    }
+
+    @Test
+    void convertsJsonValuesToParameterValues() {
+        assertEquals(Optional.empty(), InputRecordReader.toParameterValue(JsonValue.NULL));
+        assertEquals(Optional.of("a"), InputRecordReader.toParameterValue(JsonProvider.provider().createValue("a")));
+        assertEquals(Optional.of("12.5"), InputRecordReader.toParameterValue(JsonProvider.provider().createValue(12.5)));
+        assertEquals(Optional.of("true"), InputRecordReader.toParameterValue(JsonValue.TRUE));
+    }
+
+    private List<JsonObject> readAll(InputFormat inputFormat, String content) throws IOException {
+        Path file = write(content);
+        try (InputRecordReader reader = InputRecordReader.open(file, inputFormat, NULL_VALUE)) {
+            return reader.readAll();
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(tempDir, "input", ".txt"), content, StandardCharsets.UTF_8);
+    }
+
+    private static JsonObject json(String json) {
+        try (var jsonReader = JsonProvider.provider().createReader(new StringReader(json))) {
+            return jsonReader.readObject();
+        }
+    }
+}